@@ -1,6 +1,7 @@
 package com.VentureBiz.VenureBiz_Hr.config;
 
 import com.VentureBiz.VenureBiz_Hr.security.JwtAuthFilter;
+import jakarta.servlet.DispatcherType;
 import lombok.RequiredArgsConstructor;
 import org.springframework.context.annotation.*;
 import org.springframework.security.authentication.*;
@@ -33,7 +34,11 @@ public class SecurityConfig {
             .and()
             .sessionManagement(sm -> sm.sessionCreationPolicy(SessionCreationPolicy.STATELESS))
             .authorizeHttpRequests(auth -> auth
+                // streamed exports complete on an ASYNC dispatch that was already authorized
+                .dispatcherTypeMatchers(DispatcherType.ASYNC).permitAll()
                 .requestMatchers("/api/auth/**").permitAll()
+                // WebSocket upgrade; the STOMP CONNECT frame carries the JWT (StompAuthInterceptor)
+                .requestMatchers("/ws/**").permitAll()
                 .requestMatchers("/api/hr/**").hasRole("HR")
                 .requestMatchers("/api/employee/**").hasAnyRole("EMPLOYEE", "HR")
                 .anyRequest().authenticated()
@@ -0,0 +1,27 @@
+package com.VentureBiz.VenureBiz_Hr.config;
+
+import com.VentureBiz.VenureBiz_Hr.dto.SparseFields;
+import org.springframework.core.MethodParameter;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.json.MappingJacksonValue;
+import org.springframework.http.server.ServerHttpRequest;
+import org.springframework.http.server.ServerHttpResponse;
+import org.springframework.http.server.ServletServerHttpRequest;
+import org.springframework.web.bind.annotation.RestControllerAdvice;
+import org.springframework.web.servlet.mvc.method.annotation.AbstractMappingJacksonResponseBodyAdvice;
+
+// Applies ?fields= to JSON responses (see SparseFields)
+@RestControllerAdvice
+public class SparseFieldsAdvice extends AbstractMappingJacksonResponseBodyAdvice {
+
+    @Override
+    protected void beforeBodyWriteInternal(MappingJacksonValue container, MediaType contentType,
+                                           MethodParameter returnType, ServerHttpRequest request,
+                                           ServerHttpResponse response) {
+        if (!(request instanceof ServletServerHttpRequest servletRequest)) return;
+        String fields = servletRequest.getServletRequest().getParameter(SparseFields.PARAM);
+        if (fields != null && !fields.isBlank()) {
+            container.setFilters(SparseFields.only(fields));
+        }
+    }
+}
@@ -1,13 +1,29 @@
 package com.VentureBiz.VenureBiz_Hr.config;
 
+import com.VentureBiz.VenureBiz_Hr.dto.SparseFields;
+import com.VentureBiz.VenureBiz_Hr.security.CurrentUserArgumentResolver;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.jackson.Jackson2ObjectMapperBuilderCustomizer;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.web.method.support.HandlerMethodArgumentResolver;
 import org.springframework.web.servlet.config.annotation.CorsRegistry;
 import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
 
+import java.util.List;
+
 @Configuration
+@RequiredArgsConstructor
 public class WebConfig {
 
+    private final CurrentUserArgumentResolver currentUserArgumentResolver;
+
+    // View DTOs carry @JsonFilter; without ?fields= they must serialize in full everywhere
+    @Bean
+    public Jackson2ObjectMapperBuilderCustomizer sparseFieldsDefault() {
+        return builder -> builder.filters(SparseFields.all());
+    }
+
     @Bean
     public WebMvcConfigurer corsConfigurer() {
         return new WebMvcConfigurer() {
@@ -18,6 +34,11 @@ public class WebConfig {
                         .allowedMethods("GET", "POST", "PUT", "DELETE", "OPTIONS")
                         .allowCredentials(true);
             }
+
+            @Override
+            public void addArgumentResolvers(List<HandlerMethodArgumentResolver> resolvers) {
+                resolvers.add(currentUserArgumentResolver); // @CurrentUser
+            }
         };
     }
 }
@@ -0,0 +1,51 @@
+package com.VentureBiz.VenureBiz_Hr.config;
+
+import com.VentureBiz.VenureBiz_Hr.security.StompAuthInterceptor;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.messaging.simp.config.ChannelRegistration;
+import org.springframework.messaging.simp.config.MessageBrokerRegistry;
+import org.springframework.web.socket.config.annotation.EnableWebSocketMessageBroker;
+import org.springframework.web.socket.config.annotation.StompEndpointRegistry;
+import org.springframework.web.socket.config.annotation.WebSocketMessageBrokerConfigurer;
+import org.springframework.web.socket.config.annotation.WebSocketTransportRegistration;
+
+// STOMP over WebSocket at /ws: in-memory broker on /topic, application destinations on /app
+@Configuration
+@EnableWebSocketMessageBroker
+@RequiredArgsConstructor
+public class WebSocketConfig implements WebSocketMessageBrokerConfigurer {
+
+    private final StompAuthInterceptor stompAuthInterceptor;
+
+    // A session whose unsent frames exceed this many bytes, or that blocks a send this long, is closed
+    @Value("${dashboard.ws.send-buffer-bytes:524288}")
+    private int sendBufferBytes;
+
+    @Value("${dashboard.ws.send-time-limit-ms:10000}")
+    private int sendTimeLimitMs;
+
+    @Override
+    public void registerStompEndpoints(StompEndpointRegistry registry) {
+        registry.addEndpoint("/ws").setAllowedOrigins("http://localhost:5173", "http://localhost:5174");
+    }
+
+    @Override
+    public void configureMessageBroker(MessageBrokerRegistry registry) {
+        registry.enableSimpleBroker("/topic");
+        registry.setApplicationDestinationPrefixes("/app");
+    }
+
+    @Override
+    public void configureClientInboundChannel(ChannelRegistration registration) {
+        registration.interceptors(stompAuthInterceptor);
+    }
+
+    @Override
+    public void configureWebSocketTransport(WebSocketTransportRegistration registration) {
+        registration.setSendBufferSizeLimit(sendBufferBytes);
+        registration.setSendTimeLimit(sendTimeLimitMs);
+        registration.setMessageSizeLimit(16 * 1024); // inbound frames are only CONNECT/SUBSCRIBE
+    }
+}
@@ -0,0 +1,56 @@
+package com.VentureBiz.VenureBiz_Hr.controller;
+
+import com.VentureBiz.VenureBiz_Hr.dto.DepartmentAnalytics;
+import com.VentureBiz.VenureBiz_Hr.dto.DepartmentCost;
+import com.VentureBiz.VenureBiz_Hr.dto.HeadcountPoint;
+import com.VentureBiz.VenureBiz_Hr.dto.RolePay;
+import com.VentureBiz.VenureBiz_Hr.service.AnalyticsService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/analytics")
+@RequiredArgsConstructor
+@CrossOrigin(origins = "http://localhost:5174")
+public class AnalyticsController {
+
+    private final AnalyticsService analyticsService;
+
+    // ✅ HR — Everything for a month in one response
+    @GetMapping("/month")
+    @PreAuthorize("hasRole('HR')")
+    public DepartmentAnalytics month(@RequestParam int year, @RequestParam int month) {
+        return analyticsService.month(year, month);
+    }
+
+    // ✅ HR — Salary cost per department
+    @GetMapping("/departments/cost")
+    @PreAuthorize("hasRole('HR')")
+    public List<DepartmentCost> costByDepartment(@RequestParam int year, @RequestParam int month) {
+        return analyticsService.month(year, month).getCostByDepartment();
+    }
+
+    // ✅ HR — Average / min / max net pay per deptRole
+    @GetMapping("/roles/pay")
+    @PreAuthorize("hasRole('HR')")
+    public List<RolePay> payByRole(@RequestParam int year, @RequestParam int month) {
+        return analyticsService.month(year, month).getPayByRole();
+    }
+
+    // ✅ HR — Joiners and headcount for the 12 months ending at year/month
+    @GetMapping("/headcount")
+    @PreAuthorize("hasRole('HR')")
+    public List<HeadcountPoint> headcountTrend(@RequestParam int year, @RequestParam int month) {
+        return analyticsService.month(year, month).getHeadcountTrend();
+    }
+
+    // ✅ HR — Recompute a closed month's snapshot after a correction
+    @PostMapping("/snapshots/rebuild")
+    @PreAuthorize("hasRole('HR')")
+    public DepartmentAnalytics rebuildSnapshot(@RequestParam int year, @RequestParam int month) {
+        return analyticsService.rebuildSnapshot(year, month);
+    }
+}
@@ -3,7 +3,7 @@ package com.VentureBiz.VenureBiz_Hr.controller;
 import com.VentureBiz.VenureBiz_Hr.model.Announcement;
 import com.VentureBiz.VenureBiz_Hr.model.User;
 import com.VentureBiz.VenureBiz_Hr.repository.AnnouncementRepository;
-import com.VentureBiz.VenureBiz_Hr.repository.UserRepository;
+import com.VentureBiz.VenureBiz_Hr.security.CurrentUser;
 import lombok.RequiredArgsConstructor;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
@@ -18,15 +18,11 @@ import java.util.List;
 public class AnnouncementController {
 
     private final AnnouncementRepository announcementRepository;
-    private final UserRepository userRepository;
 
     @PostMapping("/create")
     @PreAuthorize("hasRole('HR')")
-    public Announcement createAnnouncement(@RequestBody Announcement announcement, 
-                                           @RequestParam("hrEmail") String hrEmail) {
-        User hr = userRepository.findByEmail(hrEmail)
-                .orElseThrow(() -> new RuntimeException("HR not found"));
-
+    public Announcement createAnnouncement(@RequestBody Announcement announcement,
+                                           @CurrentUser User hr) {
         announcement.setCreatedBy(hr);
         announcement.setCreatedAt(LocalDateTime.now());
         return announcementRepository.save(announcement);
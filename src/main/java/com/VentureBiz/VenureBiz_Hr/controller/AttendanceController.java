@@ -1,13 +1,40 @@
 package com.VentureBiz.VenureBiz_Hr.controller;
 
+import com.VentureBiz.VenureBiz_Hr.dto.AttendanceView;
+import com.VentureBiz.VenureBiz_Hr.dto.CursorPage;
+import com.VentureBiz.VenureBiz_Hr.dto.LeaveReconciliationReport;
+import com.VentureBiz.VenureBiz_Hr.dto.LiveAttendanceCounts;
+import com.VentureBiz.VenureBiz_Hr.dto.PunchImportReport;
+import com.VentureBiz.VenureBiz_Hr.dto.ReconciliationReport;
+import com.VentureBiz.VenureBiz_Hr.dto.RollupDrift;
 import com.VentureBiz.VenureBiz_Hr.model.Attendance;
 import com.VentureBiz.VenureBiz_Hr.model.User;
 import com.VentureBiz.VenureBiz_Hr.repository.AttendanceRepository;
-import com.VentureBiz.VenureBiz_Hr.repository.UserRepository;
+import com.VentureBiz.VenureBiz_Hr.scheduler.AttendanceScheduler;
+import com.VentureBiz.VenureBiz_Hr.security.AuthenticatedUser;
+import com.VentureBiz.VenureBiz_Hr.security.CurrentUser;
+import com.VentureBiz.VenureBiz_Hr.service.AttendanceFeed;
+import com.VentureBiz.VenureBiz_Hr.service.AttendancePunchService;
+import com.VentureBiz.VenureBiz_Hr.service.AttendanceRollupService;
+import com.VentureBiz.VenureBiz_Hr.service.AttendanceSummaryService;
+import com.VentureBiz.VenureBiz_Hr.service.ExportService;
+import com.VentureBiz.VenureBiz_Hr.service.LeaveAttendanceService;
+import com.VentureBiz.VenureBiz_Hr.service.PresenceBoard;
+import com.VentureBiz.VenureBiz_Hr.service.PunchImportService;
+import com.VentureBiz.VenureBiz_Hr.service.export.TabularWriter;
 import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Limit;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.IOException;
+import java.io.InputStream;
 import java.time.*;
 import java.util.*;
 
@@ -18,160 +45,196 @@ import java.util.*;
 public class AttendanceController {
 
     private final AttendanceRepository attendanceRepository;
-    private final UserRepository userRepository;
-
-    // --- TIME RULES ---
-    private static final LocalTime CHECKIN_ON_TIME = LocalTime.of(9, 50);
-    private static final LocalTime LATE_LIMIT = LocalTime.of(11, 0);
-    private static final LocalTime HALF_DAY_LIMIT = LocalTime.of(12, 0);
-    private static final LocalTime ABSENT_LIMIT = LocalTime.of(14, 0);
-    private static final LocalTime CHECKOUT_FULL_DAY = LocalTime.of(18, 0);
+    private final AttendanceScheduler attendanceScheduler;
+    private final AttendanceSummaryService attendanceSummaryService;
+    private final AttendanceRollupService attendanceRollupService;
+    private final ExportService exportService;
+    private final PresenceBoard presenceBoard;
+    private final AttendancePunchService attendancePunchService;
+    private final LeaveAttendanceService leaveAttendanceService;
+    private final AttendanceFeed attendanceFeed;
+    private final PunchImportService punchImportService;
 
     // =================== EMPLOYEE OPERATIONS ===================
 
     @PostMapping("/checkin")
     @PreAuthorize("hasRole('EMPLOYEE')")
-    public String checkIn(@RequestParam String email) {
-        User user = userRepository.findByEmail(email)
-                .orElseThrow(() -> new RuntimeException("User not found: " + email));
-
-        LocalDate today = LocalDate.now();
-        DayOfWeek day = today.getDayOfWeek();
-        if (day == DayOfWeek.SATURDAY || day == DayOfWeek.SUNDAY)
-            return "You cannot check in on weekends!";
-
-        Optional<Attendance> existing = attendanceRepository.findByUserAndDate(user, today);
-        if (existing.isPresent()) return "Already checked in today!";
-
-        LocalTime now = LocalTime.now();
-        Attendance attendance = new Attendance();
-        attendance.setUser(user);
-        attendance.setDate(today);
-        attendance.setCheckInTime(now);
-        attendance.setStatus("PENDING");
-        attendanceRepository.save(attendance);
-
-        return "Checked in successfully at " + now;
+    public String checkIn(@CurrentUser User user) {
+        return attendancePunchService.checkIn(user);
     }
 
     @PostMapping("/checkout")
     @PreAuthorize("hasRole('EMPLOYEE')")
-    public String checkOut(@RequestParam String email) {
-        User user = userRepository.findByEmail(email)
-                .orElseThrow(() -> new RuntimeException("User not found: " + email));
-
-        LocalDate today = LocalDate.now();
-        Attendance attendance = attendanceRepository.findByUserAndDate(user, today)
-                .orElseThrow(() -> new RuntimeException("No check-in record found!"));
-
-        if (attendance.getCheckOutTime() != null) return "Already checked out!";
-
-        LocalTime checkIn = attendance.getCheckInTime();
-        LocalTime checkOut = LocalTime.now();
-        attendance.setCheckOutTime(checkOut);
-        attendance.setStatus(determineFinalStatus(checkIn, checkOut));
-        attendanceRepository.save(attendance);
-
-        return "Checked out at " + checkOut + " (" + attendance.getStatus() + ")";
-    }
-
-    private String determineFinalStatus(LocalTime checkIn, LocalTime checkOut) {
-        if (checkIn == null) return "ABSENT";
-        if (checkIn.isAfter(ABSENT_LIMIT)) return "ABSENT";
-        if (checkOut.isBefore(CHECKOUT_FULL_DAY)) return "HALF_DAY";
-        if (checkIn.isAfter(HALF_DAY_LIMIT) && checkIn.isBefore(ABSENT_LIMIT)) return "HALF_DAY";
-        if (checkIn.isAfter(CHECKIN_ON_TIME) && checkIn.isBefore(LATE_LIMIT)) return "LATE";
-        if (checkIn.isBefore(CHECKIN_ON_TIME) || checkIn.equals(CHECKIN_ON_TIME)) return "PRESENT";
-        return "PENDING";
+    public String checkOut(@CurrentUser User user) {
+        return attendancePunchService.checkOut(user);
     }
 
     @GetMapping("/my")
     @PreAuthorize("hasRole('EMPLOYEE')")
-    public List<Attendance> getMyAttendance(@RequestParam String email) {
-        User user = userRepository.findByEmail(email)
-                .orElseThrow(() -> new RuntimeException("User not found: " + email));
-        return attendanceRepository.findByUser(user);
+    public List<AttendanceView> getMyAttendance(@CurrentUser Long userId) {
+        return attendanceRepository.findViewsByUser(userId);
     }
 
     @GetMapping("/my/month")
     @PreAuthorize("hasRole('EMPLOYEE')")
-    public List<Attendance> getMyAttendanceByMonth(
-            @RequestParam String email,
+    public List<AttendanceView> getMyAttendanceByMonth(
+            @CurrentUser Long userId,
             @RequestParam int year,
             @RequestParam int month) {
 
-        User user = userRepository.findByEmail(email)
-                .orElseThrow(() -> new RuntimeException("User not found: " + email));
-        return attendanceRepository.findByUserAndMonth(user, year, month);
+        return attendanceRepository.findViewsByUserAndMonth(userId, year, month);
     }
 
     @GetMapping("/my/month/summary")
     @PreAuthorize("hasRole('EMPLOYEE')")
     public Map<String, Long> getMyMonthlyAttendanceSummary(
-            @RequestParam String email,
+            @CurrentUser AuthenticatedUser me,
             @RequestParam int year,
             @RequestParam int month) {
 
-        User user = userRepository.findByEmail(email)
-                .orElseThrow(() -> new RuntimeException("User not found: " + email));
-
-        List<Attendance> attendanceList = attendanceRepository.findByUserAndMonth(user, year, month);
-
-        // Skip weekends
-        attendanceList.removeIf(a -> a.getDate().getDayOfWeek() == DayOfWeek.SATURDAY
-                || a.getDate().getDayOfWeek() == DayOfWeek.SUNDAY);
-
-        Map<String, Long> summary = new HashMap<>();
-        summary.put("PRESENT", attendanceList.stream().filter(a -> "PRESENT".equals(a.getStatus())).count());
-        summary.put("LATE", attendanceList.stream().filter(a -> "LATE".equals(a.getStatus())).count());
-        summary.put("HALF_DAY", attendanceList.stream().filter(a -> "HALF_DAY".equals(a.getStatus())).count());
-        summary.put("ABSENT", attendanceList.stream().filter(a -> "ABSENT".equals(a.getStatus())).count());
-        summary.put("PENDING", attendanceList.stream().filter(a -> "PENDING".equals(a.getStatus())).count());
-
-        return summary;
+        return attendanceSummaryService.summarizeUser(me.email(), year, month);
     }
 
     // =================== HR OPERATIONS ===================
 
     @GetMapping("/all")
     @PreAuthorize("hasRole('HR')")
-    public List<Attendance> getAllAttendance() {
-        return attendanceRepository.findAll();
+    public List<AttendanceView> getAllAttendance() {
+        return attendanceRepository.findAllViews();
     }
 
-    @GetMapping("/all/month")
+    // Keyset-paginated alternative to /all: pass the returned nextCursor as after=
+    @GetMapping("/all/page")
     @PreAuthorize("hasRole('HR')")
-    public List<Attendance> getAllByMonth(@RequestParam int year, @RequestParam int month) {
-        List<Attendance> list = attendanceRepository.findByMonth(year, month);
+    public CursorPage<AttendanceView> getAttendancePage(
+            @RequestParam(defaultValue = "0") long after,
+            @RequestParam(required = false) Integer limit,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @RequestParam(required = false) String status,
+            @RequestParam(required = false) String department) {
+
+        int size = CursorPage.clampLimit(limit);
+        List<AttendanceView> items = attendanceRepository.findPage(after, from, to, status, department, Limit.of(size));
+        return CursorPage.of(items, size, AttendanceView::getId);
+    }
+
+    // Live counts for today straight from the presence board (no SQL)
+    @GetMapping("/hr/live")
+    @PreAuthorize("hasRole('HR')")
+    public LiveAttendanceCounts getLiveCounts() {
+        return presenceBoard.counts();
+    }
 
-        // Skip weekends
-        list.removeIf(a -> a.getDate().getDayOfWeek() == DayOfWeek.SATURDAY
-                || a.getDate().getDayOfWeek() == DayOfWeek.SUNDAY);
+    @GetMapping("/all/month")
+    @PreAuthorize("hasRole('HR')")
+    public List<AttendanceView> getAllByMonth(@RequestParam int year, @RequestParam int month) {
+        // Weekends and holidays are filtered in the query
+        return attendanceRepository.findWorkingDayViewsByMonth(year, month);
+    }
 
-        return list;
+    // Streams the monthly register as CSV or XLSX (optionally gzipped) without loading it into memory
+    @GetMapping("/export")
+    @PreAuthorize("hasRole('HR')")
+    public ResponseEntity<StreamingResponseBody> exportMonth(
+            @RequestParam int year,
+            @RequestParam int month,
+            @RequestParam(defaultValue = "CSV") TabularWriter.Format format,
+            @RequestParam(defaultValue = "false") boolean gzip) {
+        return exportService.attendanceRegister(year, month, format, gzip);
     }
 
     @PutMapping("/{id}/edit")
     @PreAuthorize("hasRole('HR')")
+    @Transactional
     public Attendance editAttendance(@PathVariable Long id, @RequestBody Attendance updated) {
         Attendance existing = attendanceRepository.findById(id)
                 .orElseThrow(() -> new RuntimeException("Attendance not found!"));
 
+        attendanceRollupService.onChange(existing.getUser() == null ? null : existing.getUser().getId(),
+                existing.getDate(), existing.getStatus(), updated.getStatus());
+
         existing.setStatus(updated.getStatus());
         existing.setCheckInTime(updated.getCheckInTime());
         existing.setCheckOutTime(updated.getCheckOutTime());
         existing.setReason(updated.getReason());
 
-        return attendanceRepository.save(existing);
+        Attendance saved = attendanceRepository.save(existing);
+        if (saved.getUser() != null) {
+            presenceBoard.put(saved.getUser().getId(), saved.getDate(), saved.getCheckInTime(), saved.getCheckOutTime());
+            attendanceFeed.edited(saved.getUser().getId(), saved.getDate(), saved.getCheckInTime(),
+                    saved.getCheckOutTime(), saved.getStatus());
+        }
+        return saved;
     }
 
     @DeleteMapping("/{id}")
     @PreAuthorize("hasRole('HR')")
+    @Transactional
     public String deleteAttendance(@PathVariable Long id) {
-        attendanceRepository.deleteById(id);
+        attendanceRepository.findById(id).ifPresent(existing -> {
+            attendanceRollupService.onChange(existing.getUser() == null ? null : existing.getUser().getId(),
+                    existing.getDate(), existing.getStatus(), null);
+            attendanceRepository.delete(existing);
+            if (existing.getUser() != null) {
+                presenceBoard.forget(existing.getUser().getId(), existing.getDate());
+                attendanceFeed.deleted(existing.getUser().getId(), existing.getDate());
+            }
+        });
         return "Attendance record deleted successfully.";
     }
 
+    // Re-run (or dry-run) the nightly reconciliation, e.g. to backfill a day the job missed
+    @PostMapping("/hr/reconcile")
+    @PreAuthorize("hasRole('HR')")
+    public ReconciliationReport reconcileDay(
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate date,
+            @RequestParam(defaultValue = "false") boolean dryRun) {
+
+        if (date.isAfter(LocalDate.now()))
+            throw new RuntimeException("Cannot reconcile a future date: " + date);
+        if (!attendanceScheduler.canReconcile(date))
+            throw new RuntimeException("Cannot reconcile today before " + attendanceScheduler.getTodayCutoff()
+                    + ": employees who have not checked in yet would be marked ABSENT");
+
+        return attendanceScheduler.reconcile(date, dryRun);
+    }
+
+    // ✅ Bulk import of terminal punch logs: CSV (header employeeCode,deviceId,timestamp) or NDJSON, one punch per line
+    @PostMapping(value = "/hr/punches/import", consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
+    @PreAuthorize("hasRole('HR')")
+    public PunchImportReport importPunches(@RequestParam("file") MultipartFile file,
+                                           @RequestParam(required = false) PunchImportService.Format format) throws IOException {
+        try (InputStream in = file.getInputStream()) {
+            return punchImportService.importPunches(in,
+                    format != null ? format : PunchImportService.formatOf(file.getOriginalFilename()));
+        }
+    }
+
+    // ✅ Write LEAVE for approved-leave working days in [from, to] and revert leave that is no longer approved
+    @PostMapping("/hr/reconcile/leave")
+    @PreAuthorize("hasRole('HR')")
+    public LeaveReconciliationReport reconcileLeave(
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @RequestParam(defaultValue = "false") boolean dryRun) {
+        return leaveAttendanceService.reconcile(from, to, dryRun);
+    }
+
+    // Recompute a month of attendance_monthly_rollup from the attendance table
+    @PostMapping("/hr/rollup/rebuild")
+    @PreAuthorize("hasRole('HR')")
+    public String rebuildRollup(@RequestParam int year, @RequestParam int month) {
+        return attendanceRollupService.rebuildMonth(year, month);
+    }
+
+    // Report counters where the rollup and the attendance table disagree (empty = consistent)
+    @GetMapping("/hr/rollup/check")
+    @PreAuthorize("hasRole('HR')")
+    public List<RollupDrift> checkRollup(@RequestParam int year, @RequestParam int month) {
+        return attendanceRollupService.checkConsistency(year, month);
+    }
+
     @GetMapping("/hr/summary")
     @PreAuthorize("hasRole('HR')")
     public Map<String, Long> getEmployeeMonthlyAttendanceSummary(
@@ -179,23 +242,7 @@ public class AttendanceController {
             @RequestParam int year,
             @RequestParam int month) {
 
-        User user = userRepository.findByEmail(email)
-                .orElseThrow(() -> new RuntimeException("User not found: " + email));
-
-        List<Attendance> attendanceList = attendanceRepository.findByUserAndMonth(user, year, month);
-
-        // Skip weekends
-        attendanceList.removeIf(a -> a.getDate().getDayOfWeek() == DayOfWeek.SATURDAY
-                || a.getDate().getDayOfWeek() == DayOfWeek.SUNDAY);
-
-        Map<String, Long> summary = new HashMap<>();
-        summary.put("PRESENT", attendanceList.stream().filter(a -> "PRESENT".equals(a.getStatus())).count());
-        summary.put("LATE", attendanceList.stream().filter(a -> "LATE".equals(a.getStatus())).count());
-        summary.put("HALF_DAY", attendanceList.stream().filter(a -> "HALF_DAY".equals(a.getStatus())).count());
-        summary.put("ABSENT", attendanceList.stream().filter(a -> "ABSENT".equals(a.getStatus())).count());
-        summary.put("PENDING", attendanceList.stream().filter(a -> "PENDING".equals(a.getStatus())).count());
-
-        return summary;
+        return attendanceSummaryService.summarizeUser(email, year, month);
     }
 
     @GetMapping("/hr/summary/all")
@@ -204,26 +251,6 @@ public class AttendanceController {
             @RequestParam int year,
             @RequestParam int month) {
 
-        List<User> allUsers = userRepository.findAll();
-        Map<String, Map<String, Long>> report = new HashMap<>();
-
-        for (User user : allUsers) {
-            List<Attendance> attendanceList = attendanceRepository.findByUserAndMonth(user, year, month);
-
-            // Skip weekends
-            attendanceList.removeIf(a -> a.getDate().getDayOfWeek() == DayOfWeek.SATURDAY
-                    || a.getDate().getDayOfWeek() == DayOfWeek.SUNDAY);
-
-            Map<String, Long> summary = new HashMap<>();
-            summary.put("PRESENT", attendanceList.stream().filter(a -> "PRESENT".equals(a.getStatus())).count());
-            summary.put("LATE", attendanceList.stream().filter(a -> "LATE".equals(a.getStatus())).count());
-            summary.put("HALF_DAY", attendanceList.stream().filter(a -> "HALF_DAY".equals(a.getStatus())).count());
-            summary.put("ABSENT", attendanceList.stream().filter(a -> "ABSENT".equals(a.getStatus())).count());
-            summary.put("PENDING", attendanceList.stream().filter(a -> "PENDING".equals(a.getStatus())).count());
-
-            report.put(user.getEmail(), summary);
-        }
-
-        return report;
+        return attendanceSummaryService.summarizeAll(year, month);
     }
 }
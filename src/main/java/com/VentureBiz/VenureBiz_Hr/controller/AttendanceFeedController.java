@@ -0,0 +1,21 @@
+package com.VentureBiz.VenureBiz_Hr.controller;
+
+import com.VentureBiz.VenureBiz_Hr.dto.AttendanceSnapshot;
+import com.VentureBiz.VenureBiz_Hr.service.AttendanceFeed;
+import lombok.RequiredArgsConstructor;
+import org.springframework.messaging.simp.annotation.SubscribeMapping;
+import org.springframework.stereotype.Controller;
+
+// STOMP: subscribe to /app/attendance/snapshot for today's board, then to /topic/attendance for deltas
+@Controller
+@RequiredArgsConstructor
+public class AttendanceFeedController {
+
+    private final AttendanceFeed attendanceFeed;
+
+    // ✅ Replied directly to the subscriber (HR only, see StompAuthInterceptor)
+    @SubscribeMapping("/attendance/snapshot")
+    public AttendanceSnapshot snapshot() {
+        return attendanceFeed.snapshot();
+    }
+}
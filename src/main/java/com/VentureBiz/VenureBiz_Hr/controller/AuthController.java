@@ -7,6 +7,7 @@ import com.VentureBiz.VenureBiz_Hr.model.User;
 import com.VentureBiz.VenureBiz_Hr.repository.EmployeeRepository;
 import com.VentureBiz.VenureBiz_Hr.repository.UserRepository;
 import com.VentureBiz.VenureBiz_Hr.security.JwtService;
+import com.VentureBiz.VenureBiz_Hr.security.UserStatusCache;
 import lombok.RequiredArgsConstructor;
 import com.VentureBiz.VenureBiz_Hr.model.Employee;
 import com.VentureBiz.VenureBiz_Hr.model.User;
@@ -41,6 +42,7 @@ public class AuthController {
     private final AuthenticationManager authManager;
     private final PasswordEncoder passwordEncoder;
     private final JwtService jwtService;
+    private final UserStatusCache userStatusCache;
 
     @PostMapping("/register")
     public ResponseEntity<Map<String, String>> register(@RequestBody User user) {
@@ -55,6 +57,7 @@ public class AuthController {
             // Encode password and save user
             user.setPassword(passwordEncoder.encode(user.getPassword()));
             userRepository.save(user);
+            userStatusCache.invalidate(user.getEmail());
 
             return ResponseEntity.ok(Map.of("message", "User registered successfully!"));
 
@@ -80,8 +83,6 @@ public class AuthController {
         User user = userRepository.findByEmail(loginRequest.getEmail())
                 .orElseThrow(() -> new RuntimeException("User not found"));
 
-        String token = jwtService.generateToken(user.getEmail(), "ROLE_" + user.getRole().name());
-
         // If role is EMPLOYEE, check status and include employeeCode
         if (user.getRole() == Role.EMPLOYEE) {
             Employee employee = employeeRepository.findByUser_Email(user.getEmail())
@@ -91,6 +92,8 @@ public class AuthController {
                 throw new RuntimeException("Your account is not active. Please contact HR.");
             }
 
+            String token = jwtService.generateToken(user, employee.getEmployeeId());
+
             // Return token, role, and employeeCode only for EMPLOYEE
             return Map.of(
                     "token", token,
@@ -100,6 +103,7 @@ public class AuthController {
         }
 
         // For HR or other roles, return only token and role
+        String token = jwtService.generateToken(user, null);
         return Map.of(
                 "token", token,
                 "role", user.getRole().name()
@@ -0,0 +1,67 @@
+package com.VentureBiz.VenureBiz_Hr.controller;
+
+import com.VentureBiz.VenureBiz_Hr.model.Holiday;
+import com.VentureBiz.VenureBiz_Hr.service.HolidayService;
+import com.VentureBiz.VenureBiz_Hr.service.WorkingDayCalendar;
+import lombok.RequiredArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpStatus;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+import java.util.Map;
+
+@CrossOrigin(origins = "http://localhost:5174")
+@RestController
+@RequestMapping("/api/holidays")
+@RequiredArgsConstructor
+public class HolidayController {
+
+    private final HolidayService holidayService;
+    private final WorkingDayCalendar workingDayCalendar;
+
+    // ✅ Holidays of a year (optionally only those that apply to one office)
+    @GetMapping
+    @PreAuthorize("hasAnyRole('HR','EMPLOYEE')")
+    public List<Holiday> list(@RequestParam int year, @RequestParam(required = false) String location) {
+        return holidayService.list(year, location);
+    }
+
+    // ✅ Working days in [from, to] for an office (no location = company-wide calendar)
+    @GetMapping("/working-days")
+    @PreAuthorize("hasAnyRole('HR','EMPLOYEE')")
+    public Map<String, Object> workingDays(
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @RequestParam(required = false) String location) {
+        if (to.isBefore(from) || ChronoUnit.DAYS.between(from, to) >= 366)
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Range must be 1 to 366 days");
+        return Map.of("from", from, "to", to, "workingDays", workingDayCalendar.workingDays(from, to.plusDays(1), location));
+    }
+
+    // ✅ HR adds a holiday
+    @PostMapping
+    @PreAuthorize("hasRole('HR')")
+    public Holiday create(@RequestBody Holiday holiday) {
+        return holidayService.create(holiday);
+    }
+
+    // ✅ HR edits a holiday
+    @PutMapping("/{id}")
+    @PreAuthorize("hasRole('HR')")
+    public Holiday update(@PathVariable Long id, @RequestBody Holiday holiday) {
+        return holidayService.update(id, holiday);
+    }
+
+    // ✅ HR removes a holiday
+    @DeleteMapping("/{id}")
+    @PreAuthorize("hasRole('HR')")
+    public String delete(@PathVariable Long id) {
+        holidayService.delete(id);
+        return "Holiday deleted successfully";
+    }
+}
@@ -1,11 +1,20 @@
 package com.VentureBiz.VenureBiz_Hr.controller;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
+import com.VentureBiz.VenureBiz_Hr.dto.CursorPage;
+import com.VentureBiz.VenureBiz_Hr.dto.EmployeeView;
 import com.VentureBiz.VenureBiz_Hr.model.Employee;
+import com.VentureBiz.VenureBiz_Hr.model.Status;
 import com.VentureBiz.VenureBiz_Hr.model.User;
 import com.VentureBiz.VenureBiz_Hr.repository.EmployeeRepository;
 import com.VentureBiz.VenureBiz_Hr.repository.UserRepository;
+import com.VentureBiz.VenureBiz_Hr.security.UserStatusCache;
+import com.VentureBiz.VenureBiz_Hr.service.AnalyticsService;
+import com.VentureBiz.VenureBiz_Hr.service.AttendanceRollupService;
+import com.VentureBiz.VenureBiz_Hr.service.LeaveCalendar;
+import com.VentureBiz.VenureBiz_Hr.service.WorkingDayCalendar;
 import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Limit;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.security.crypto.password.PasswordEncoder;
@@ -13,6 +22,7 @@ import org.springframework.web.bind.annotation.*;
 
 import java.time.LocalDate;
 import java.util.List;
+import java.util.Objects;
 @CrossOrigin(origins = "http://localhost:5173") // match frontend
 @RestController
 @RequestMapping("/api/hr")
@@ -22,12 +32,29 @@ public class HrController {
     private final EmployeeRepository employeeRepository;
     private final UserRepository userRepository;
     private final PasswordEncoder passwordEncoder;
+    private final UserStatusCache userStatusCache;
+    private final AnalyticsService analyticsService;
+    private final LeaveCalendar leaveCalendar;
+    private final WorkingDayCalendar workingDayCalendar;
+    private final AttendanceRollupService attendanceRollupService;
 
     // ✅ Get all employees
     @GetMapping("/employees")
     @PreAuthorize("hasRole('HR')")
-    public List<Employee> getAllEmployees() {
-        return employeeRepository.findAll();
+    public List<EmployeeView> getAllEmployees() {
+        return employeeRepository.findAllViews();
+    }
+
+    // ✅ Page through employees (keyset: pass nextCursor back as after=)
+    @GetMapping("/employees/page")
+    @PreAuthorize("hasRole('HR')")
+    public CursorPage<EmployeeView> getEmployeePage(@RequestParam(defaultValue = "0") long after,
+                                                    @RequestParam(required = false) Integer limit,
+                                                    @RequestParam(required = false) String department,
+                                                    @RequestParam(required = false) Status status) {
+        int size = CursorPage.clampLimit(limit);
+        List<EmployeeView> items = employeeRepository.findPage(after, department, status, Limit.of(size));
+        return CursorPage.of(items, size, EmployeeView::getId);
     }
 
     // ✅ Add new employee
@@ -49,6 +76,10 @@ public class HrController {
         }
 
         Employee saved = employeeRepository.save(employee);
+        userStatusCache.invalidate(user.getEmail());
+        analyticsService.invalidateAll();
+        leaveCalendar.refreshUser(saved.getUser() != null ? saved.getUser().getEmail() : null);
+        if (saved.getOfficeLocation() != null) workingDayCalendar.refreshLocations();
         return ResponseEntity.ok(saved);
     }
 
@@ -59,12 +90,17 @@ public class HrController {
 
         Employee existing = employeeRepository.findById(id)
                 .orElseThrow(() -> new RuntimeException("Employee not found with ID: " + id));
+        String previousEmail = existing.getUser() != null ? existing.getUser().getEmail() : null;
+        Long previousUserId = existing.getUser() != null ? existing.getUser().getId() : null;
 
         existing.setEmployeeId(updated.getEmployeeId());
         existing.setName(updated.getName());
         existing.setDepartment(updated.getDepartment());
         existing.setDeptRole(updated.getDeptRole());
         existing.setStatus(updated.getStatus());
+        String previousLocation = existing.getOfficeLocation();
+        existing.setOfficeLocation(updated.getOfficeLocation() == null || updated.getOfficeLocation().isBlank()
+                ? null : updated.getOfficeLocation().trim());
 
         // ✅ Update Date of Joining
         if (updated.getDateOfJoining() != null) {
@@ -85,6 +121,20 @@ public class HrController {
         }
 
         Employee saved = employeeRepository.save(existing);
+
+        // ✅ Status or account changes must reach the auth path right away
+        userStatusCache.invalidate(previousEmail);
+        if (saved.getUser() != null) userStatusCache.invalidate(saved.getUser().getEmail());
+        analyticsService.invalidateAll();
+        leaveCalendar.refreshUser(saved.getUser() != null ? saved.getUser().getEmail() : null);
+        if (!Objects.equals(previousLocation, saved.getOfficeLocation())
+                || !Objects.equals(previousEmail, saved.getUser() != null ? saved.getUser().getEmail() : null)) {
+            workingDayCalendar.refreshLocations();
+            // Rollup counters skip the office's holidays: recount the months of the user(s) involved
+            Long userId = saved.getUser() != null ? saved.getUser().getId() : null;
+            if (previousUserId != null) attendanceRollupService.rebuildUser(previousUserId);
+            if (userId != null && !userId.equals(previousUserId)) attendanceRollupService.rebuildUser(userId);
+        }
         return ResponseEntity.ok(saved);
     }
 
@@ -92,11 +142,17 @@ public class HrController {
     @DeleteMapping("/employees/{id}")
     @PreAuthorize("hasRole('HR')")
     public ResponseEntity<?> deleteEmployee(@PathVariable Long id) {
-        if (!employeeRepository.existsById(id)) {
+        Employee existing = employeeRepository.findById(id).orElse(null);
+        if (existing == null) {
             return ResponseEntity.status(404).body("❌ Employee not found with ID: " + id);
         }
 
-        employeeRepository.deleteById(id);
+        String email = existing.getUser() != null ? existing.getUser().getEmail() : null;
+        employeeRepository.delete(existing);
+        userStatusCache.invalidate(email);
+        analyticsService.invalidateAll();
+        leaveCalendar.refreshUser(email);
+        if (existing.getOfficeLocation() != null) workingDayCalendar.refreshLocations();
         return ResponseEntity.ok("✅ Employee deleted successfully");
     }
 
@@ -123,7 +179,7 @@ public class HrController {
         Authentication auth = SecurityContextHolder.getContext().getAuthentication();
         String email = auth.getName(); // assuming username = email
 
-        return employeeRepository.findByUser_Email(email)
+        return employeeRepository.findViewByEmail(email)
                 .<ResponseEntity<?>>map(ResponseEntity::ok)
                 .orElseGet(() -> ResponseEntity.status(404)
                         .body("❌ Employee profile not found for: " + email));
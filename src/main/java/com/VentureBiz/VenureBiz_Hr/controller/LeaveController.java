@@ -1,12 +1,25 @@
 package com.VentureBiz.VenureBiz_Hr.controller;
 
+import com.VentureBiz.VenureBiz_Hr.dto.CursorPage;
+import com.VentureBiz.VenureBiz_Hr.dto.LeaveDecisionRequest;
+import com.VentureBiz.VenureBiz_Hr.dto.LeaveDecisionResult;
+import com.VentureBiz.VenureBiz_Hr.dto.LeaveView;
+import com.VentureBiz.VenureBiz_Hr.dto.TeamAvailability;
+import com.VentureBiz.VenureBiz_Hr.model.LeaveBalance;
+import com.VentureBiz.VenureBiz_Hr.model.LeaveLedgerEntry;
 import com.VentureBiz.VenureBiz_Hr.model.LeaveRequest;
 import com.VentureBiz.VenureBiz_Hr.model.User;
 import com.VentureBiz.VenureBiz_Hr.repository.LeaveRepository;
-import com.VentureBiz.VenureBiz_Hr.repository.UserRepository;
+import com.VentureBiz.VenureBiz_Hr.security.CurrentUser;
+import com.VentureBiz.VenureBiz_Hr.service.LeaveApprovalService;
+import com.VentureBiz.VenureBiz_Hr.service.LeaveCalendar;
+import com.VentureBiz.VenureBiz_Hr.service.LeaveLedgerService;
 import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Limit;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.bind.annotation.*;
 
 import java.time.LocalDate;
@@ -20,45 +33,49 @@ import java.util.List;
 public class LeaveController {
 
     private final LeaveRepository leaveRepository;
-    private final UserRepository userRepository;
+    private final LeaveLedgerService leaveLedgerService;
+    private final LeaveApprovalService leaveApprovalService;
+    private final LeaveCalendar leaveCalendar;
 
     // ✅ Employee applies for leave
     @PostMapping("/apply")
     @PreAuthorize("hasRole('EMPLOYEE')")
-    public LeaveRequest applyLeave(@RequestBody LeaveRequest leaveRequest, @RequestParam String email) {
-        User employee = userRepository.findByEmail(email)
-                .orElseThrow(() -> new RuntimeException("User not found"));
-
+    @Transactional
+    public LeaveRequest applyLeave(@RequestBody LeaveRequest leaveRequest, @CurrentUser User employee) {
         long days = ChronoUnit.DAYS.between(leaveRequest.getStartDate(), leaveRequest.getEndDate()) + 1;
         if (days > 3) {
             throw new RuntimeException("Leave cannot be more than 3 days");
         }
+        leaveCalendar.requireNoOverlap(employee.getId(), leaveRequest.getStartDate(), leaveRequest.getEndDate(), null);
+        leaveLedgerService.requireAvailable(employee.getId(), leaveRequest.getLeaveType(),
+                leaveRequest.getStartDate().getYear(), days);
 
         leaveRequest.setEmployee(employee);
         leaveRequest.setLeaveStatus(LeaveRequest.LeaveStatus.PENDING);
         leaveRequest.setDays(days);
         leaveRequest.setAppliedOn(LocalDate.now()); // ✅ LocalDate only
 
-        return leaveRepository.save(leaveRequest);
+        LeaveRequest saved = leaveRepository.save(leaveRequest);
+        leaveCalendar.refresh(List.of(saved.getId()));
+        return saved;
     }
 
     // ✅ Employee views their leaves
     @GetMapping("/my")
     @PreAuthorize("hasRole('EMPLOYEE')")
-    public List<LeaveRequest> myLeaves(@RequestParam String email) {
-        User employee = userRepository.findByEmail(email)
-                .orElseThrow(() -> new RuntimeException("User not found"));
-        return leaveRepository.findByEmployee(employee);
+    public List<LeaveView> myLeaves(@CurrentUser Long userId) {
+        return leaveRepository.findViewsByUser(userId);
     }
 
     // ✅ Employee edits leave (only if pending)
     @PutMapping("/{id}/edit")
     @PreAuthorize("hasRole('EMPLOYEE')")
-    public LeaveRequest editLeave(@PathVariable Long id, @RequestBody LeaveRequest updatedLeave, @RequestParam String email) {
+    @Transactional
+    public LeaveRequest editLeave(@PathVariable Long id, @RequestBody LeaveRequest updatedLeave, @CurrentUser Long userId) {
         LeaveRequest leave = leaveRepository.findById(id)
                 .orElseThrow(() -> new RuntimeException("Leave not found"));
 
-        if (!leave.getEmployee().getEmail().equals(email)) {
+        if (!leave.getEmployee().getId().equals(userId)) {
             throw new RuntimeException("You can only edit your own leave");
         }
         if (leave.getLeaveStatus() != LeaveRequest.LeaveStatus.PENDING) {
@@ -69,6 +86,9 @@ public class LeaveController {
         if (days > 3) {
             throw new RuntimeException("Leave cannot be more than 3 days");
         }
+        leaveCalendar.requireNoOverlap(userId, updatedLeave.getStartDate(), updatedLeave.getEndDate(), id);
+        leaveLedgerService.requireAvailable(userId, updatedLeave.getLeaveType(),
+                updatedLeave.getStartDate().getYear(), days);
 
         leave.setLeaveType(updatedLeave.getLeaveType());
         leave.setStartDate(updatedLeave.getStartDate());
@@ -76,17 +96,19 @@ public class LeaveController {
         leave.setDays(days);
         leave.setReason(updatedLeave.getReason());
 
-        return leaveRepository.save(leave);
+        LeaveRequest saved = leaveRepository.save(leave);
+        leaveCalendar.refresh(List.of(id));
+        return saved;
     }
 
     // ✅ Employee deletes leave (only if pending)
     @DeleteMapping("/{id}/delete")
     @PreAuthorize("hasRole('EMPLOYEE')")
-    public String deleteLeave(@PathVariable Long id, @RequestParam String email) {
+    public String deleteLeave(@PathVariable Long id, @CurrentUser Long userId) {
         LeaveRequest leave = leaveRepository.findById(id)
                 .orElseThrow(() -> new RuntimeException("Leave not found"));
 
-        if (!leave.getEmployee().getEmail().equals(email)) {
+        if (!leave.getEmployee().getId().equals(userId)) {
             throw new RuntimeException("You can only delete your own leave");
         }
         if (leave.getLeaveStatus() != LeaveRequest.LeaveStatus.PENDING) {
@@ -94,14 +116,31 @@ public class LeaveController {
         }
 
         leaveRepository.delete(leave);
+        leaveCalendar.refresh(List.of(id));
         return "Leave deleted successfully";
     }
 
     // ✅ HR views all leaves
     @GetMapping("/all")
     @PreAuthorize("hasRole('HR')")
-    public List<LeaveRequest> allLeaves() {
-        return leaveRepository.findAll();
+    public List<LeaveView> allLeaves() {
+        return leaveRepository.findAllViews();
+    }
+
+    // ✅ HR pages through leaves (keyset: pass nextCursor back as after=)
+    @GetMapping("/all/page")
+    @PreAuthorize("hasRole('HR')")
+    public CursorPage<LeaveView> leavePage(
+            @RequestParam(defaultValue = "0") long after,
+            @RequestParam(required = false) Integer limit,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @RequestParam(required = false) LeaveRequest.LeaveStatus status,
+            @RequestParam(required = false) String department) {
+
+        int size = CursorPage.clampLimit(limit);
+        List<LeaveView> items = leaveRepository.findPage(after, from, to, status, department, Limit.of(size));
+        return CursorPage.of(items, size, LeaveView::getId);
     }
 
 //    // ✅ HR updates leave status (approve/reject)
@@ -124,18 +163,72 @@ public class LeaveController {
     @PreAuthorize("hasRole('HR')")
     public LeaveRequest updateLeaveStatus(@PathVariable Long id,
                                           @RequestParam LeaveRequest.LeaveStatus leaveStatus) {
-        LeaveRequest leave = leaveRepository.findById(id)
-                .orElseThrow(() -> new RuntimeException("Leave not found"));
+        // ✅ Allow status change anytime; approving consumes the balance, un-approving gives it back
+        String hrEmail = SecurityContextHolder.getContext().getAuthentication().getName();
+        return leaveApprovalService.decide(id, leaveStatus, hrEmail);
+    }
+
+    // ✅ HR approval queue: PENDING requests only (keyset: pass nextCursor back as after=)
+    @GetMapping("/queue")
+    @PreAuthorize("hasRole('HR')")
+    public CursorPage<LeaveView> approvalQueue(
+            @RequestParam(defaultValue = "0") long after,
+            @RequestParam(required = false) Integer limit,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @RequestParam(required = false) String department) {
+
+        int size = CursorPage.clampLimit(limit);
+        List<LeaveView> items = leaveRepository.findPage(after, from, to, LeaveRequest.LeaveStatus.PENDING,
+                department, Limit.of(size));
+        return CursorPage.of(items, size, LeaveView::getId);
+    }
 
-        // ✅ Allow status change anytime
-        leave.setLeaveStatus(leaveStatus);
+    // ✅ Who is out between two dates (whole company or one department), from the in-memory leave calendar
+    @GetMapping("/availability")
+    @PreAuthorize("hasAnyRole('EMPLOYEE', 'HR')")
+    public TeamAvailability availability(
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @RequestParam(required = false) String department) {
+        return leaveCalendar.availability(from, to, department);
+    }
 
-        // Track who updated and when
+    // ✅ HR approves or rejects many pending leaves at once; one outcome per id
+    @PutMapping("/decisions")
+    @PreAuthorize("hasRole('HR')")
+    public LeaveDecisionResult decideLeaves(@RequestBody LeaveDecisionRequest request) {
         String hrEmail = SecurityContextHolder.getContext().getAuthentication().getName();
-        leave.setApprovedByHr(hrEmail);
-        leave.setApprovedOn(LocalDate.now());
+        return leaveApprovalService.decideBulk(request.getIds(), request.getStatus(), hrEmail);
+    }
+
+    // ✅ Employee views their balances (defaults to the current year)
+    @GetMapping("/balance/my")
+    @PreAuthorize("hasRole('EMPLOYEE')")
+    public List<LeaveBalance> myBalances(@CurrentUser Long userId, @RequestParam(required = false) Integer year) {
+        return leaveLedgerService.balances(userId, year != null ? year : LocalDate.now().getYear());
+    }
+
+    // ✅ Employee views their ledger (accruals, consumptions, reversals)
+    @GetMapping("/ledger/my")
+    @PreAuthorize("hasRole('EMPLOYEE')")
+    public List<LeaveLedgerEntry> myLedger(@CurrentUser Long userId, @RequestParam(required = false) Integer year) {
+        return leaveLedgerService.ledger(userId, year != null ? year : LocalDate.now().getYear());
+    }
+
+    // ✅ HR views an employee's balances
+    @GetMapping("/balances/{userId}")
+    @PreAuthorize("hasRole('HR')")
+    public List<LeaveBalance> userBalances(@PathVariable Long userId, @RequestParam(required = false) Integer year) {
+        return leaveLedgerService.balances(userId, year != null ? year : LocalDate.now().getYear());
+    }
 
-        return leaveRepository.save(leave);
+    // ✅ HR credits a month's accrual (the scheduler does this on the 1st; safe to re-run)
+    @PostMapping("/accruals")
+    @PreAuthorize("hasRole('HR')")
+    public String accrueMonth(@RequestParam int year, @RequestParam int month) {
+        int credited = leaveLedgerService.accrueMonth(year, month);
+        return "✅ Leave accrual " + month + "/" + year + ": " + credited + " ledger entries";
     }
 
 }
@@ -3,17 +3,49 @@ package com.VentureBiz.VenureBiz_Hr.controller;
 import org.springframework.web.server.ResponseStatusException;
 import org.springframework.http.HttpStatus;
 
+import com.VentureBiz.VenureBiz_Hr.dto.CursorPage;
+import com.VentureBiz.VenureBiz_Hr.dto.PayrollComputationReport;
+import com.VentureBiz.VenureBiz_Hr.dto.PayrollRunStatus;
+import com.VentureBiz.VenureBiz_Hr.dto.PayslipSource;
+import com.VentureBiz.VenureBiz_Hr.dto.SalaryLine;
+import com.VentureBiz.VenureBiz_Hr.dto.SalaryView;
 import com.VentureBiz.VenureBiz_Hr.model.Employee;
 import com.VentureBiz.VenureBiz_Hr.model.Salary;
 import com.VentureBiz.VenureBiz_Hr.model.SalaryStatus;
 import com.VentureBiz.VenureBiz_Hr.repository.EmployeeRepository;
+import com.VentureBiz.VenureBiz_Hr.repository.PayslipRepository;
 import com.VentureBiz.VenureBiz_Hr.repository.SalaryRepository;
+import com.VentureBiz.VenureBiz_Hr.service.AnalyticsService;
+import com.VentureBiz.VenureBiz_Hr.service.BankTransferService;
+import com.VentureBiz.VenureBiz_Hr.service.ExportService;
+import com.VentureBiz.VenureBiz_Hr.service.PayrollEngineService;
+import com.VentureBiz.VenureBiz_Hr.service.PayrollRunService;
+import com.VentureBiz.VenureBiz_Hr.service.SalaryLifecycleService;
+import com.VentureBiz.VenureBiz_Hr.service.bank.BankFileWriter;
+import com.VentureBiz.VenureBiz_Hr.service.export.TabularWriter;
+import com.VentureBiz.VenureBiz_Hr.service.payslip.PayslipService;
+import com.VentureBiz.VenureBiz_Hr.security.AuthenticatedUser;
+import com.VentureBiz.VenureBiz_Hr.security.CurrentUser;
 import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Limit;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.math.BigDecimal;
+import java.time.Duration;
 import java.time.LocalDate;
 import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
 
 @RestController
 @RequestMapping("/api/salary")
@@ -23,6 +55,14 @@ public class SalaryController {
 
     private final EmployeeRepository employeeRepository;
     private final SalaryRepository salaryRepository;
+    private final ExportService exportService;
+    private final PayrollRunService payrollRunService;
+    private final SalaryLifecycleService salaryLifecycleService;
+    private final PayrollEngineService payrollEngineService;
+    private final PayslipService payslipService;
+    private final PayslipRepository payslipRepository;
+    private final BankTransferService bankTransferService;
+    private final AnalyticsService analyticsService;
 
     // ✅ Generate or update Salary for an Employee (HR only)
     @PostMapping("/generate")
@@ -30,10 +70,10 @@ public class SalaryController {
     public Salary generateOrUpdateSalary(@RequestParam String employeeCode,
                                          @RequestParam int month,
                                          @RequestParam int year,
-                                         @RequestParam double basicPay,
-                                         @RequestParam double hra,
-                                         @RequestParam double allowances,
-                                         @RequestParam double deductions,
+                                         @RequestParam BigDecimal basicPay,
+                                         @RequestParam BigDecimal hra,
+                                         @RequestParam BigDecimal allowances,
+                                         @RequestParam BigDecimal deductions,
                                          @RequestParam String bankName,
                                          @RequestParam String accountNumber) {
 
@@ -43,17 +83,50 @@ public class SalaryController {
 
         Salary salary = salaryRepository.findByEmployeeAndMonthAndYear(employee, month, year)
                 .orElse(Salary.builder().employee(employee).month(month).year(year).payslipDate(LocalDate.now()).status(SalaryStatus.PENDING).build());
+        // A paid salary (and its stored payslip) is only changed through the explicit update endpoint
+        if (salary.getStatus() == SalaryStatus.PAID)
+            throw new ResponseStatusException(HttpStatus.CONFLICT,
+                    "Salary of " + employeeCode + " for " + month + "/" + year + " is already PAID; use /api/salary/" + salary.getId() + "/update");
 
         salary.setBasicPay(basicPay);
         salary.setHra(hra);
         salary.setAllowances(allowances);
         salary.setDeductions(deductions);
-        salary.setNetPay(basicPay + hra + allowances - deductions);
         salary.setBankName(bankName);
         salary.setAccountNumber(accountNumber);
+        salary.calculateNetPay();
         if (salary.getPayslipDate() == null) salary.setPayslipDate(LocalDate.now());
 
-        return salaryRepository.save(salary);
+        Salary saved = salaryRepository.save(salary);
+        analyticsService.invalidate(saved.getYear(), saved.getMonth());
+        return saved;
+    }
+
+    // ✅ HR — Payroll run: upsert a whole month of salaries in one call (JSON array of lines)
+    @PostMapping("/runs")
+    @PreAuthorize("hasRole('HR')")
+    public ResponseEntity<PayrollRunStatus> startPayrollRun(@RequestParam int month,
+                                                            @RequestParam int year,
+                                                            @RequestBody List<SalaryLine> lines) {
+        return ResponseEntity.accepted().body(payrollRunService.submit(month, year, lines));
+    }
+
+    // ✅ HR — Payroll run from a CSV upload (header: employeeCode,basicPay,hra,allowances,deductions,bankName,accountNumber)
+    @PostMapping(value = "/runs/upload", consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
+    @PreAuthorize("hasRole('HR')")
+    public ResponseEntity<PayrollRunStatus> uploadPayrollRun(@RequestParam int month,
+                                                             @RequestParam int year,
+                                                             @RequestParam("file") MultipartFile file) throws IOException {
+        try (InputStream in = file.getInputStream()) {
+            return ResponseEntity.accepted().body(payrollRunService.submitCsv(month, year, in));
+        }
+    }
+
+    // ✅ HR — Progress, per-line errors and throughput of a payroll run
+    @GetMapping("/runs/{jobId}")
+    @PreAuthorize("hasRole('HR')")
+    public PayrollRunStatus payrollRunStatus(@PathVariable String jobId) {
+        return payrollRunService.status(jobId);
     }
 
     // ✅ HR — Mark Salary as Paid
@@ -62,19 +135,115 @@ public class SalaryController {
     public Salary markPaid(@PathVariable Long salaryId) {
         Salary salary = salaryRepository.findById(salaryId)
                 .orElseThrow(() -> new RuntimeException("Salary record not found"));
+        // Already paid: keep the original paid date the stored payslip was rendered with
+        if (salary.getStatus() == SalaryStatus.PAID) return salary;
         salary.setStatus(SalaryStatus.PAID);
         salary.setPaidDate(LocalDate.now());
-        return salaryRepository.save(salary);
+        Salary saved = salaryRepository.save(salary);
+        analyticsService.invalidate(saved.getYear(), saved.getMonth());
+        return saved;
+    }
+
+    // ✅ HR — Compute a month's salaries for all employees from attendance and approved leave
+    @PostMapping("/compute")
+    @PreAuthorize("hasRole('HR')")
+    public PayrollComputationReport computePayroll(@RequestParam int month, @RequestParam int year) {
+        return payrollEngineService.compute(month, year);
+    }
+
+    // ✅ Payslip PDF (HR: any, employee: own). Strong ETag: If-None-Match answers 304
+    @GetMapping("/{salaryId}/payslip")
+    @PreAuthorize("hasAnyRole('HR','EMPLOYEE')")
+    public CompletableFuture<ResponseEntity<byte[]>> payslip(@PathVariable Long salaryId,
+                                                             @CurrentUser AuthenticatedUser me,
+                                                             @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        PayslipSource source = payslipService.source(salaryId, me.email(), "ROLE_HR".equals(me.role()));
+
+        // Stored (PAID) payslips answer a revalidation without reading the PDF
+        Optional<String> stored = payslipService.storedEtag(source);
+        if (stored.isPresent() && matches(ifNoneMatch, stored.get()))
+            return CompletableFuture.completedFuture(ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(stored.get()).build());
+
+        return payslipService.payslip(source).thenApply(rendered -> {
+            if (matches(ifNoneMatch, rendered.etag()))
+                return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(rendered.etag()).build();
+            return ResponseEntity.ok()
+                    .eTag(rendered.etag())
+                    .cacheControl(rendered.stored()
+                            ? CacheControl.maxAge(Duration.ofDays(365)).cachePrivate().immutable()
+                            : CacheControl.noCache().cachePrivate())
+                    .contentType(MediaType.APPLICATION_PDF)
+                    .header(HttpHeaders.CONTENT_DISPOSITION, "inline; filename=\"" + payslipService.fileName(source) + "\"")
+                    .body(rendered.content());
+        });
+    }
+
+    // ✅ HR — Preview the bank bulk-transfer file of a month (nothing is marked)
+    @GetMapping("/bank-file")
+    @PreAuthorize("hasRole('HR')")
+    public ResponseEntity<StreamingResponseBody> bankFile(@RequestParam int month,
+                                                          @RequestParam int year,
+                                                          @RequestParam(defaultValue = "CSV") BankFileWriter.Format format) {
+        return bankTransferService.transferFile(month, year, format, false, null);
+    }
+
+    // ✅ HR — Produce the bank file and mark every included salary PAID (all or nothing)
+    @PostMapping("/bank-file/pay")
+    @PreAuthorize("hasRole('HR')")
+    public ResponseEntity<StreamingResponseBody> bankFileAndPay(@RequestParam int month,
+                                                                @RequestParam int year,
+                                                                @RequestParam(defaultValue = "CSV") BankFileWriter.Format format,
+                                                                @RequestParam(required = false) LocalDate paidDate) {
+        return bankTransferService.transferFile(month, year, format, true, paidDate != null ? paidDate : LocalDate.now());
+    }
+
+    // ✅ HR — Zip of every payslip for a month, streamed
+    @GetMapping("/payslips/zip")
+    @PreAuthorize("hasRole('HR')")
+    public ResponseEntity<StreamingResponseBody> payslipZip(@RequestParam int month, @RequestParam int year) {
+        String fileName = String.format("payslips-%d-%02d.zip", year, month);
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType("application/zip"))
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"" + fileName + "\"")
+                .body(out -> payslipService.writeMonthZip(month, year, out));
+    }
+
+    private static boolean matches(String ifNoneMatch, String etag) {
+        if (ifNoneMatch == null) return false;
+        for (String candidate : ifNoneMatch.split(",")) {
+            String tag = candidate.trim();
+            if (tag.equals("*") || tag.equals("\"" + etag + "\"")) return true;
+        }
+        return false;
+    }
+
+    // ✅ HR — Mark a whole month PAID in one statement (paidDate defaults to today)
+    @PutMapping("/month/pay")
+    @PreAuthorize("hasRole('HR')")
+    public String markMonthPaid(@RequestParam int month,
+                                @RequestParam int year,
+                                @RequestParam(required = false) LocalDate paidDate) {
+        int updated = salaryLifecycleService.markMonthPaid(month, year, paidDate != null ? paidDate : LocalDate.now());
+        return updated + " salaries marked as PAID for " + month + "/" + year;
+    }
+
+    // ✅ HR — Close a month: CURRENT → PENDING (same as the 1st-of-month job)
+    @PutMapping("/month/close")
+    @PreAuthorize("hasRole('HR')")
+    public String closeMonth(@RequestParam int month, @RequestParam int year) {
+        int updated = salaryLifecycleService.closeMonth(month, year);
+        return updated + " salaries moved from CURRENT to PENDING for " + month + "/" + year;
     }
 
     // ✅ HR — Update Salary (anytime)
     @PutMapping("/{salaryId}/update")
     @PreAuthorize("hasRole('HR')")
+    @Transactional
     public Salary updateSalary(@PathVariable Long salaryId,
-                               @RequestParam double basicPay,
-                               @RequestParam double hra,
-                               @RequestParam double allowances,
-                               @RequestParam double deductions,
+                               @RequestParam BigDecimal basicPay,
+                               @RequestParam BigDecimal hra,
+                               @RequestParam BigDecimal allowances,
+                               @RequestParam BigDecimal deductions,
                                @RequestParam String bankName,
                                @RequestParam String accountNumber,
                                @RequestParam SalaryStatus status,
@@ -87,14 +256,19 @@ public class SalaryController {
         salary.setHra(hra);
         salary.setAllowances(allowances);
         salary.setDeductions(deductions);
-        salary.setNetPay(basicPay + hra + allowances - deductions);
         salary.setBankName(bankName);
         salary.setAccountNumber(accountNumber);
         salary.setStatus(status);
+        salary.calculateNetPay();
         if (payslipDate != null) salary.setPayslipDate(payslipDate);
         if (paidDate != null) salary.setPaidDate(paidDate);
 
-        return salaryRepository.save(salary);
+        Salary saved = salaryRepository.saveAndFlush(salary);
+        // A stored payslip is immutable; drop it after the row write (which holds the salary's row
+        // lock until commit) so a render that read the old row cannot store it afterwards
+        payslipRepository.deleteById(salaryId);
+        analyticsService.invalidate(saved.getYear(), saved.getMonth());
+        return saved;
     }
 
     // ✅ HR — Delete Salary Record
@@ -104,21 +278,47 @@ public class SalaryController {
         Salary salary = salaryRepository.findById(salaryId)
                 .orElseThrow(() -> new RuntimeException("Salary record not found"));
         salaryRepository.delete(salary);
+        analyticsService.invalidate(salary.getYear(), salary.getMonth());
     }
 
     // ✅ Employee — View Own Salary / Payslip
     @GetMapping("/my")
     @PreAuthorize("hasRole('EMPLOYEE')")
-    public List<Salary> mySalary(@RequestParam String employeeCode) {
-        Employee employee = employeeRepository.findByEmployeeId(employeeCode)
-                .orElseThrow(() -> new RuntimeException("Employee not found"));
-        return salaryRepository.findByEmployee(employee);
+    public List<SalaryView> mySalary(@RequestParam String employeeCode) {
+        List<SalaryView> salaries = salaryRepository.findViewsByEmployeeCode(employeeCode);
+        if (salaries.isEmpty() && employeeRepository.findByEmployeeId(employeeCode).isEmpty())
+            throw new RuntimeException("Employee not found");
+        return salaries;
     }
 
     // ✅ HR — View All Salaries for a Month
     @GetMapping("/all/month")
     @PreAuthorize("hasRole('HR')")
-    public List<Salary> allSalariesByMonth(@RequestParam int month, @RequestParam int year) {
-        return salaryRepository.findByMonthAndYear(month, year);
+    public List<SalaryView> allSalariesByMonth(@RequestParam int month, @RequestParam int year) {
+        return salaryRepository.findViewsByMonth(month, year);
+    }
+
+    // ✅ HR — Stream the payroll register for a month as CSV or XLSX (optionally gzipped)
+    @GetMapping("/export")
+    @PreAuthorize("hasRole('HR')")
+    public ResponseEntity<StreamingResponseBody> exportMonth(@RequestParam int month,
+                                                             @RequestParam int year,
+                                                             @RequestParam(defaultValue = "CSV") TabularWriter.Format format,
+                                                             @RequestParam(defaultValue = "false") boolean gzip) {
+        return exportService.payrollRegister(month, year, format, gzip);
+    }
+
+    // ✅ HR — Page through salaries (keyset: pass nextCursor back as after=)
+    @GetMapping("/all/page")
+    @PreAuthorize("hasRole('HR')")
+    public CursorPage<SalaryView> salaryPage(@RequestParam(defaultValue = "0") long after,
+                                             @RequestParam(required = false) Integer limit,
+                                             @RequestParam(required = false) Integer month,
+                                             @RequestParam(required = false) Integer year,
+                                             @RequestParam(required = false) SalaryStatus status,
+                                             @RequestParam(required = false) String department) {
+        int size = CursorPage.clampLimit(limit);
+        List<SalaryView> items = salaryRepository.findPage(after, month, year, status, department, Limit.of(size));
+        return CursorPage.of(items, size, SalaryView::getId);
     }
 }
\ No newline at end of file
@@ -0,0 +1,17 @@
+package com.VentureBiz.VenureBiz_Hr.dto;
+
+import lombok.*;
+
+import java.util.List;
+
+// One tick of the live feed: events coalesced per user since the previous batch, plus today's counts
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class AttendanceDelta {
+
+    private long seq;                 // increases by one per batch; a client on snapshot N ignores batches <= N
+    private List<AttendanceEvent> events;
+    private LiveAttendanceCounts counts;
+}
@@ -0,0 +1,25 @@
+package com.VentureBiz.VenureBiz_Hr.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.*;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+
+// Latest attendance state of one user for one day, as pushed to the live dashboard (absent fields omitted)
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class AttendanceEvent {
+
+    public enum Type { CHECK_IN, CHECK_OUT, EDIT, DELETE }
+
+    private Type type;
+    private Long userId;
+    private LocalDate date;
+    private LocalTime checkIn;
+    private LocalTime checkOut;
+    private String status;
+}
@@ -0,0 +1,22 @@
+package com.VentureBiz.VenureBiz_Hr.dto;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+
+// Flat attendance register row streamed by the export endpoint (no entity hydration)
+public interface AttendanceExportRow {
+
+    Long getId();
+
+    String getEmail();
+
+    LocalDate getDate();
+
+    LocalTime getCheckInTime();
+
+    LocalTime getCheckOutTime();
+
+    String getStatus();
+
+    String getReason();
+}
@@ -0,0 +1,17 @@
+package com.VentureBiz.VenureBiz_Hr.dto;
+
+import lombok.*;
+
+import java.util.List;
+
+// Today's presence board as sent once on subscribe; deltas with seq > this seq follow on /topic/attendance
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class AttendanceSnapshot {
+
+    private long seq;
+    private List<AttendanceEvent> entries;
+    private LiveAttendanceCounts counts;
+}
@@ -0,0 +1,13 @@
+package com.VentureBiz.VenureBiz_Hr.dto;
+
+// Projection row for the GROUP BY user/status attendance aggregation
+public interface AttendanceStatusCount {
+
+    Long getUserId();
+
+    String getEmail();
+
+    String getStatus();   // null when the user has no attendance in the period
+
+    Long getTotal();
+}
@@ -0,0 +1,24 @@
+package com.VentureBiz.VenureBiz_Hr.dto;
+
+import com.fasterxml.jackson.annotation.JsonFilter;
+import lombok.*;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+
+// One attendance row as returned by the read endpoints (the user is flattened to id + email)
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonFilter(SparseFields.FILTER)
+public class AttendanceView {
+
+    private Long id;
+    private Long userId;
+    private String email;
+    private LocalDate date;
+    private LocalTime checkInTime;
+    private LocalTime checkOutTime;
+    private String status;
+    private String reason;
+}
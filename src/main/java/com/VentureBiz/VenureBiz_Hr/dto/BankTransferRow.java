@@ -0,0 +1,19 @@
+package com.VentureBiz.VenureBiz_Hr.dto;
+
+import java.math.BigDecimal;
+
+// One payable salary in a bank transfer file, streamed in bank order
+public interface BankTransferRow {
+
+    Long getId();
+
+    String getEmployeeCode();
+
+    String getName();
+
+    String getBankName();
+
+    String getAccountNumber();
+
+    BigDecimal getNetPay();
+}
@@ -0,0 +1,33 @@
+package com.VentureBiz.VenureBiz_Hr.dto;
+
+import lombok.*;
+
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * One page of a keyset-paginated list. Pass {@code nextCursor} back as {@code after=}
+ * to get the following page; it is null on the last page.
+ */
+@Getter
+@AllArgsConstructor
+public class CursorPage<T> {
+
+    public static final int DEFAULT_LIMIT = 100;
+    public static final int MAX_LIMIT = 500;
+
+    private final List<T> items;
+    private final int limit;
+    private final Long nextCursor;
+
+    public static int clampLimit(Integer limit) {
+        if (limit == null || limit <= 0) return DEFAULT_LIMIT;
+        return Math.min(limit, MAX_LIMIT);
+    }
+
+    // A full page means there may be more rows after the last id
+    public static <T> CursorPage<T> of(List<T> items, int limit, Function<T, Long> idOf) {
+        Long next = items.size() < limit ? null : idOf.apply(items.get(items.size() - 1));
+        return new CursorPage<>(items, limit, next);
+    }
+}
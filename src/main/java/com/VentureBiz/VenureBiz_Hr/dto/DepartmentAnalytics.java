@@ -0,0 +1,23 @@
+package com.VentureBiz.VenureBiz_Hr.dto;
+
+import lombok.*;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+// All analytics of one month; closed months are served from a stored snapshot of this object
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class DepartmentAnalytics {
+
+    private int year;
+    private int month;
+    private boolean snapshot;       // true when served from an immutable closed-month snapshot
+    private LocalDateTime computedAt;
+
+    private List<DepartmentCost> costByDepartment;
+    private List<RolePay> payByRole;
+    private List<HeadcountPoint> headcountTrend;   // the 12 months ending at this month
+}
@@ -0,0 +1,19 @@
+package com.VentureBiz.VenureBiz_Hr.dto;
+
+import lombok.*;
+
+import java.math.BigDecimal;
+
+// Salary cost of one department for a month (built by a GROUP BY in SalaryRepository)
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class DepartmentCost {
+
+    private String department;
+    private long headcount;
+    private BigDecimal grossPay;
+    private BigDecimal deductions;
+    private BigDecimal lopDeduction;
+    private BigDecimal netPay;
+}
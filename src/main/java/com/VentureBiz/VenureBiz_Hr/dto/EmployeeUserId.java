@@ -0,0 +1,9 @@
+package com.VentureBiz.VenureBiz_Hr.dto;
+
+// Employee code to user id, for resolving imported punches in bulk
+public interface EmployeeUserId {
+
+    String getEmployeeCode();
+
+    Long getUserId();
+}
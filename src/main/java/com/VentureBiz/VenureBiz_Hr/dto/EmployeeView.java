@@ -0,0 +1,25 @@
+package com.VentureBiz.VenureBiz_Hr.dto;
+
+import com.VentureBiz.VenureBiz_Hr.model.Status;
+import com.fasterxml.jackson.annotation.JsonFilter;
+import lombok.*;
+
+import java.time.LocalDate;
+
+// Employee profile as returned by the read endpoints; the linked user is reduced to its email
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonFilter(SparseFields.FILTER)
+public class EmployeeView {
+
+    private Long id;
+    private String employeeId;
+    private String name;
+    private String department;
+    private String deptRole;
+    private LocalDate dateOfJoining;
+    private Status status;
+    private String officeLocation;
+    private String email;
+}
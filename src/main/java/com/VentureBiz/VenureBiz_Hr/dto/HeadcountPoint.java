@@ -0,0 +1,15 @@
+package com.VentureBiz.VenureBiz_Hr.dto;
+
+import lombok.*;
+
+// Joiners in a month and cumulative headcount at its end, by dateOfJoining
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class HeadcountPoint {
+
+    private int year;
+    private int month;
+    private long joined;
+    private long headcount;
+}
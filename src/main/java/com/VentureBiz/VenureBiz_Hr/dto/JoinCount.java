@@ -0,0 +1,11 @@
+package com.VentureBiz.VenureBiz_Hr.dto;
+
+// Employees joined per calendar month (EmployeeRepository GROUP BY projection)
+public interface JoinCount {
+
+    int getYear();
+
+    int getMonth();
+
+    long getJoined();
+}
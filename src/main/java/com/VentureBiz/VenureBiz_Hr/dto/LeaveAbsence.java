@@ -0,0 +1,23 @@
+package com.VentureBiz.VenureBiz_Hr.dto;
+
+import com.VentureBiz.VenureBiz_Hr.model.LeaveRequest;
+import lombok.*;
+
+import java.time.LocalDate;
+
+// One pending or approved leave as held by LeaveCalendar (the employee's name/department joined in)
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class LeaveAbsence {
+
+    private Long leaveId;
+    private Long userId;
+    private String email;
+    private String name;
+    private String department;
+    private LeaveRequest.LeaveType leaveType;
+    private LeaveRequest.LeaveStatus leaveStatus;
+    private LocalDate startDate;
+    private LocalDate endDate;
+}
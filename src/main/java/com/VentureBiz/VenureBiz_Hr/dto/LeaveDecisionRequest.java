@@ -0,0 +1,16 @@
+package com.VentureBiz.VenureBiz_Hr.dto;
+
+import com.VentureBiz.VenureBiz_Hr.model.LeaveRequest;
+import lombok.*;
+
+import java.util.List;
+
+// Body of PUT /api/leave/decisions
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class LeaveDecisionRequest {
+
+    private List<Long> ids;
+    private LeaveRequest.LeaveStatus status; // APPROVED or REJECTED
+}
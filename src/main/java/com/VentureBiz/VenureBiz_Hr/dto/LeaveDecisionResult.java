@@ -0,0 +1,34 @@
+package com.VentureBiz.VenureBiz_Hr.dto;
+
+import com.VentureBiz.VenureBiz_Hr.model.LeaveRequest;
+import lombok.*;
+
+import java.util.List;
+
+// Outcome of a bulk leave decision, one entry per requested id in request order
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class LeaveDecisionResult {
+
+    private LeaveRequest.LeaveStatus status;
+    private int requested;
+    private int decided;
+    private List<Item> items;
+
+    public enum Outcome {
+        APPROVED,
+        REJECTED,
+        NOT_FOUND,
+        NOT_PENDING,
+        INSUFFICIENT_BALANCE
+    }
+
+    @Data
+    @AllArgsConstructor
+    public static class Item {
+        private Long id;
+        private Outcome outcome;
+    }
+}
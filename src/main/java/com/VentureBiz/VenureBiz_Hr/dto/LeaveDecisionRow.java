@@ -0,0 +1,19 @@
+package com.VentureBiz.VenureBiz_Hr.dto;
+
+import java.time.LocalDate;
+
+// What a bulk decision needs of one leave request (native query, so enums come back as names)
+public interface LeaveDecisionRow {
+
+    Long getId();
+
+    Long getUserId();
+
+    String getLeaveType();
+
+    LocalDate getStartDate();
+
+    Long getDays();
+
+    String getLeaveStatus();
+}
@@ -0,0 +1,22 @@
+package com.VentureBiz.VenureBiz_Hr.dto;
+
+import lombok.*;
+
+import java.time.LocalDate;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class LeaveReconciliationReport {
+
+    private LocalDate from;
+    private LocalDate to;
+    private boolean dryRun;
+
+    private long leaveInserted;   // covered days without a row that got (or would get) a LEAVE row
+    private long absentToLeave;   // ABSENT rows on covered days flipped to LEAVE
+    private long leaveReverted;   // LEAVE rows no longer covered by an approved leave, back to ABSENT
+    private int chunks;           // number of committed chunks
+    private long elapsedMs;
+}
@@ -0,0 +1,13 @@
+package com.VentureBiz.VenureBiz_Hr.dto;
+
+import java.time.LocalDate;
+
+// Date range of one leave request (userId = LeaveRequest.employee, a users.id)
+public interface LeaveSpan {
+
+    Long getUserId();
+
+    LocalDate getStartDate();
+
+    LocalDate getEndDate();
+}
@@ -0,0 +1,28 @@
+package com.VentureBiz.VenureBiz_Hr.dto;
+
+import com.VentureBiz.VenureBiz_Hr.model.LeaveRequest;
+import com.fasterxml.jackson.annotation.JsonFilter;
+import lombok.*;
+
+import java.time.LocalDate;
+
+// One leave request with the applicant flattened to id + email
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonFilter(SparseFields.FILTER)
+public class LeaveView {
+
+    private Long id;
+    private Long userId;
+    private String email;
+    private LeaveRequest.LeaveType leaveType;
+    private LocalDate startDate;
+    private LocalDate endDate;
+    private long days;
+    private LeaveRequest.LeaveStatus leaveStatus;
+    private LocalDate appliedOn;
+    private String reason;
+    private String approvedByHr;
+    private LocalDate approvedOn;
+}
@@ -0,0 +1,18 @@
+package com.VentureBiz.VenureBiz_Hr.dto;
+
+import lombok.*;
+
+import java.time.LocalDate;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class LiveAttendanceCounts {
+
+    private LocalDate date;
+    private long present;     // checked in today
+    private long late;        // checked in after the on-time limit
+    private long pending;     // checked in, not yet checked out
+    private long checkedOut;
+}
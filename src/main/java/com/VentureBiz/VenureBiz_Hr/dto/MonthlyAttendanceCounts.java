@@ -0,0 +1,21 @@
+package com.VentureBiz.VenureBiz_Hr.dto;
+
+// Projection of one user's rollup row (counters are null when the user has no row for the month)
+public interface MonthlyAttendanceCounts {
+
+    Long getUserId();
+
+    String getEmail();
+
+    Long getPresent();
+
+    Long getLate();
+
+    Long getHalfDay();
+
+    Long getAbsent();
+
+    Long getPending();
+
+    Long getOnLeave();
+}
@@ -0,0 +1,26 @@
+package com.VentureBiz.VenureBiz_Hr.dto;
+
+import lombok.*;
+
+import java.math.BigDecimal;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class PayrollComputationReport {
+
+    private int month;
+    private int year;
+    private int workingDays;
+
+    private int employees;        // employees with a salary template up to this month
+    private int created;          // new salary rows for the month
+    private int updated;          // existing PENDING/CURRENT rows recomputed
+    private int skippedPaid;      // rows already PAID, left untouched
+
+    private BigDecimal totalGross;
+    private BigDecimal totalLopDeduction;
+    private BigDecimal totalNet;
+    private long elapsedMs;
+}
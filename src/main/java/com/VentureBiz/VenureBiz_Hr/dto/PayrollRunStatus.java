@@ -0,0 +1,42 @@
+package com.VentureBiz.VenureBiz_Hr.dto;
+
+import lombok.*;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+// Progress snapshot of a payroll run, returned when it is submitted and when it is polled
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class PayrollRunStatus {
+
+    public enum State { RUNNING, COMPLETED, FAILED }
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class LineError {
+        private long line;           // 1-based position in the JSON array, or the CSV line number
+        private String employeeCode;
+        private String message;
+    }
+
+    private String jobId;
+    private int month;
+    private int year;
+    private State state;
+
+    private int totalLines;
+    private int processed;      // lines finished so far (saved or failed)
+    private int created;
+    private int updated;
+    private int failed;
+    private List<LineError> errors;
+
+    private LocalDateTime startedAt;
+    private LocalDateTime finishedAt;
+    private long elapsedMs;
+    private double linesPerSecond;
+}
@@ -0,0 +1,46 @@
+package com.VentureBiz.VenureBiz_Hr.dto;
+
+import com.VentureBiz.VenureBiz_Hr.model.SalaryStatus;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+// Everything printed on a payslip, plus the owner's email for access checks
+public interface PayslipSource {
+
+    Long getId();
+
+    String getEmployeeCode();
+
+    String getName();
+
+    String getDepartment();
+
+    String getOwnerEmail();
+
+    int getMonth();
+
+    int getYear();
+
+    BigDecimal getBasicPay();
+
+    BigDecimal getHra();
+
+    BigDecimal getAllowances();
+
+    BigDecimal getDeductions();
+
+    BigDecimal getLopDays();
+
+    BigDecimal getLopDeduction();
+
+    BigDecimal getNetPay();
+
+    SalaryStatus getStatus();
+
+    LocalDate getPaidDate();
+
+    String getBankName();
+
+    String getAccountNumber();
+}
@@ -0,0 +1,13 @@
+package com.VentureBiz.VenureBiz_Hr.dto;
+
+import java.time.LocalTime;
+
+// Check-in/check-out times of one user for one day, used to rebuild the presence board
+public interface PresenceRow {
+
+    Long getUserId();
+
+    LocalTime getCheckInTime();
+
+    LocalTime getCheckOutTime();
+}
@@ -0,0 +1,33 @@
+package com.VentureBiz.VenureBiz_Hr.dto;
+
+import lombok.*;
+
+import java.util.List;
+
+// Outcome of one terminal punch-log import
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class PunchImportReport {
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class LineError {
+        private long line;           // CSV or NDJSON line number
+        private String employeeCode;
+        private String message;
+    }
+
+    private long lines;          // punch records read
+    private long accepted;       // valid punches used for first-in/last-out
+    private long duplicates;     // same employee and timestamp seen again (e.g. a second device)
+    private int days;            // distinct employee-days derived
+    private int inserted;        // new attendance rows
+    private int updated;         // existing rows whose times or status changed
+    private int unchanged;       // existing rows already covering the punches
+    private int failed;          // lines rejected (listed in errors)
+    private List<LineError> errors;
+    private long elapsedMs;
+}
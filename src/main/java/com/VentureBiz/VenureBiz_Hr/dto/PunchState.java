@@ -0,0 +1,18 @@
+package com.VentureBiz.VenureBiz_Hr.dto;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+
+// Current attendance row of a user/day that a punch import merges into (native query)
+public interface PunchState {
+
+    Long getUserId();
+
+    LocalDate getDate();
+
+    LocalTime getCheckInTime();
+
+    LocalTime getCheckOutTime();
+
+    String getStatus();
+}
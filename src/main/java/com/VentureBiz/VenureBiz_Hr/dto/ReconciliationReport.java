@@ -0,0 +1,21 @@
+package com.VentureBiz.VenureBiz_Hr.dto;
+
+import lombok.*;
+
+import java.time.LocalDate;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ReconciliationReport {
+
+    private LocalDate date;
+    private boolean dryRun;
+    private boolean skipped;      // true when the date is not a working day
+
+    private long absentInserted;  // rows inserted (or that would be inserted) as ABSENT
+    private long halfDayUpdated;  // PENDING rows without checkout flipped to HALF_DAY
+    private int chunks;           // number of committed chunks
+    private long elapsedMs;
+}
@@ -0,0 +1,28 @@
+package com.VentureBiz.VenureBiz_Hr.dto;
+
+import lombok.*;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+
+// Net pay statistics of one deptRole for a month (built by a GROUP BY in SalaryRepository)
+@Data
+@NoArgsConstructor
+public class RolePay {
+
+    private String deptRole;
+    private long employees;
+    private BigDecimal averageNetPay;
+    private BigDecimal minNetPay;
+    private BigDecimal maxNetPay;
+
+    // JPQL constructor: AVG() would come back as a double, so the average is taken from SUM / COUNT
+    public RolePay(String deptRole, Long employees, BigDecimal totalNetPay, BigDecimal minNetPay, BigDecimal maxNetPay) {
+        this.deptRole = deptRole;
+        this.employees = employees;
+        this.averageNetPay = employees == 0 ? BigDecimal.ZERO
+                : totalNetPay.divide(BigDecimal.valueOf(employees), 2, RoundingMode.HALF_UP);
+        this.minNetPay = minNetPay;
+        this.maxNetPay = maxNetPay;
+    }
+}
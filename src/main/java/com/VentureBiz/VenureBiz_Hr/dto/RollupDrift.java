@@ -0,0 +1,17 @@
+package com.VentureBiz.VenureBiz_Hr.dto;
+
+import lombok.*;
+
+// One counter that differs between attendance_monthly_rollup and the attendance table
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class RollupDrift {
+
+    private Long userId;
+    private String email;
+    private String status;
+    private long rollupCount;
+    private long actualCount;
+}
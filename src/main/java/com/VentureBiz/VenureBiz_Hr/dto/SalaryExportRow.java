@@ -0,0 +1,42 @@
+package com.VentureBiz.VenureBiz_Hr.dto;
+
+import com.VentureBiz.VenureBiz_Hr.model.SalaryStatus;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+// Flat payroll register row streamed by the export endpoint (no entity hydration)
+public interface SalaryExportRow {
+
+    Long getId();
+
+    String getEmployeeCode();
+
+    String getName();
+
+    String getDepartment();
+
+    int getMonth();
+
+    int getYear();
+
+    BigDecimal getBasicPay();
+
+    BigDecimal getHra();
+
+    BigDecimal getAllowances();
+
+    BigDecimal getDeductions();
+
+    BigDecimal getLopDeduction();
+
+    BigDecimal getNetPay();
+
+    SalaryStatus getStatus();
+
+    LocalDate getPaidDate();
+
+    String getBankName();
+
+    String getAccountNumber();
+}
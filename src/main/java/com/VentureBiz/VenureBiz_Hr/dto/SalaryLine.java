@@ -0,0 +1,21 @@
+package com.VentureBiz.VenureBiz_Hr.dto;
+
+import lombok.*;
+
+import java.math.BigDecimal;
+
+// One employee's salary components in a payroll run (same fields as /api/salary/generate)
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class SalaryLine {
+
+    private String employeeCode;
+    private BigDecimal basicPay;
+    private BigDecimal hra;
+    private BigDecimal allowances;
+    private BigDecimal deductions;
+    private String bankName;
+    private String accountNumber;
+}
@@ -0,0 +1,33 @@
+package com.VentureBiz.VenureBiz_Hr.dto;
+
+import com.VentureBiz.VenureBiz_Hr.model.SalaryStatus;
+
+import java.math.BigDecimal;
+
+// An employee's most recent salary up to a month: the components the payroll engine starts from
+public interface SalaryTemplateRow {
+
+    Long getSalaryId();
+
+    Long getEmployeeId();
+
+    Long getUserId();
+
+    int getMonth();
+
+    int getYear();
+
+    BigDecimal getBasicPay();
+
+    BigDecimal getHra();
+
+    BigDecimal getAllowances();
+
+    BigDecimal getDeductions();
+
+    SalaryStatus getStatus();
+
+    String getBankName();
+
+    String getAccountNumber();
+}
@@ -0,0 +1,35 @@
+package com.VentureBiz.VenureBiz_Hr.dto;
+
+import com.VentureBiz.VenureBiz_Hr.model.SalaryStatus;
+import com.fasterxml.jackson.annotation.JsonFilter;
+import lombok.*;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+// One salary row with the employee's code, name and department instead of the whole employee
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonFilter(SparseFields.FILTER)
+public class SalaryView {
+
+    private Long id;
+    private String employeeCode;
+    private String name;
+    private String department;
+    private int month;
+    private int year;
+    private BigDecimal basicPay;
+    private BigDecimal hra;
+    private BigDecimal allowances;
+    private BigDecimal deductions;
+    private BigDecimal lopDays;
+    private BigDecimal lopDeduction;
+    private BigDecimal netPay;
+    private SalaryStatus status;
+    private LocalDate payslipDate;
+    private LocalDate paidDate;
+    private String bankName;
+    private String accountNumber;
+}
@@ -0,0 +1,34 @@
+package com.VentureBiz.VenureBiz_Hr.dto;
+
+import com.fasterxml.jackson.databind.ser.impl.SimpleBeanPropertyFilter;
+import com.fasterxml.jackson.databind.ser.impl.SimpleFilterProvider;
+
+import java.util.Arrays;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Sparse fieldsets for the view DTOs: {@code ?fields=id,date,status} keeps only the named
+ * properties of every object annotated with {@code @JsonFilter(SparseFields.FILTER)}.
+ * Unknown names are ignored; without the parameter everything is written.
+ */
+public final class SparseFields {
+
+    public static final String FILTER = "sparseFields";
+    public static final String PARAM = "fields";
+
+    private SparseFields() { }
+
+    // Provider for every response: no filter registered, so filtered classes write all properties
+    public static SimpleFilterProvider all() {
+        return new SimpleFilterProvider().setFailOnUnknownId(false);
+    }
+
+    public static SimpleFilterProvider only(String fields) {
+        Set<String> names = Arrays.stream(fields.split(","))
+                .map(String::trim)
+                .filter(s -> !s.isEmpty())
+                .collect(Collectors.toSet());
+        return all().addFilter(FILTER, SimpleBeanPropertyFilter.filterOutAllExcept(names));
+    }
+}
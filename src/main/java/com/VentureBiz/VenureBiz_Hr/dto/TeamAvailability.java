@@ -0,0 +1,21 @@
+package com.VentureBiz.VenureBiz_Hr.dto;
+
+import lombok.*;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+
+// Who is out (pending or approved leave) in [from, to], with the head count out per day
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class TeamAvailability {
+
+    private LocalDate from;
+    private LocalDate to;
+    private String department;
+    private List<LeaveAbsence> absences;
+    private Map<LocalDate, Integer> outPerDay;
+}
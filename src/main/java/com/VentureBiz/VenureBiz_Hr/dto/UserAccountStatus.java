@@ -0,0 +1,9 @@
+package com.VentureBiz.VenureBiz_Hr.dto;
+
+// Role of a user and the status of their employee record (null when there is none)
+public interface UserAccountStatus {
+
+    String getRole();
+
+    String getStatus();
+}
@@ -0,0 +1,9 @@
+package com.VentureBiz.VenureBiz_Hr.dto;
+
+// Office location of a user's employee record (EmployeeRepository projection)
+public interface UserLocation {
+
+    Long getUserId();
+
+    String getOfficeLocation();
+}
@@ -0,0 +1,32 @@
+package com.VentureBiz.VenureBiz_Hr.model;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDateTime;
+
+// Frozen analytics of a closed month (every salary PAID), stored as JSON
+@Entity
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@Table(name = "analytics_snapshots",
+        uniqueConstraints = @UniqueConstraint(name = "uk_analytics_snapshot_month", columnNames = {"year", "month"}))
+public class AnalyticsSnapshot {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    private int year;
+    private int month;
+
+    @Lob
+    @Column(nullable = false, columnDefinition = "LONGTEXT")
+    private String payload;
+
+    @Column(nullable = false)
+    private LocalDateTime computedAt;
+}
@@ -14,7 +14,8 @@ import java.time.LocalDateTime;
 public class Announcement {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "announcements_gen")
+    @SequenceGenerator(name = "announcements_gen", sequenceName = "announcements_seq", allocationSize = 50)
     private Long id;
 
     @Column(nullable = false)
@@ -10,7 +10,9 @@ import java.time.LocalTime;
 @NoArgsConstructor
 @AllArgsConstructor
 @Builder
-@Table(name = "attendance")
+@Table(name = "attendance",
+        uniqueConstraints = @UniqueConstraint(name = "uk_attendance_user_date", columnNames = {"user_id", "date"}),
+        indexes = @Index(name = "idx_attendance_date_status", columnList = "date, status"))
 public class Attendance {
 
     @Id
@@ -25,7 +27,7 @@ public class Attendance {
     private LocalTime checkInTime;
     private LocalTime checkOutTime;
 
-    private String status;   // PRESENT / HALF_DAY / LATE_ABSENT / ABSENT
+    private String status;   // PRESENT / HALF_DAY / LATE_ABSENT / ABSENT / LEAVE
     private String reason;   // Optional HR note
 }
 
@@ -0,0 +1,32 @@
+package com.VentureBiz.VenureBiz_Hr.model;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+// Per user/month attendance counters, kept in step with the attendance table (weekdays only)
+@Entity
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@Table(name = "attendance_monthly_rollup",
+        uniqueConstraints = @UniqueConstraint(name = "uk_rollup_user_month", columnNames = {"user_id", "year", "month"}))
+public class AttendanceMonthlyRollup {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "user_id", nullable = false)
+    private Long userId;
+
+    private int year;
+    private int month;
+
+    private int presentCount;
+    private int lateCount;
+    private int halfDayCount;
+    private int absentCount;
+    private int pendingCount;
+    private int leaveCount;
+}
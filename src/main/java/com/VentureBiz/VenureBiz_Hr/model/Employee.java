@@ -13,7 +13,8 @@ import java.time.LocalDate;
 public class Employee {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "employees_gen")
+    @SequenceGenerator(name = "employees_gen", sequenceName = "employees_seq", allocationSize = 50)
     private Long id;
 
     // Unique Employee ID
@@ -34,6 +35,10 @@ public class Employee {
     @Enumerated(EnumType.STRING)
     private Status status;
 
+    // Office whose holiday calendar applies (null = company-wide holidays only)
+    @Column(name = "office_location")
+    private String officeLocation;
+
     // Link Employee to User via email
     @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "user_email", referencedColumnName = "email", nullable = false)
@@ -0,0 +1,30 @@
+package com.VentureBiz.VenureBiz_Hr.model;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDate;
+
+// Public or office holiday; a null office location closes every office
+@Entity
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@Table(name = "holidays",
+        uniqueConstraints = @UniqueConstraint(name = "uk_holiday_date_location", columnNames = {"date", "office_location"}))
+public class Holiday {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(nullable = false)
+    private LocalDate date;
+
+    @Column(nullable = false)
+    private String name;
+
+    @Column(name = "office_location")
+    private String officeLocation;
+}
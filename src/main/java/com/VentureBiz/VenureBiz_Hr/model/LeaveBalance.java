@@ -0,0 +1,41 @@
+package com.VentureBiz.VenureBiz_Hr.model;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.math.BigDecimal;
+
+// Materialized leave balance per user/type/year, kept in step with leave_ledger by LeaveLedgerService
+@Entity
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@Table(name = "leave_balances",
+        uniqueConstraints = @UniqueConstraint(name = "uk_leave_balance_user_type_year",
+                columnNames = {"user_id", "leave_type", "year"}))
+public class LeaveBalance {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "user_id", nullable = false)
+    private Long userId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "leave_type", nullable = false)
+    private LeaveRequest.LeaveType leaveType;
+
+    private int year;
+
+    @Column(precision = 6, scale = 2, nullable = false)
+    private BigDecimal accrued;
+
+    @Column(precision = 6, scale = 2, nullable = false)
+    private BigDecimal used;
+
+    public BigDecimal getAvailable() {
+        return accrued.subtract(used);
+    }
+}
@@ -0,0 +1,56 @@
+package com.VentureBiz.VenureBiz_Hr.model;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+// One movement of a leave balance; days are signed (accrual/reversal +, consumption -)
+@Entity
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@Table(name = "leave_ledger",
+        uniqueConstraints = @UniqueConstraint(name = "uk_leave_ledger_accrual",
+                columnNames = {"user_id", "leave_type", "year", "accrual_month"}),
+        indexes = @Index(name = "idx_leave_ledger_user_year", columnList = "user_id, year"))
+public class LeaveLedgerEntry {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "user_id", nullable = false)
+    private Long userId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "leave_type", nullable = false)
+    private LeaveRequest.LeaveType leaveType;
+
+    private int year;
+
+    // Set on accruals only (month credited); the unique key makes a month's accrual run once
+    @Column(name = "accrual_month")
+    private Integer accrualMonth;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "entry_type", nullable = false)
+    private EntryType entryType;
+
+    @Column(precision = 6, scale = 2, nullable = false)
+    private BigDecimal days;
+
+    @Column(name = "leave_request_id")
+    private Long leaveRequestId;
+
+    @Column(nullable = false)
+    private LocalDateTime createdAt;
+
+    public enum EntryType {
+        ACCRUAL,
+        CONSUMPTION,
+        REVERSAL
+    }
+}
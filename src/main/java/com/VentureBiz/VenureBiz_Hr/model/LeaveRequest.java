@@ -6,7 +6,8 @@ import java.time.LocalDate;
 import java.time.temporal.ChronoUnit;
 
 @Entity
-@Table(name = "leave_requests")
+@Table(name = "leave_requests",
+        indexes = @Index(name = "idx_leave_status_start", columnList = "leave_status, start_date"))
 @Getter
 @Setter
 @NoArgsConstructor
@@ -15,7 +16,8 @@ import java.time.temporal.ChronoUnit;
 public class LeaveRequest {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "leave_requests_gen")
+    @SequenceGenerator(name = "leave_requests_gen", sequenceName = "leave_requests_seq", allocationSize = 50)
     private Long id;
 
     @ManyToOne
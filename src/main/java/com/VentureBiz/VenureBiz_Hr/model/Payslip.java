@@ -0,0 +1,32 @@
+package com.VentureBiz.VenureBiz_Hr.model;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDateTime;
+
+// Rendered payslip PDF of a PAID salary; written once and then served as-is
+@Entity
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@Table(name = "payslips")
+public class Payslip {
+
+    @Id
+    @Column(name = "salary_id")
+    private Long salaryId;
+
+    @Column(nullable = false, length = 64)
+    private String etag;
+
+    @Lob
+    @Basic(fetch = FetchType.LAZY)
+    @Column(nullable = false, columnDefinition = "LONGBLOB")
+    private byte[] content;
+
+    @Column(nullable = false)
+    private LocalDateTime renderedAt;
+}
@@ -2,6 +2,8 @@ package com.VentureBiz.VenureBiz_Hr.model;
 
 import jakarta.persistence.*;
 import lombok.*;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
 import java.time.LocalDate;
 
 @Entity
@@ -13,18 +15,32 @@ import java.time.LocalDate;
 public class Salary {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    // Pooled sequence (a table on MySQL) so inserts can be JDBC-batched; IDENTITY disables batching
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "salaries_gen")
+    @SequenceGenerator(name = "salaries_gen", sequenceName = "salaries_seq", allocationSize = 50)
     private Long id;
 
     @ManyToOne
     @JoinColumn(name = "employee_id", nullable = false)
     private Employee employee;
 
-    private double basicPay;
-    private double hra;
-    private double allowances;
-    private double deductions;
-    private double netPay;
+    // Money is fixed-point: DECIMAL(12,2) columns, BigDecimal in Java
+    @Column(precision = 12, scale = 2, nullable = false)
+    private BigDecimal basicPay;
+    @Column(precision = 12, scale = 2, nullable = false)
+    private BigDecimal hra;
+    @Column(precision = 12, scale = 2, nullable = false)
+    private BigDecimal allowances;
+    @Column(precision = 12, scale = 2, nullable = false)
+    private BigDecimal deductions;
+    @Column(precision = 12, scale = 2, nullable = false)
+    private BigDecimal netPay;
+
+    // Loss of pay from attendance (set by the payroll engine, null for manual entries)
+    @Column(precision = 6, scale = 2)
+    private BigDecimal lopDays;
+    @Column(precision = 12, scale = 2)
+    private BigDecimal lopDeduction;
 
     private int month;
     private int year;
@@ -38,8 +54,14 @@ public class Salary {
     private String bankName;
     private String accountNumber;
 
-    // Helper method to calculate net pay
+    public BigDecimal grossPay() {
+        return basicPay.add(hra).add(allowances);
+    }
+
+    // Helper method to calculate net pay (gross - deductions - loss of pay, never negative)
     public void calculateNetPay() {
-        this.netPay = this.basicPay + this.hra + this.allowances - this.deductions;
+        BigDecimal net = grossPay().subtract(deductions);
+        if (lopDeduction != null) net = net.subtract(lopDeduction);
+        this.netPay = net.max(BigDecimal.ZERO).setScale(2, RoundingMode.HALF_UP);
     }
 }
\ No newline at end of file
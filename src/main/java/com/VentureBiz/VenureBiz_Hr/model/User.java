@@ -1,6 +1,8 @@
 
 package com.VentureBiz.VenureBiz_Hr.model;
 
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.fasterxml.jackson.annotation.JsonProperty;
 import jakarta.persistence.*;
 import lombok.*;
 
@@ -10,6 +12,7 @@ import lombok.*;
 @AllArgsConstructor
 @Builder
 @Table(name = "users")
+@JsonIgnoreProperties({"hibernateLazyInitializer", "handler"}) // users are often id-only references
 public class User {
 
     @Id
@@ -19,6 +22,8 @@ public class User {
     @Column(unique = true, nullable = false)
     private String email;  // keep username
 
+    // Accepted on register/login, never written back out
+    @JsonProperty(access = JsonProperty.Access.WRITE_ONLY)
     private String password;
 
     @Enumerated(EnumType.STRING)
@@ -0,0 +1,17 @@
+package com.VentureBiz.VenureBiz_Hr.repository;
+
+import com.VentureBiz.VenureBiz_Hr.model.AnalyticsSnapshot;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+
+import java.util.Optional;
+
+public interface AnalyticsSnapshotRepository extends JpaRepository<AnalyticsSnapshot, Long> {
+
+    Optional<AnalyticsSnapshot> findByYearAndMonth(int year, int month);
+
+    @Modifying
+    @Query("DELETE FROM AnalyticsSnapshot a WHERE a.year = :year AND a.month = :month")
+    int deleteMonth(int year, int month);
+}
@@ -1,20 +1,215 @@
 package com.VentureBiz.VenureBiz_Hr.repository;
 
+import com.VentureBiz.VenureBiz_Hr.dto.AttendanceExportRow;
+import com.VentureBiz.VenureBiz_Hr.dto.AttendanceStatusCount;
+import com.VentureBiz.VenureBiz_Hr.dto.AttendanceView;
+import com.VentureBiz.VenureBiz_Hr.dto.PresenceRow;
+import com.VentureBiz.VenureBiz_Hr.dto.PunchState;
 import com.VentureBiz.VenureBiz_Hr.model.Attendance;
 import com.VentureBiz.VenureBiz_Hr.model.User;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 
 import java.time.LocalDate;
+import java.time.LocalTime;
 import java.util.*;
+import java.util.stream.Stream;
 
 public interface AttendanceRepository extends JpaRepository<Attendance, Long> {
+
+    // Read endpoints select straight into AttendanceView: one query, no User entities loaded
+    String VIEW_SELECT = "SELECT new com.VentureBiz.VenureBiz_Hr.dto.AttendanceView(a.id, u.id, u.email, a.date, " +
+            "a.checkInTime, a.checkOutTime, a.status, a.reason) FROM Attendance a LEFT JOIN a.user u ";
+
+    // Same projection for one user's rows: an inner join lets the planner start from the user and
+    // seek the (user_id, date) key, where the outer join forced a pass over attendance first
+    String USER_VIEW_SELECT = "SELECT new com.VentureBiz.VenureBiz_Hr.dto.AttendanceView(a.id, u.id, u.email, a.date, " +
+            "a.checkInTime, a.checkOutTime, a.status, a.reason) FROM Attendance a JOIN a.user u ";
+
+    // JPQL: row a (user u) is on a working day of the user's office; 1 = Sunday, 7 = Saturday
+    String ON_WORKING_DAY = "extract(day of week from a.date) NOT IN (1, 7) AND NOT EXISTS (SELECT h.id FROM Holiday h " +
+            "WHERE h.date = a.date AND (h.officeLocation IS NULL OR h.officeLocation IN " +
+            "(SELECT e.officeLocation FROM Employee e JOIN e.user eu WHERE eu.id = u.id))) ";
+
     Optional<Attendance> findByUserAndDate(User user, LocalDate date);
-    List<Attendance> findByUser(User user);
 
-    @Query("SELECT a FROM Attendance a WHERE a.user = :user AND YEAR(a.date) = :year AND MONTH(a.date) = :month")
-    List<Attendance> findByUserAndMonth(User user, int year, int month);
+    @Query(USER_VIEW_SELECT + "WHERE u.id = :userId ORDER BY a.date")
+    List<AttendanceView> findViewsByUser(Long userId);
+
+    @Query(VIEW_SELECT + "ORDER BY a.id")
+    List<AttendanceView> findAllViews();
+
+    // Idempotent check-in: the (user_id, date) unique key turns a duplicate into a no-op (returns 0)
+    @Modifying
+    @Query(value = "INSERT IGNORE INTO attendance (user_id, date, check_in_time, status) " +
+            "VALUES (:userId, :date, :checkIn, 'PENDING')",
+            nativeQuery = true)
+    int insertCheckIn(Long userId, LocalDate date, LocalTime checkIn);
+
+    @Query("SELECT a.user.id AS userId, a.checkInTime AS checkInTime, a.checkOutTime AS checkOutTime " +
+            "FROM Attendance a WHERE a.date = :date AND a.checkInTime IS NOT NULL")
+    List<PresenceRow> findPresence(LocalDate date);
+
+    // Rows a punch import merges into, locked until its chunk commits; [from, to] inclusive
+    @Query(value = "SELECT user_id AS userId, date, check_in_time AS checkInTime, check_out_time AS checkOutTime, status " +
+            "FROM attendance WHERE user_id IN (:userIds) AND date >= :from AND date <= :to FOR UPDATE",
+            nativeQuery = true)
+    List<PunchState> lockPunchStates(Collection<Long> userIds, LocalDate from, LocalDate to);
+
+    // Half-open range [from, to) so MySQL can seek on the (user_id, date) / (date, status) indexes
+    @Query(USER_VIEW_SELECT + "WHERE u.id = :userId AND a.date >= :from AND a.date < :to ORDER BY a.date")
+    List<AttendanceView> findViewsByUserAndDateRange(Long userId, LocalDate from, LocalDate to);
+
+    @Query(VIEW_SELECT + "WHERE a.date >= :from AND a.date < :to ORDER BY a.date, a.id")
+    List<AttendanceView> findViewsByDateRange(LocalDate from, LocalDate to);
+
+    default List<AttendanceView> findViewsByUserAndMonth(Long userId, int year, int month) {
+        LocalDate from = LocalDate.of(year, month, 1);
+        return findViewsByUserAndDateRange(userId, from, from.plusMonths(1));
+    }
+
+    @Query(VIEW_SELECT + "WHERE a.date >= :from AND a.date < :to AND " + ON_WORKING_DAY + "ORDER BY a.date, a.id")
+    List<AttendanceView> findWorkingDayViewsByDateRange(LocalDate from, LocalDate to);
+
+    // Working days only (weekends and each user's holidays are filtered in the query)
+    default List<AttendanceView> findWorkingDayViewsByMonth(int year, int month) {
+        LocalDate from = LocalDate.of(year, month, 1);
+        return findWorkingDayViewsByDateRange(from, from.plusMonths(1));
+    }
+
+    // Keyset page ordered by id; every filter is optional (null = not applied)
+    @Query(VIEW_SELECT + "WHERE a.id > :after " +
+            "AND (:from IS NULL OR a.date >= :from) AND (:to IS NULL OR a.date < :to) " +
+            "AND (:status IS NULL OR a.status = :status) " +
+            "AND (:department IS NULL OR EXISTS (SELECT e.id FROM Employee e JOIN e.user eu " +
+            "WHERE eu.id = u.id AND e.department = :department)) " +
+            "ORDER BY a.id")
+    List<AttendanceView> findPage(long after, LocalDate from, LocalDate to, String status,
+                                  String department, Limit limit);
+
+    // Streams a register row by row; Integer.MIN_VALUE switches MySQL Connector/J to a server-side cursor.
+    // Must be consumed inside a read-only transaction and closed.
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "" + Integer.MIN_VALUE),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("SELECT a.id AS id, u.email AS email, a.date AS date, a.checkInTime AS checkInTime, " +
+            "a.checkOutTime AS checkOutTime, a.status AS status, a.reason AS reason " +
+            "FROM Attendance a JOIN a.user u WHERE a.date >= :from AND a.date < :to AND " + ON_WORKING_DAY +
+            "ORDER BY a.date, a.id")
+    Stream<AttendanceExportRow> streamRegister(LocalDate from, LocalDate to);
+
+    // Per user/status counts for [from, to) (weekends and holidays excluded). Users without rows come back
+    // once with a null status so every user appears in the report. Pass email = null for everyone.
+    @Query(value = "SELECT u.id AS userId, u.email AS email, a.status AS status, COUNT(a.id) AS total " +
+            "FROM users u LEFT JOIN attendance a ON a.user_id = u.id " +
+            "AND a.date >= :from AND a.date < :to AND DAYOFWEEK(a.date) NOT IN (1, 7) " +
+            "AND NOT " + HolidayRepository.ATTENDANCE_ON_HOLIDAY + " " +
+            "WHERE (:email IS NULL OR u.email = :email) " +
+            "GROUP BY u.id, u.email, a.status",
+            nativeQuery = true)
+    List<AttendanceStatusCount> countByUserAndStatus(LocalDate from, LocalDate to, String email);
+
+    // Months (year * 12 + month - 1) in which a user has attendance rows
+    @Query(value = "SELECT DISTINCT YEAR(date) * 12 + MONTH(date) - 1 FROM attendance WHERE user_id = :userId",
+            nativeQuery = true)
+    List<Number> findMonthsOfUser(long userId);
+
+    // =================== NIGHTLY RECONCILIATION (set-based) ===================
+    // All statements are restricted to a user id window (fromUserId, toUserId] so the
+    // scheduler can commit in chunks. They are idempotent and safe to re-run for a past date.
+
+    // User u's office (or the whole company) has a holiday on :date
+    String USER_OFFICE_CLOSED = "EXISTS (SELECT 1 FROM holidays h WHERE h.date = :date AND (h.office_location IS NULL " +
+            "OR h.office_location IN (SELECT e.office_location FROM employees e WHERE e.user_email = u.email)))";
+
+    // IGNORE: a check-in or punch import landing between the NOT EXISTS and the insert is kept, not a failed chunk
+    @Modifying
+    @Query(value = "INSERT IGNORE INTO attendance (user_id, date, status) " +
+            "SELECT u.id, :date, 'ABSENT' FROM users u " +
+            "WHERE u.id > :fromUserId AND u.id <= :toUserId " +
+            "AND NOT EXISTS (SELECT 1 FROM attendance a WHERE a.user_id = u.id AND a.date = :date) " +
+            "AND NOT " + USER_OFFICE_CLOSED,
+            nativeQuery = true)
+    int insertAbsentees(LocalDate date, long fromUserId, long toUserId);
+
+    @Query(value = "SELECT COUNT(*) FROM users u " +
+            "WHERE u.id > :fromUserId AND u.id <= :toUserId " +
+            "AND NOT EXISTS (SELECT 1 FROM attendance a WHERE a.user_id = u.id AND a.date = :date) " +
+            "AND NOT " + USER_OFFICE_CLOSED,
+            nativeQuery = true)
+    long countAbsentees(LocalDate date, long fromUserId, long toUserId);
+
+    @Modifying
+    @Query(value = "UPDATE attendance SET status = 'HALF_DAY' " +
+            "WHERE date = :date AND status = 'PENDING' AND check_out_time IS NULL " +
+            "AND user_id > :fromUserId AND user_id <= :toUserId",
+            nativeQuery = true)
+    int markPendingAsHalfDay(LocalDate date, long fromUserId, long toUserId);
+
+    @Query(value = "SELECT COUNT(*) FROM attendance " +
+            "WHERE date = :date AND status = 'PENDING' AND check_out_time IS NULL " +
+            "AND user_id > :fromUserId AND user_id <= :toUserId",
+            nativeQuery = true)
+    long countPendingWithoutCheckout(LocalDate date, long fromUserId, long toUserId);
+
+    // =================== LEAVE RECONCILIATION (set-based, [from, to] inclusive) ===================
+    // Same user id windows as above. An approved leave covers every weekday from its start to its end date.
+
+    String LEAVE_DAYS_MISSING = "WITH RECURSIVE days (day) AS (SELECT CAST(:from AS DATE) " +
+            "UNION ALL SELECT day + INTERVAL 1 DAY FROM days WHERE day < :to) " +
+            "SELECT DISTINCT l.employee_id AS user_id, d.day AS day FROM leave_requests l " +
+            "JOIN days d ON d.day BETWEEN l.start_date AND l.end_date " +
+            "WHERE l.leave_status = 'APPROVED' AND l.start_date <= :to AND l.end_date >= :from " +
+            "AND DAYOFWEEK(d.day) NOT IN (1, 7) " +
+            "AND NOT EXISTS (SELECT 1 FROM holidays h WHERE h.date = d.day AND (h.office_location IS NULL " +
+            "OR h.office_location IN (SELECT e.office_location FROM employees e JOIN users eu ON eu.email = e.user_email " +
+            "WHERE eu.id = l.employee_id))) " +
+            "AND l.employee_id > :fromUserId AND l.employee_id <= :toUserId " +
+            "AND NOT EXISTS (SELECT 1 FROM attendance a WHERE a.user_id = l.employee_id AND a.date = d.day)";
+
+    String COVERED_BY_LEAVE = "EXISTS (SELECT 1 FROM leave_requests l WHERE l.employee_id = a.user_id " +
+            "AND l.leave_status = 'APPROVED' AND a.date BETWEEN l.start_date AND l.end_date)";
+
+    String LEAVE_WINDOW = "a.date >= :from AND a.date <= :to AND a.user_id > :fromUserId AND a.user_id <= :toUserId ";
+
+    // LEAVE row for every covered day that has no attendance row yet
+    @Modifying
+    @Query(value = "INSERT IGNORE INTO attendance (user_id, date, status, reason) " +
+            "SELECT m.user_id, m.day, 'LEAVE', 'Approved leave' FROM (" + LEAVE_DAYS_MISSING + ") m",
+            nativeQuery = true)
+    int insertLeaveDays(LocalDate from, LocalDate to, long fromUserId, long toUserId);
+
+    @Query(value = "SELECT COUNT(*) FROM (" + LEAVE_DAYS_MISSING + ") m", nativeQuery = true)
+    long countLeaveDaysMissing(LocalDate from, LocalDate to, long fromUserId, long toUserId);
+
+    // ABSENT (never checked in) on a covered day becomes LEAVE
+    @Modifying
+    @Query(value = "UPDATE attendance a SET a.status = 'LEAVE', a.reason = COALESCE(a.reason, 'Approved leave') " +
+            "WHERE " + LEAVE_WINDOW + "AND a.status = 'ABSENT' AND a.check_in_time IS NULL AND " + COVERED_BY_LEAVE,
+            nativeQuery = true)
+    int markAbsentAsLeave(LocalDate from, LocalDate to, long fromUserId, long toUserId);
+
+    @Query(value = "SELECT COUNT(*) FROM attendance a " +
+            "WHERE " + LEAVE_WINDOW + "AND a.status = 'ABSENT' AND a.check_in_time IS NULL AND " + COVERED_BY_LEAVE,
+            nativeQuery = true)
+    long countAbsentCoveredByLeave(LocalDate from, LocalDate to, long fromUserId, long toUserId);
+
+    // LEAVE no longer covered (leave rejected or shortened after the fact) goes back to ABSENT
+    @Modifying
+    @Query(value = "UPDATE attendance a SET a.status = 'ABSENT', " +
+            "a.reason = CASE WHEN a.reason = 'Approved leave' THEN 'Leave withdrawn' ELSE a.reason END " +
+            "WHERE " + LEAVE_WINDOW + "AND a.status = 'LEAVE' AND NOT " + COVERED_BY_LEAVE,
+            nativeQuery = true)
+    int revertUncoveredLeave(LocalDate from, LocalDate to, long fromUserId, long toUserId);
 
-    @Query("SELECT a FROM Attendance a WHERE YEAR(a.date) = :year AND MONTH(a.date) = :month")
-    List<Attendance> findByMonth(int year, int month);
+    @Query(value = "SELECT COUNT(*) FROM attendance a " +
+            "WHERE " + LEAVE_WINDOW + "AND a.status = 'LEAVE' AND NOT " + COVERED_BY_LEAVE,
+            nativeQuery = true)
+    long countUncoveredLeave(LocalDate from, LocalDate to, long fromUserId, long toUserId);
 }
@@ -0,0 +1,66 @@
+package com.VentureBiz.VenureBiz_Hr.repository;
+
+import com.VentureBiz.VenureBiz_Hr.dto.MonthlyAttendanceCounts;
+import com.VentureBiz.VenureBiz_Hr.model.AttendanceMonthlyRollup;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+
+import java.time.LocalDate;
+import java.util.List;
+
+public interface AttendanceRollupRepository extends JpaRepository<AttendanceMonthlyRollup, Long> {
+
+    // Adds the given deltas to a user's counters, creating the row on first use
+    @Modifying
+    @Query(value = "INSERT INTO attendance_monthly_rollup " +
+            "(user_id, year, month, present_count, late_count, half_day_count, absent_count, pending_count, leave_count) " +
+            "VALUES (:userId, :year, :month, :present, :late, :halfDay, :absent, :pending, :onLeave) " +
+            "ON DUPLICATE KEY UPDATE " +
+            "present_count = present_count + VALUES(present_count), " +
+            "late_count = late_count + VALUES(late_count), " +
+            "half_day_count = half_day_count + VALUES(half_day_count), " +
+            "absent_count = absent_count + VALUES(absent_count), " +
+            "pending_count = pending_count + VALUES(pending_count), " +
+            "leave_count = leave_count + VALUES(leave_count)",
+            nativeQuery = true)
+    int applyDelta(long userId, int year, int month,
+                   int present, int late, int halfDay, int absent, int pending, int onLeave);
+
+    // Rollup counters for every user (or one email) for a month
+    @Query(value = "SELECT u.id AS userId, u.email AS email, " +
+            "r.present_count AS present, r.late_count AS late, r.half_day_count AS halfDay, " +
+            "r.absent_count AS absent, r.pending_count AS pending, r.leave_count AS onLeave " +
+            "FROM users u LEFT JOIN attendance_monthly_rollup r " +
+            "ON r.user_id = u.id AND r.year = :year AND r.month = :month " +
+            "WHERE (:email IS NULL OR u.email = :email)",
+            nativeQuery = true)
+    List<MonthlyAttendanceCounts> findCounts(int year, int month, String email);
+
+    // =================== REBUILD (user id window (fromUserId, toUserId]) ===================
+
+    @Modifying
+    @Query(value = "UPDATE attendance_monthly_rollup SET present_count = 0, late_count = 0, " +
+            "half_day_count = 0, absent_count = 0, pending_count = 0, leave_count = 0 " +
+            "WHERE year = :year AND month = :month AND user_id > :fromUserId AND user_id <= :toUserId",
+            nativeQuery = true)
+    int resetRange(int year, int month, long fromUserId, long toUserId);
+
+    @Modifying
+    @Query(value = "INSERT INTO attendance_monthly_rollup " +
+            "(user_id, year, month, present_count, late_count, half_day_count, absent_count, pending_count, leave_count) " +
+            "SELECT a.user_id, :year, :month, " +
+            "SUM(a.status = 'PRESENT'), SUM(a.status = 'LATE'), SUM(a.status = 'HALF_DAY'), " +
+            "SUM(a.status = 'ABSENT'), SUM(a.status = 'PENDING'), SUM(a.status = 'LEAVE') " +
+            "FROM attendance a " +
+            "WHERE a.date >= :from AND a.date < :to AND DAYOFWEEK(a.date) NOT IN (1, 7) " +
+            "AND NOT " + HolidayRepository.ATTENDANCE_ON_HOLIDAY + " " +
+            "AND a.user_id > :fromUserId AND a.user_id <= :toUserId " +
+            "GROUP BY a.user_id " +
+            "ON DUPLICATE KEY UPDATE " +
+            "present_count = VALUES(present_count), late_count = VALUES(late_count), " +
+            "half_day_count = VALUES(half_day_count), absent_count = VALUES(absent_count), " +
+            "pending_count = VALUES(pending_count), leave_count = VALUES(leave_count)",
+            nativeQuery = true)
+    int rebuildRange(int year, int month, LocalDate from, LocalDate to, long fromUserId, long toUserId);
+}
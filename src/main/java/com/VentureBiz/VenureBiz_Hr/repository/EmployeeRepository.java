@@ -1,11 +1,55 @@
 package com.VentureBiz.VenureBiz_Hr.repository;
 
+import com.VentureBiz.VenureBiz_Hr.dto.EmployeeUserId;
+import com.VentureBiz.VenureBiz_Hr.dto.EmployeeView;
+import com.VentureBiz.VenureBiz_Hr.dto.JoinCount;
+import com.VentureBiz.VenureBiz_Hr.dto.UserLocation;
 import com.VentureBiz.VenureBiz_Hr.model.Employee;
+import com.VentureBiz.VenureBiz_Hr.model.Status;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 public interface EmployeeRepository extends JpaRepository<Employee, Long> {
 
+    // The user's email is the join column, so the view needs no join to users
+    String VIEW_SELECT = "SELECT new com.VentureBiz.VenureBiz_Hr.dto.EmployeeView(e.id, e.employeeId, e.name, " +
+            "e.department, e.deptRole, e.dateOfJoining, e.status, e.officeLocation, e.user.email) FROM Employee e ";
+
     Optional<Employee> findByUser_Email(String email); // ✅ fixed
     Optional<Employee> findByEmployeeId(String employeeId);
+
+    List<Employee> findByEmployeeIdIn(Collection<String> employeeIds);
+
+    @Query(VIEW_SELECT + "ORDER BY e.id")
+    List<EmployeeView> findAllViews();
+
+    @Query(VIEW_SELECT + "WHERE e.user.email = :email")
+    Optional<EmployeeView> findViewByEmail(String email);
+
+    @Query("SELECT e.employeeId AS employeeCode, e.user.id AS userId FROM Employee e WHERE e.employeeId IN :codes")
+    List<EmployeeUserId> findUserIdsByEmployeeCodes(Collection<String> codes);
+
+    // Users with an office location set (everyone else follows the company-wide calendar)
+    @Query("SELECT e.user.id AS userId, e.officeLocation AS officeLocation FROM Employee e " +
+            "WHERE e.officeLocation IS NOT NULL")
+    List<UserLocation> findUserLocations();
+
+    // Joiners per calendar month up to (excluding) a date
+    @Query("SELECT YEAR(e.dateOfJoining) AS year, MONTH(e.dateOfJoining) AS month, COUNT(e) AS joined " +
+            "FROM Employee e WHERE e.dateOfJoining < :before " +
+            "GROUP BY YEAR(e.dateOfJoining), MONTH(e.dateOfJoining) " +
+            "ORDER BY YEAR(e.dateOfJoining), MONTH(e.dateOfJoining)")
+    List<JoinCount> countJoinsByMonth(LocalDate before);
+
+    // Keyset page ordered by id; every filter is optional (null = not applied)
+    @Query(VIEW_SELECT + "WHERE e.id > :after " +
+            "AND (:department IS NULL OR e.department = :department) " +
+            "AND (:status IS NULL OR e.status = :status) " +
+            "ORDER BY e.id")
+    List<EmployeeView> findPage(long after, String department, Status status, Limit limit);
 }
@@ -0,0 +1,32 @@
+package com.VentureBiz.VenureBiz_Hr.repository;
+
+import com.VentureBiz.VenureBiz_Hr.model.Holiday;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+
+import java.time.LocalDate;
+import java.util.List;
+
+public interface HolidayRepository extends JpaRepository<Holiday, Long> {
+
+    // Native predicate: attendance row 'a' falls on a company-wide holiday or one of its user's office
+    String ATTENDANCE_ON_HOLIDAY = "EXISTS (SELECT 1 FROM holidays h WHERE h.date = a.date " +
+            "AND (h.office_location IS NULL OR h.office_location IN (SELECT e.office_location FROM employees e " +
+            "JOIN users eu ON eu.email = e.user_email WHERE eu.id = a.user_id)))";
+
+    // Holidays in [from, to); location = null lists every office
+    @Query("SELECT h FROM Holiday h WHERE h.date >= :from AND h.date < :to " +
+            "AND (:location IS NULL OR h.officeLocation IS NULL OR h.officeLocation = :location) " +
+            "ORDER BY h.date, h.id")
+    List<Holiday> findInRange(LocalDate from, LocalDate to, String location);
+
+    // Days in [from, to) closed for an office (company-wide holidays included; location = null for those only)
+    @Query("SELECT DISTINCT h.date FROM Holiday h WHERE h.date >= :from AND h.date < :to " +
+            "AND (h.officeLocation IS NULL OR h.officeLocation = :location)")
+    List<LocalDate> findClosedDays(LocalDate from, LocalDate to, String location);
+
+    @Query("SELECT COUNT(h) > 0 FROM Holiday h WHERE h.date = :date " +
+            "AND ((:location IS NULL AND h.officeLocation IS NULL) OR h.officeLocation = :location) " +
+            "AND (:excludeId IS NULL OR h.id <> :excludeId)")
+    boolean existsOn(LocalDate date, String location, Long excludeId);
+}
@@ -0,0 +1,21 @@
+package com.VentureBiz.VenureBiz_Hr.repository;
+
+import com.VentureBiz.VenureBiz_Hr.model.LeaveBalance;
+import com.VentureBiz.VenureBiz_Hr.model.LeaveRequest;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+public interface LeaveBalanceRepository extends JpaRepository<LeaveBalance, Long> {
+
+    // Seek on uk_leave_balance_user_type_year
+    Optional<LeaveBalance> findByUserIdAndLeaveTypeAndYear(Long userId, LeaveRequest.LeaveType leaveType, int year);
+
+    List<LeaveBalance> findByUserIdAndYearOrderByLeaveType(Long userId, int year);
+
+    @Query("SELECT b FROM LeaveBalance b WHERE b.userId IN :userIds AND b.year IN :years")
+    List<LeaveBalance> findForUsers(Collection<Long> userIds, Collection<Integer> years);
+}
@@ -0,0 +1,37 @@
+package com.VentureBiz.VenureBiz_Hr.repository;
+
+import com.VentureBiz.VenureBiz_Hr.model.LeaveLedgerEntry;
+import com.VentureBiz.VenureBiz_Hr.model.LeaveRequest;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+public interface LeaveLedgerRepository extends JpaRepository<LeaveLedgerEntry, Long> {
+
+    List<LeaveLedgerEntry> findByUserIdAndYearOrderById(Long userId, int year);
+
+    @Query("SELECT COUNT(l) > 0 FROM LeaveLedgerEntry l WHERE l.entryType = " +
+            "com.VentureBiz.VenureBiz_Hr.model.LeaveLedgerEntry.EntryType.ACCRUAL " +
+            "AND l.leaveType = :leaveType AND l.year = :year AND l.accrualMonth = :month")
+    boolean accrualExists(LeaveRequest.LeaveType leaveType, int year, int month);
+
+    // One accrual row per active employee with a login, in a single INSERT ... SELECT
+    @Modifying
+    @Query(value = "INSERT INTO leave_ledger (user_id, leave_type, year, accrual_month, entry_type, days, created_at) " +
+            "SELECT u.id, :leaveType, :year, :month, 'ACCRUAL', :days, NOW(6) " +
+            "FROM employees e JOIN users u ON u.email = e.user_email WHERE e.status = 'ACTIVE'",
+            nativeQuery = true)
+    int insertAccruals(String leaveType, int year, int month, BigDecimal days);
+
+    // Credits the rows inserted by insertAccruals to the balances
+    @Modifying
+    @Query(value = "INSERT INTO leave_balances (user_id, leave_type, year, accrued, used) " +
+            "SELECT l.user_id, l.leave_type, l.year, l.days, 0 FROM leave_ledger l " +
+            "WHERE l.entry_type = 'ACCRUAL' AND l.leave_type = :leaveType AND l.year = :year AND l.accrual_month = :month " +
+            "ON DUPLICATE KEY UPDATE accrued = accrued + VALUES(accrued)",
+            nativeQuery = true)
+    int creditAccruals(String leaveType, int year, int month);
+}
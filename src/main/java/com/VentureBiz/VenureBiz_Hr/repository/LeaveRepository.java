@@ -1,12 +1,76 @@
 package com.VentureBiz.VenureBiz_Hr.repository;
 
+import com.VentureBiz.VenureBiz_Hr.dto.LeaveAbsence;
+import com.VentureBiz.VenureBiz_Hr.dto.LeaveDecisionRow;
+import com.VentureBiz.VenureBiz_Hr.dto.LeaveSpan;
+import com.VentureBiz.VenureBiz_Hr.dto.LeaveView;
 import com.VentureBiz.VenureBiz_Hr.model.LeaveRequest;
-import com.VentureBiz.VenureBiz_Hr.model.User;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
 
+import java.time.LocalDate;
+import java.util.Collection;
 import java.util.List;
 
 public interface LeaveRepository extends JpaRepository<LeaveRequest, Long> {
 
-    List<LeaveRequest> findByEmployee(User employee);
+    String VIEW_SELECT = "SELECT new com.VentureBiz.VenureBiz_Hr.dto.LeaveView(l.id, u.id, u.email, l.leaveType, " +
+            "l.startDate, l.endDate, l.days, l.leaveStatus, l.appliedOn, l.reason, l.approvedByHr, l.approvedOn) " +
+            "FROM LeaveRequest l JOIN l.employee u ";
+
+    @Query(VIEW_SELECT + "WHERE u.id = :userId ORDER BY l.startDate DESC")
+    List<LeaveView> findViewsByUser(Long userId);
+
+    @Query(VIEW_SELECT + "ORDER BY l.id")
+    List<LeaveView> findAllViews();
+
+    // Approved leaves overlapping [from, to) for all users, in one query
+    @Query("SELECT l.employee.id AS userId, l.startDate AS startDate, l.endDate AS endDate FROM LeaveRequest l " +
+            "WHERE l.leaveStatus = com.VentureBiz.VenureBiz_Hr.model.LeaveRequest.LeaveStatus.APPROVED " +
+            "AND l.startDate < :to AND l.endDate >= :from")
+    List<LeaveSpan> findApprovedOverlapping(LocalDate from, LocalDate to);
+
+    // Pending and approved leaves with the employee's department, for LeaveCalendar
+    String ABSENCE_SELECT = "SELECT new com.VentureBiz.VenureBiz_Hr.dto.LeaveAbsence(l.id, u.id, u.email, e.name, " +
+            "e.department, l.leaveType, l.leaveStatus, l.startDate, l.endDate) " +
+            "FROM LeaveRequest l JOIN l.employee u LEFT JOIN Employee e ON e.user.email = u.email " +
+            "WHERE l.leaveStatus <> com.VentureBiz.VenureBiz_Hr.model.LeaveRequest.LeaveStatus.REJECTED ";
+
+    @Query(ABSENCE_SELECT)
+    List<LeaveAbsence> findAbsences();
+
+    @Query(ABSENCE_SELECT + "AND l.id IN :ids")
+    List<LeaveAbsence> findAbsences(Collection<Long> ids);
+
+    @Query(ABSENCE_SELECT + "AND u.email = :email")
+    List<LeaveAbsence> findAbsencesByEmail(String email);
+
+    // Database re-check behind LeaveCalendar.requireNoOverlap; excludeLeaveId = null excludes nothing
+    @Query(ABSENCE_SELECT + "AND u.id = :userId AND l.startDate <= :to AND l.endDate >= :from " +
+            "AND (:excludeLeaveId IS NULL OR l.id <> :excludeLeaveId) ORDER BY l.startDate")
+    List<LeaveAbsence> findOverlapping(Long userId, LocalDate from, LocalDate to, Long excludeLeaveId);
+
+    // Locks the requests being decided so a concurrent decision waits instead of double-posting the ledger
+    @Query(value = "SELECT id, employee_id AS userId, leave_type AS leaveType, start_date AS startDate, days, " +
+            "leave_status AS leaveStatus FROM leave_requests WHERE id IN (:ids) ORDER BY id FOR UPDATE",
+            nativeQuery = true)
+    List<LeaveDecisionRow> lockForDecision(Collection<Long> ids);
+
+    // Only PENDING rows move, so a repeated decision is a no-op
+    @Modifying
+    @Query("UPDATE LeaveRequest l SET l.leaveStatus = :status, l.approvedByHr = :hrEmail, l.approvedOn = :decidedOn " +
+            "WHERE l.id IN :ids AND l.leaveStatus = com.VentureBiz.VenureBiz_Hr.model.LeaveRequest.LeaveStatus.PENDING")
+    int decidePending(Collection<Long> ids, LeaveRequest.LeaveStatus status, String hrEmail, LocalDate decidedOn);
+
+    // Keyset page ordered by id; from/to filter on the leave start date
+    @Query(VIEW_SELECT + "WHERE l.id > :after " +
+            "AND (:from IS NULL OR l.startDate >= :from) AND (:to IS NULL OR l.startDate < :to) " +
+            "AND (:status IS NULL OR l.leaveStatus = :status) " +
+            "AND (:department IS NULL OR EXISTS (SELECT e.id FROM Employee e JOIN e.user eu " +
+            "WHERE eu.id = u.id AND e.department = :department)) " +
+            "ORDER BY l.id")
+    List<LeaveView> findPage(long after, LocalDate from, LocalDate to, LeaveRequest.LeaveStatus status,
+                             String department, Limit limit);
 }
@@ -0,0 +1,31 @@
+package com.VentureBiz.VenureBiz_Hr.repository;
+
+import com.VentureBiz.VenureBiz_Hr.model.Payslip;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+public interface PayslipRepository extends JpaRepository<Payslip, Long> {
+
+    // ETag only, so a conditional GET can answer 304 without reading the PDF
+    @Query("SELECT p.etag FROM Payslip p WHERE p.salaryId = :salaryId")
+    Optional<String> findEtag(Long salaryId);
+
+    @Query("SELECT p.content FROM Payslip p WHERE p.salaryId = :salaryId")
+    Optional<byte[]> findContent(Long salaryId);
+
+    // Salary ids of a month that already have a stored payslip
+    @Query("SELECT p.salaryId FROM Payslip p, Salary s WHERE s.id = p.salaryId AND s.month = :month AND s.year = :year")
+    List<Long> findStoredSalaryIds(int month, int year);
+
+    // Stored once; a concurrent render of the same salary produced identical bytes, so a duplicate is a no-op
+    @Modifying
+    @Query(value = "INSERT IGNORE INTO payslips (salary_id, etag, content, rendered_at) " +
+            "VALUES (:salaryId, :etag, :content, :renderedAt)",
+            nativeQuery = true)
+    int store(Long salaryId, String etag, byte[] content, LocalDateTime renderedAt);
+}
@@ -1,16 +1,154 @@
 package com.VentureBiz.VenureBiz_Hr.repository;
 
+import com.VentureBiz.VenureBiz_Hr.dto.BankTransferRow;
+import com.VentureBiz.VenureBiz_Hr.dto.DepartmentCost;
+import com.VentureBiz.VenureBiz_Hr.dto.RolePay;
+import com.VentureBiz.VenureBiz_Hr.dto.PayslipSource;
+import com.VentureBiz.VenureBiz_Hr.dto.SalaryExportRow;
+import com.VentureBiz.VenureBiz_Hr.dto.SalaryTemplateRow;
+import com.VentureBiz.VenureBiz_Hr.dto.SalaryView;
 import com.VentureBiz.VenureBiz_Hr.model.Employee;
 import com.VentureBiz.VenureBiz_Hr.model.Salary;
+import com.VentureBiz.VenureBiz_Hr.model.SalaryStatus;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import java.time.LocalDate;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 public interface SalaryRepository extends JpaRepository<Salary, Long> {
 
     Optional<Salary> findByEmployeeAndMonthAndYear(Employee employee, int month, int year);
 
-    List<Salary> findByEmployee(Employee employee);
+    // Read endpoints select straight into SalaryView (employee columns joined in, no entities loaded)
+    String VIEW_SELECT = "SELECT new com.VentureBiz.VenureBiz_Hr.dto.SalaryView(s.id, e.employeeId, e.name, e.department, " +
+            "s.month, s.year, s.basicPay, s.hra, s.allowances, s.deductions, s.lopDays, s.lopDeduction, s.netPay, " +
+            "s.status, s.payslipDate, s.paidDate, s.bankName, s.accountNumber) FROM Salary s JOIN s.employee e ";
 
-    List<Salary> findByMonthAndYear(int month, int year);
+    @Query(VIEW_SELECT + "WHERE e.employeeId = :employeeCode ORDER BY s.year DESC, s.month DESC")
+    List<SalaryView> findViewsByEmployeeCode(String employeeCode);
+
+    @Query(VIEW_SELECT + "WHERE s.month = :month AND s.year = :year ORDER BY e.employeeId")
+    List<SalaryView> findViewsByMonth(int month, int year);
+
+    // Bulk status transition for a month (e.g. CURRENT -> PENDING); returns the rows changed
+    @Modifying
+    @Query("UPDATE Salary s SET s.status = :to WHERE s.month = :month AND s.year = :year AND s.status = :from")
+    int transitionStatus(int month, int year, SalaryStatus from, SalaryStatus to);
+
+    // Marks every not-yet-paid salary of a month PAID on paidDate; returns the rows changed
+    @Modifying
+    @Query("UPDATE Salary s SET s.status = com.VentureBiz.VenureBiz_Hr.model.SalaryStatus.PAID, s.paidDate = :paidDate " +
+            "WHERE s.month = :month AND s.year = :year " +
+            "AND s.status <> com.VentureBiz.VenureBiz_Hr.model.SalaryStatus.PAID")
+    int markMonthPaid(int month, int year, LocalDate paidDate);
+
+    String PAYSLIP_SELECT = "SELECT s.id AS id, e.employeeId AS employeeCode, e.name AS name, " +
+            "e.department AS department, u.email AS ownerEmail, s.month AS month, s.year AS year, " +
+            "s.basicPay AS basicPay, s.hra AS hra, s.allowances AS allowances, s.deductions AS deductions, " +
+            "s.lopDays AS lopDays, s.lopDeduction AS lopDeduction, s.netPay AS netPay, s.status AS status, " +
+            "s.paidDate AS paidDate, s.bankName AS bankName, s.accountNumber AS accountNumber " +
+            "FROM Salary s JOIN s.employee e JOIN e.user u ";
+
+    @Query(PAYSLIP_SELECT + "WHERE s.id = :id")
+    Optional<PayslipSource> findPayslipSource(Long id);
+
+    // Row lock on the salary until commit: a payslip is stored only if the row it printed is still current
+    @Query(value = "SELECT id FROM salaries WHERE id = :id FOR UPDATE", nativeQuery = true)
+    Optional<Long> lockById(Long id);
+
+    @Query(PAYSLIP_SELECT + "WHERE s.month = :month AND s.year = :year ORDER BY e.employeeId")
+    List<PayslipSource> findPayslipSources(int month, int year);
+
+    // Latest salary of every ACTIVE employee up to a period (year * 12 + month)
+    @Query("SELECT s.id AS salaryId, e.id AS employeeId, u.id AS userId, s.month AS month, s.year AS year, " +
+            "s.basicPay AS basicPay, s.hra AS hra, s.allowances AS allowances, s.deductions AS deductions, " +
+            "s.status AS status, s.bankName AS bankName, s.accountNumber AS accountNumber " +
+            "FROM Salary s JOIN s.employee e JOIN e.user u " +
+            "WHERE (e.status IS NULL OR e.status = com.VentureBiz.VenureBiz_Hr.model.Status.ACTIVE) " +
+            "AND s.year * 12 + s.month = (SELECT MAX(s2.year * 12 + s2.month) FROM Salary s2 " +
+            "WHERE s2.employee = e AND s2.year * 12 + s2.month <= :period) " +
+            "ORDER BY e.id, s.id")
+    List<SalaryTemplateRow> findLatestUpTo(int period);
+
+    // Existing salaries of a month for a set of employees (one query per payroll-run chunk);
+    // employee and user are fetched in the same query: the EAGER employee and the user joined
+    // by email (a non-key column, so never lazy) would otherwise load row by row
+    @Query("SELECT s FROM Salary s JOIN FETCH s.employee e JOIN FETCH e.user " +
+            "WHERE s.month = :month AND s.year = :year AND e.id IN :employeeIds")
+    List<Salary> findForEmployees(int month, int year, Collection<Long> employeeIds);
+
+    // Streams the payroll register of a month; consume inside a read-only transaction and close
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "" + Integer.MIN_VALUE),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("SELECT s.id AS id, e.employeeId AS employeeCode, e.name AS name, e.department AS department, " +
+            "s.month AS month, s.year AS year, s.basicPay AS basicPay, s.hra AS hra, " +
+            "s.allowances AS allowances, s.deductions AS deductions, s.lopDeduction AS lopDeduction, " +
+            "s.netPay AS netPay, " +
+            "s.status AS status, s.paidDate AS paidDate, s.bankName AS bankName, s.accountNumber AS accountNumber " +
+            "FROM Salary s JOIN s.employee e WHERE s.month = :month AND s.year = :year ORDER BY e.employeeId")
+    Stream<SalaryExportRow> streamRegister(int month, int year);
+
+    // Salary cost per department for a month (aggregated in the database)
+    @Query("SELECT new com.VentureBiz.VenureBiz_Hr.dto.DepartmentCost(" +
+            "COALESCE(e.department, 'Unassigned'), COUNT(DISTINCT e.id), " +
+            "SUM(s.basicPay + s.hra + s.allowances), SUM(s.deductions), " +
+            "SUM(COALESCE(s.lopDeduction, 0)), SUM(s.netPay)) " +
+            "FROM Salary s JOIN s.employee e WHERE s.month = :month AND s.year = :year " +
+            "GROUP BY COALESCE(e.department, 'Unassigned') ORDER BY COALESCE(e.department, 'Unassigned')")
+    List<DepartmentCost> costByDepartment(int month, int year);
+
+    // Net pay statistics per deptRole for a month
+    @Query("SELECT new com.VentureBiz.VenureBiz_Hr.dto.RolePay(" +
+            "COALESCE(e.deptRole, 'Unassigned'), COUNT(s), SUM(s.netPay), MIN(s.netPay), MAX(s.netPay)) " +
+            "FROM Salary s JOIN s.employee e WHERE s.month = :month AND s.year = :year " +
+            "GROUP BY COALESCE(e.deptRole, 'Unassigned') ORDER BY COALESCE(e.deptRole, 'Unassigned')")
+    List<RolePay> payByRole(int month, int year);
+
+    long countByMonthAndYear(int month, int year);
+
+    long countByMonthAndYearAndStatusNot(int month, int year, SalaryStatus status);
+
+    // A month is closed once it has salaries and none of them is still unpaid
+    default boolean isMonthFullyPaid(int month, int year) {
+        return countByMonthAndYear(month, year) > 0
+                && countByMonthAndYearAndStatusNot(month, year, SalaryStatus.PAID) == 0;
+    }
+
+    // Streams a month's payable (not yet PAID, positive net, with bank details) salaries grouped by bank
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "" + Integer.MIN_VALUE),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("SELECT s.id AS id, e.employeeId AS employeeCode, e.name AS name, s.bankName AS bankName, " +
+            "s.accountNumber AS accountNumber, s.netPay AS netPay " +
+            "FROM Salary s JOIN s.employee e WHERE s.month = :month AND s.year = :year " +
+            "AND s.status <> com.VentureBiz.VenureBiz_Hr.model.SalaryStatus.PAID AND s.netPay > 0 " +
+            "AND s.bankName IS NOT NULL AND s.accountNumber IS NOT NULL " +
+            "ORDER BY s.bankName, e.employeeId, s.id")
+    Stream<BankTransferRow> streamPayable(int month, int year);
+
+    // Marks the given salaries PAID unless already paid; callers pass at most a few thousand ids per call
+    @Modifying
+    @Query("UPDATE Salary s SET s.status = com.VentureBiz.VenureBiz_Hr.model.SalaryStatus.PAID, s.paidDate = :paidDate " +
+            "WHERE s.id IN :ids AND s.status <> com.VentureBiz.VenureBiz_Hr.model.SalaryStatus.PAID")
+    int markPaid(Collection<Long> ids, LocalDate paidDate);
+
+    // Keyset page ordered by id; every filter is optional (null = not applied)
+    @Query(VIEW_SELECT + "WHERE s.id > :after " +
+            "AND (:month IS NULL OR s.month = :month) AND (:year IS NULL OR s.year = :year) " +
+            "AND (:status IS NULL OR s.status = :status) " +
+            "AND (:department IS NULL OR e.department = :department) " +
+            "ORDER BY s.id")
+    List<SalaryView> findPage(long after, Integer month, Integer year, SalaryStatus status,
+                              String department, Limit limit);
 }
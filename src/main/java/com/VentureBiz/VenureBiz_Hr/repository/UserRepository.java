@@ -1,12 +1,27 @@
 
 package com.VentureBiz.VenureBiz_Hr.repository;
 
+import com.VentureBiz.VenureBiz_Hr.dto.UserAccountStatus;
 import com.VentureBiz.VenureBiz_Hr.model.User;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import java.util.List;
 import java.util.Optional;
 
 public interface UserRepository extends JpaRepository<User, Long> {
     Optional<User> findByEmail(String email);
 
 	boolean existsByEmail(String email);
+
+    @Query("SELECT COALESCE(MAX(u.id), 0) FROM User u")
+    long findMaxId();
+
+    // Row lock on the user: serializes that user's leave applications (across instances) until commit
+    @Query(value = "SELECT id FROM users WHERE id = :userId FOR UPDATE", nativeQuery = true)
+    Optional<Long> lockById(Long userId);
+
+    @Query(value = "SELECT u.role AS role, e.status AS status FROM users u " +
+            "LEFT JOIN employees e ON e.user_email = u.email WHERE u.email = :email",
+            nativeQuery = true)
+    List<UserAccountStatus> findAccountStatus(String email);
 }
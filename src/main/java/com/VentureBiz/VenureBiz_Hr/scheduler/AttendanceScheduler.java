@@ -1,57 +1,120 @@
 package com.VentureBiz.VenureBiz_Hr.scheduler;
 
 
-import com.VentureBiz.VenureBiz_Hr.model.Attendance;
-import com.VentureBiz.VenureBiz_Hr.model.User;
+import com.VentureBiz.VenureBiz_Hr.dto.ReconciliationReport;
 import com.VentureBiz.VenureBiz_Hr.repository.AttendanceRepository;
 import com.VentureBiz.VenureBiz_Hr.repository.UserRepository;
+import com.VentureBiz.VenureBiz_Hr.service.AttendanceRollupService;
+import com.VentureBiz.VenureBiz_Hr.service.LeaveAttendanceService;
+import com.VentureBiz.VenureBiz_Hr.service.WorkingDayCalendar;
 import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.time.*;
-import java.util.*;
 
+@Slf4j
 @Service
 @RequiredArgsConstructor
 public class AttendanceScheduler {
 
     private final AttendanceRepository attendanceRepository;
     private final UserRepository userRepository;
+    private final AttendanceRollupService attendanceRollupService;
+    private final TransactionTemplate transactionTemplate;
+    private final LeaveAttendanceService leaveAttendanceService;
+    private final WorkingDayCalendar workingDayCalendar;
+
+    // Users per committed chunk (window over user ids)
+    @Value("${attendance.reconcile.chunk-size:1000}")
+    private int chunkSize;
+
+    // Today may be reconciled on demand only from this time (the nightly run's time); before it people still check in
+    @Value("${attendance.reconcile.today-cutoff:22:00}")
+    private String todayCutoff;
 
     /**
      * Runs every day at 10 PM to auto-update attendance
      */
     @Scheduled(cron = "0 0 22 * * *")
     public void markAbsenteesAndHalfDay() {
+        // Approved leave first (also on weekends, to catch late rejections), so those days get LEAVE instead of ABSENT
+        leaveAttendanceService.reconcileRecent();
+
+        ReconciliationReport report = reconcile(LocalDate.now(), false);
+        if (report.isSkipped()) {
+            log.info("Auto attendance update skipped for {}: not a working day", report.getDate());
+            return;
+        }
+
+        log.info("Auto attendance update completed for {}: absent={}, halfDay={}, chunks={} in {} ms",
+                report.getDate(), report.getAbsentInserted(), report.getHalfDayUpdated(),
+                report.getChunks(), report.getElapsedMs());
+    }
+
+    // Past days always; today only once the cutoff has passed (an earlier run would mark people ABSENT who check in later)
+    public boolean canReconcile(LocalDate date) {
         LocalDate today = LocalDate.now();
-        DayOfWeek day = today.getDayOfWeek();
-
-        // Skip weekends
-        if (day == DayOfWeek.SATURDAY || day == DayOfWeek.SUNDAY) return;
-
-        List<User> users = userRepository.findAll();
-
-        for (User user : users) {
-            Optional<Attendance> optionalAttendance = attendanceRepository.findByUserAndDate(user, today);
-
-            if (optionalAttendance.isEmpty()) {
-                // No check-in → mark ABSENT
-                Attendance absent = new Attendance();
-                absent.setUser(user);
-                absent.setDate(today);
-                absent.setStatus("ABSENT");
-                attendanceRepository.save(absent);
-            } else {
-                Attendance attendance = optionalAttendance.get();
-                if (attendance.getCheckOutTime() == null && "PENDING".equals(attendance.getStatus())) {
-                    // Checked in but no checkout → mark HALF_DAY
-                    attendance.setStatus("HALF_DAY");
-                    attendanceRepository.save(attendance);
-                }
+        return date.isBefore(today) || (date.equals(today) && !LocalTime.now().isBefore(LocalTime.parse(todayCutoff)));
+    }
+
+    public String getTodayCutoff() {
+        return todayCutoff;
+    }
+
+    /**
+     * Set-based reconciliation for one day: users with no row get an ABSENT row (anti-join insert)
+     * and PENDING rows without checkout become HALF_DAY. Work is committed in chunks of user ids.
+     * Safe to re-run for a past date — rows already present are never touched twice.
+     * The monthly rollup of each changed chunk is refreshed in the same transaction.
+     */
+    public ReconciliationReport reconcile(LocalDate date, boolean dryRun) {
+        long start = System.currentTimeMillis();
+        ReconciliationReport report = ReconciliationReport.builder()
+                .date(date)
+                .dryRun(dryRun)
+                .build();
+
+        // Skip weekends and company-wide holidays; office holidays are excluded per user in the statements
+        if (!workingDayCalendar.isCompanyWorkingDay(date)) {
+            report.setSkipped(true);
+            return report;
+        }
+
+        long maxUserId = userRepository.findMaxId();
+        int step = Math.max(1, chunkSize);
+
+        for (long from = 0; from < maxUserId; from += step) {
+            long lower = from;
+            long upper = Math.min(from + step, maxUserId);
+
+            if (dryRun) {
+                report.setAbsentInserted(report.getAbsentInserted()
+                        + attendanceRepository.countAbsentees(date, lower, upper));
+                report.setHalfDayUpdated(report.getHalfDayUpdated()
+                        + attendanceRepository.countPendingWithoutCheckout(date, lower, upper));
+                continue;
             }
+
+            long[] counts = transactionTemplate.execute(status -> {
+                long[] changed = {
+                        attendanceRepository.insertAbsentees(date, lower, upper),
+                        attendanceRepository.markPendingAsHalfDay(date, lower, upper)
+                };
+                if (changed[0] > 0 || changed[1] > 0) {
+                    attendanceRollupService.refreshRange(date.getYear(), date.getMonthValue(), lower, upper);
+                }
+                return changed;
+            });
+            report.setAbsentInserted(report.getAbsentInserted() + counts[0]);
+            report.setHalfDayUpdated(report.getHalfDayUpdated() + counts[1]);
+            report.setChunks(report.getChunks() + 1);
         }
 
-        System.out.println("✅ Auto attendance update completed for " + today);
+        report.setElapsedMs(System.currentTimeMillis() - start);
+        return report;
     }
 }
@@ -0,0 +1,21 @@
+package com.VentureBiz.VenureBiz_Hr.scheduler;
+
+import com.VentureBiz.VenureBiz_Hr.service.LeaveLedgerService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import java.time.LocalDate;
+
+@Component
+@RequiredArgsConstructor
+public class LeaveAccrualScheduler {
+
+    private final LeaveLedgerService leaveLedgerService;
+
+    // Runs every 1st of month at 00:30 and credits the new month (skipped if already credited)
+    @Scheduled(cron = "${leave.accrual.cron:0 30 0 1 * *}")
+    public void accrueMonthlyLeave() {
+        LocalDate today = LocalDate.now();
+        leaveLedgerService.accrueMonth(today.getYear(), today.getMonthValue());
+    }
+}
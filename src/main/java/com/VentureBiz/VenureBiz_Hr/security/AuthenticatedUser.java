@@ -0,0 +1,16 @@
+package com.VentureBiz.VenureBiz_Hr.security;
+
+import org.springframework.security.core.AuthenticatedPrincipal;
+
+/**
+ * Principal of an authenticated request, built from signed JWT claims.
+ * getName() is the email, so Authentication.getName() keeps returning the email.
+ */
+public record AuthenticatedUser(Long id, String email, String role, String employeeCode)
+        implements AuthenticatedPrincipal {
+
+    @Override
+    public String getName() {
+        return email;
+    }
+}
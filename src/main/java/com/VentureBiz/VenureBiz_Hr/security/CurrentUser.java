@@ -0,0 +1,14 @@
+package com.VentureBiz.VenureBiz_Hr.security;
+
+import java.lang.annotation.*;
+
+/**
+ * Injects the authenticated caller into a controller parameter, resolved from the JWT principal.
+ * Supported types: {@link AuthenticatedUser}, {@code Long} (user id) and
+ * {@link com.VentureBiz.VenureBiz_Hr.model.User} (an id-only reference; no SELECT is issued).
+ */
+@Target(ElementType.PARAMETER)
+@Retention(RetentionPolicy.RUNTIME)
+@Documented
+public @interface CurrentUser {
+}
@@ -0,0 +1,45 @@
+package com.VentureBiz.VenureBiz_Hr.security;
+
+import com.VentureBiz.VenureBiz_Hr.model.User;
+import com.VentureBiz.VenureBiz_Hr.repository.UserRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.core.MethodParameter;
+import org.springframework.security.authentication.AuthenticationCredentialsNotFoundException;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+import org.springframework.web.bind.support.WebDataBinderFactory;
+import org.springframework.web.context.request.NativeWebRequest;
+import org.springframework.web.method.support.HandlerMethodArgumentResolver;
+import org.springframework.web.method.support.ModelAndViewContainer;
+
+@Component
+@RequiredArgsConstructor
+public class CurrentUserArgumentResolver implements HandlerMethodArgumentResolver {
+
+    private final UserRepository userRepository;
+
+    @Override
+    public boolean supportsParameter(MethodParameter parameter) {
+        return parameter.hasParameterAnnotation(CurrentUser.class);
+    }
+
+    @Override
+    public Object resolveArgument(MethodParameter parameter,
+                                  ModelAndViewContainer mavContainer,
+                                  NativeWebRequest webRequest,
+                                  WebDataBinderFactory binderFactory) {
+        Authentication auth = SecurityContextHolder.getContext().getAuthentication();
+        if (auth == null || !(auth.getPrincipal() instanceof AuthenticatedUser me)) {
+            throw new AuthenticationCredentialsNotFoundException("No authenticated user");
+        }
+
+        Class<?> type = parameter.getParameterType();
+        if (type == AuthenticatedUser.class) return me;
+        if (type == Long.class || type == long.class) return me.id();
+        // Lazy reference: only the id is known, the row is loaded only if a getter other than getId() is called
+        if (type == User.class) return userRepository.getReferenceById(me.id());
+
+        throw new IllegalStateException("@CurrentUser is not supported on " + type.getName());
+    }
+}
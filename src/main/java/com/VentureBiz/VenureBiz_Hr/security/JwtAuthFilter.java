@@ -1,11 +1,12 @@
 package com.VentureBiz.VenureBiz_Hr.security;
 
 import com.VentureBiz.VenureBiz_Hr.model.User;
+import com.VentureBiz.VenureBiz_Hr.repository.UserRepository;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.context.SecurityContextHolder;
-import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.web.authentication.WebAuthenticationDetailsSource;
 import org.springframework.stereotype.Component;
 import org.springframework.web.filter.OncePerRequestFilter;
@@ -22,7 +23,13 @@ import java.util.List;
 public class JwtAuthFilter extends OncePerRequestFilter {
 
     private final JwtService jwtService;
-    private final CustomUserDetailsService userDetailsService;
+    private final UserStatusCache userStatusCache;
+    private final UserRepository userRepository;
+
+    // claims   -> principal built from signed claims, account status from UserStatusCache (no SQL when warm)
+    // database -> principal loaded from the users table on every request
+    @Value("${auth.mode:claims}")
+    private String authMode;
 
     @Override
     protected void doFilterInternal(HttpServletRequest request,
@@ -44,22 +51,21 @@ public class JwtAuthFilter extends OncePerRequestFilter {
         }
 
         final String jwt = authHeader.substring(7);
-        final String email = jwtService.extractUsername(jwt); // ✅ use email
+        // ✅ Signature and expiry are verified exactly once; subject (email) and role come from the result
+        final ParsedToken token = jwtService.verify(jwt).orElse(null);
 
         // Check if user is not already authenticated
-        if (email != null && SecurityContextHolder.getContext().getAuthentication() == null) {
-            UserDetails userDetails = userDetailsService.loadUserByUsername(email);
-
-            if (jwtService.isTokenValid(jwt, userDetails.getUsername())) {
-                // Extract role from JWT
-                String role = jwtService.extractRole(jwt); // e.g., ROLE_HR or ROLE_EMPLOYEE
+        if (token != null && token.subject() != null && token.role() != null
+                && SecurityContextHolder.getContext().getAuthentication() == null) {
+            AuthenticatedUser principal = resolvePrincipal(token);
 
-                // Create authentication token with role from JWT
+            if (principal != null) {
+                // Create authentication token with role from JWT (e.g., ROLE_HR or ROLE_EMPLOYEE)
                 UsernamePasswordAuthenticationToken authToken =
                         new UsernamePasswordAuthenticationToken(
-                                userDetails,
+                                principal,
                                 null,
-                                List.of(new SimpleGrantedAuthority(role))
+                                List.of(new SimpleGrantedAuthority(token.role()))
                         );
 
                 authToken.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
@@ -69,4 +75,17 @@ public class JwtAuthFilter extends OncePerRequestFilter {
 
         filterChain.doFilter(request, response);
     }
+
+    // Returns null when the account no longer exists or has been deactivated (also used for STOMP CONNECT)
+    AuthenticatedUser resolvePrincipal(ParsedToken token) {
+        // Tokens issued before the uid claim existed fall back to the database
+        if ("claims".equalsIgnoreCase(authMode) && token.userId() != null) {
+            if (!userStatusCache.isActive(token.subject())) return null;
+            return new AuthenticatedUser(token.userId(), token.subject(), token.role(), token.employeeCode());
+        }
+
+        User user = userRepository.findByEmail(token.subject()).orElse(null);
+        if (user == null || !userStatusCache.isActive(user.getEmail())) return null;
+        return new AuthenticatedUser(user.getId(), user.getEmail(), token.role(), token.employeeCode());
+    }
 }
@@ -1,13 +1,19 @@
 package com.VentureBiz.VenureBiz_Hr.security;
 
 import io.jsonwebtoken.*;
+import com.VentureBiz.VenureBiz_Hr.model.User;
 import io.jsonwebtoken.security.Keys;
+import jakarta.annotation.PostConstruct;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
+import javax.crypto.SecretKey;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
 import java.util.Date;
+import java.util.HashMap;
 import java.util.Map;
-import java.util.function.Function;
+import java.util.Optional;
 
 @Service
 public class JwtService {
@@ -18,47 +24,77 @@ public class JwtService {
     @Value("${jwt.expiration}")
     private long jwtExpirationMs;
 
+    @Value("${jwt.cache.max-entries:10000}")
+    private int cacheMaxEntries;
+
+    // Built once at startup; both are immutable and thread-safe
+    private SecretKey signingKey;
+    private JwtParser parser;
+    private VerifiedTokenCache cache;
+
+    @PostConstruct
+    void init() {
+        signingKey = Keys.hmacShaKeyFor(secretKey.getBytes(StandardCharsets.UTF_8));
+        parser = Jwts.parserBuilder().setSigningKey(signingKey).build();
+        cache = new VerifiedTokenCache(cacheMaxEntries);
+    }
+
+    // 🔹 Verify signature + expiry once and return the parsed token (empty if invalid or expired)
+    public Optional<ParsedToken> verify(String token) {
+        if (token == null || token.isBlank()) return Optional.empty();
+
+        Instant now = Instant.now();
+        ParsedToken cached = cache.get(token, now);
+        if (cached != null) return Optional.of(cached);
+
+        try {
+            Claims claims = parser.parseClaimsJws(token).getBody();
+            ParsedToken parsed = new ParsedToken(
+                    claims.getSubject(),
+                    claims.get("role", String.class),
+                    claims.get("uid", Long.class),
+                    claims.get("employeeCode", String.class),
+                    toInstant(claims.getIssuedAt()),
+                    toInstant(claims.getExpiration()));
+            cache.put(token, parsed, now);
+            return Optional.of(parsed);
+        } catch (JwtException | IllegalArgumentException e) {
+            return Optional.empty();
+        }
+    }
+
     // 🔹 Extract username (subject)
     public String extractUsername(String token) {
-        return extractClaim(token, Claims::getSubject);
+        return verify(token).map(ParsedToken::subject).orElse(null);
     }
 
     // 🔹 Extract role from claims
     public String extractRole(String token) {
-        return extractAllClaims(token).get("role", String.class);
+        return verify(token).map(ParsedToken::role).orElse(null);
     }
 
-    // 🔹 Extract generic claims
-    public <T> T extractClaim(String token, Function<Claims, T> claimsResolver) {
-        final Claims claims = extractAllClaims(token);
-        return claimsResolver.apply(claims);
-    }
+    // 🔹 Generate token with email + role + user id (+ employee code) so requests authenticate without the DB
+    public String generateToken(User user, String employeeCode) {
+        Map<String, Object> claims = new HashMap<>();
+        claims.put("role", "ROLE_" + user.getRole().name()); // include user role
+        claims.put("uid", user.getId());
+        if (employeeCode != null) claims.put("employeeCode", employeeCode);
 
-    // 🔹 Generate token with username + role
-    public String generateToken(String username, String role) {
         return Jwts.builder()
-                .setClaims(Map.of("role", role)) // include user role
-                .setSubject(username)
+                .setClaims(claims)
+                .setSubject(user.getEmail())
                 .setIssuedAt(new Date())
                 .setExpiration(new Date(System.currentTimeMillis() + jwtExpirationMs))
-                .signWith(Keys.hmacShaKeyFor(secretKey.getBytes()), SignatureAlgorithm.HS256)
+                .signWith(signingKey, SignatureAlgorithm.HS256)
                 .compact();
     }
 
     // 🔹 Check token validity
     public boolean isTokenValid(String token, String username) {
-        return username.equals(extractUsername(token)) && !isTokenExpired(token);
-    }
-
-    private boolean isTokenExpired(String token) {
-        return extractClaim(token, Claims::getExpiration).before(new Date());
+        return verify(token).map(t -> username.equals(t.subject())).orElse(false);
     }
 
-    private Claims extractAllClaims(String token) {
-        return Jwts.parserBuilder()
-                .setSigningKey(Keys.hmacShaKeyFor(secretKey.getBytes()))
-                .build()
-                .parseClaimsJws(token)
-                .getBody();
+    private static Instant toInstant(Date date) {
+        return date == null ? null : date.toInstant();
     }
 }
@@ -0,0 +1,15 @@
+package com.VentureBiz.VenureBiz_Hr.security;
+
+import java.time.Instant;
+
+/**
+ * Immutable result of verifying a JWT once: signature checked, expiry checked, claims extracted.
+ * userId and employeeCode are null for tokens issued before they were added to the claims.
+ */
+public record ParsedToken(String subject, String role, Long userId, String employeeCode,
+                          Instant issuedAt, Instant expiresAt) {
+
+    public boolean isExpired(Instant now) {
+        return expiresAt != null && !now.isBefore(expiresAt);
+    }
+}
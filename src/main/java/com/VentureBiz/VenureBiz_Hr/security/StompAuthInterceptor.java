@@ -0,0 +1,62 @@
+package com.VentureBiz.VenureBiz_Hr.security;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.MessageChannel;
+import org.springframework.messaging.simp.stomp.StompCommand;
+import org.springframework.messaging.simp.stomp.StompHeaderAccessor;
+import org.springframework.messaging.support.ChannelInterceptor;
+import org.springframework.messaging.support.MessageHeaderAccessor;
+import org.springframework.security.access.AccessDeniedException;
+import org.springframework.security.authentication.BadCredentialsException;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * Authenticates STOMP sessions. Browsers cannot set headers on the WebSocket upgrade, so the
+ * JWT travels in the CONNECT frame's Authorization header ("Bearer ...") and is verified the
+ * same way as on HTTP requests; the session keeps that principal. Only HR may subscribe to the
+ * attendance feed or its snapshot.
+ */
+@Component
+@RequiredArgsConstructor
+public class StompAuthInterceptor implements ChannelInterceptor {
+
+    private static final String HR = "ROLE_HR";
+
+    private final JwtService jwtService;
+    private final JwtAuthFilter jwtAuthFilter;
+
+    @Override
+    public Message<?> preSend(Message<?> message, MessageChannel channel) {
+        StompHeaderAccessor accessor = MessageHeaderAccessor.getAccessor(message, StompHeaderAccessor.class);
+        if (accessor == null || accessor.getCommand() == null) return message;
+
+        if (accessor.getCommand() == StompCommand.CONNECT) {
+            accessor.setUser(authenticate(accessor.getFirstNativeHeader("Authorization")));
+        } else if (accessor.getCommand() == StompCommand.SUBSCRIBE || accessor.getCommand() == StompCommand.SEND) {
+            if (!(accessor.getUser() instanceof Authentication auth)
+                    || auth.getAuthorities().stream().noneMatch(a -> HR.equals(a.getAuthority()))) {
+                throw new AccessDeniedException("HR role required for " + accessor.getDestination());
+            }
+        }
+        return message;
+    }
+
+    private Authentication authenticate(String header) {
+        if (header == null || !header.startsWith("Bearer "))
+            throw new BadCredentialsException("Missing bearer token in CONNECT");
+
+        ParsedToken token = jwtService.verify(header.substring(7)).orElse(null);
+        if (token == null || token.subject() == null || token.role() == null)
+            throw new BadCredentialsException("Invalid or expired token");
+
+        AuthenticatedUser principal = jwtAuthFilter.resolvePrincipal(token);
+        if (principal == null) throw new BadCredentialsException("Account is not active");
+        return new UsernamePasswordAuthenticationToken(principal, null, List.of(new SimpleGrantedAuthority(token.role())));
+    }
+}
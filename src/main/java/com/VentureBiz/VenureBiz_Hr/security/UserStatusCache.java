@@ -0,0 +1,69 @@
+package com.VentureBiz.VenureBiz_Hr.security;
+
+import com.VentureBiz.VenureBiz_Hr.dto.UserAccountStatus;
+import com.VentureBiz.VenureBiz_Hr.model.Role;
+import com.VentureBiz.VenureBiz_Hr.model.Status;
+import com.VentureBiz.VenureBiz_Hr.repository.UserRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Bounded, TTL-evicted cache of "may this account still sign in" keyed by email.
+ * Steady-state requests never reach the database; HrController invalidates an entry
+ * when it changes or removes the employee so a deactivation takes effect immediately.
+ */
+@Component
+@RequiredArgsConstructor
+public class UserStatusCache {
+
+    private record Entry(boolean active, long loadedAtNanos) { }
+
+    private final UserRepository userRepository;
+    private final ConcurrentHashMap<String, Entry> entries = new ConcurrentHashMap<>();
+
+    @Value("${auth.user-status.ttl-seconds:60}")
+    private long ttlSeconds;
+
+    @Value("${auth.user-status.max-entries:50000}")
+    private int maxEntries;
+
+    public boolean isActive(String email) {
+        long now = System.nanoTime();
+        Entry entry = entries.get(email);
+        if (entry != null && now - entry.loadedAtNanos() < ttlSeconds * 1_000_000_000L) {
+            return entry.active();
+        }
+
+        boolean active = load(email);
+        if (entries.size() >= maxEntries) evictExpired(now);
+        if (entries.size() < maxEntries) entries.put(email, new Entry(active, now));
+        return active;
+    }
+
+    public void invalidate(String email) {
+        if (email != null) entries.remove(email);
+    }
+
+    public void invalidateAll() {
+        entries.clear();
+    }
+
+    private boolean load(String email) {
+        List<UserAccountStatus> rows = userRepository.findAccountStatus(email);
+        if (rows.isEmpty()) return false;
+
+        UserAccountStatus row = rows.get(0);
+        // HR accounts may have no employee record; employees must be ACTIVE (same rule as login)
+        if (row.getStatus() == null) return Role.HR.name().equals(row.getRole());
+        return Status.ACTIVE.name().equals(row.getStatus());
+    }
+
+    private void evictExpired(long now) {
+        long ttlNanos = ttlSeconds * 1_000_000_000L;
+        entries.values().removeIf(e -> now - e.loadedAtNanos() >= ttlNanos);
+    }
+}
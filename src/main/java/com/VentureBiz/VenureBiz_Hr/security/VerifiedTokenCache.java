@@ -0,0 +1,57 @@
+package com.VentureBiz.VenureBiz_Hr.security;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Instant;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Bounded cache of already-verified tokens keyed by the SHA-256 of the raw token,
+ * so the token itself is never kept in memory. Entries die with the token's expiry.
+ */
+class VerifiedTokenCache {
+
+    private static final ThreadLocal<MessageDigest> SHA_256 = ThreadLocal.withInitial(() -> {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    });
+
+    private final ConcurrentHashMap<ByteBuffer, ParsedToken> entries = new ConcurrentHashMap<>();
+    private final int maxEntries;
+
+    VerifiedTokenCache(int maxEntries) {
+        this.maxEntries = maxEntries;
+    }
+
+    ParsedToken get(String token, Instant now) {
+        if (maxEntries <= 0) return null;
+        ByteBuffer key = keyOf(token);
+        ParsedToken parsed = entries.get(key);
+        if (parsed != null && parsed.isExpired(now)) {
+            entries.remove(key, parsed);
+            return null;
+        }
+        return parsed;
+    }
+
+    void put(String token, ParsedToken parsed, Instant now) {
+        if (maxEntries <= 0) return;
+        if (entries.size() >= maxEntries) {
+            entries.values().removeIf(t -> t.isExpired(now));
+            // Still full of live tokens: start over rather than track recency on the hot path
+            if (entries.size() >= maxEntries) entries.clear();
+        }
+        entries.put(keyOf(token), parsed);
+    }
+
+    private static ByteBuffer keyOf(String token) {
+        MessageDigest digest = SHA_256.get();
+        digest.reset();
+        return ByteBuffer.wrap(digest.digest(token.getBytes(StandardCharsets.US_ASCII)));
+    }
+}
@@ -0,0 +1,170 @@
+package com.VentureBiz.VenureBiz_Hr.service;
+
+import com.VentureBiz.VenureBiz_Hr.dto.DepartmentAnalytics;
+import com.VentureBiz.VenureBiz_Hr.dto.HeadcountPoint;
+import com.VentureBiz.VenureBiz_Hr.dto.JoinCount;
+import com.VentureBiz.VenureBiz_Hr.model.AnalyticsSnapshot;
+import com.VentureBiz.VenureBiz_Hr.repository.AnalyticsSnapshotRepository;
+import com.VentureBiz.VenureBiz_Hr.repository.EmployeeRepository;
+import com.VentureBiz.VenureBiz_Hr.repository.SalaryRepository;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Department cost, pay-by-role and headcount analytics for a month, aggregated in the
+ * database. Open months are cached in memory until a salary or employee change calls
+ * {@link #invalidate}; a closed month (in the past, every salary PAID) is computed once,
+ * stored in analytics_snapshots and served from there from then on.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class AnalyticsService {
+
+    private static final int TREND_MONTHS = 12;
+
+    private final SalaryRepository salaryRepository;
+    private final EmployeeRepository employeeRepository;
+    private final AnalyticsSnapshotRepository snapshotRepository;
+    private final ObjectMapper objectMapper;
+
+    private final Map<YearMonth, DepartmentAnalytics> cache = new ConcurrentHashMap<>();
+    // Bumped on every invalidation so a computation that raced with a change is not cached
+    private final AtomicLong generation = new AtomicLong();
+
+    public DepartmentAnalytics month(int year, int month) {
+        YearMonth period = period(year, month);
+        DepartmentAnalytics cached = cache.get(period);
+        if (cached != null) return cached;
+
+        // ✅ Closed months: immutable snapshot
+        DepartmentAnalytics snapshot = snapshotRepository.findByYearAndMonth(year, month).map(this::read).orElse(null);
+        if (snapshot != null) {
+            cache.put(period, snapshot);
+            return snapshot;
+        }
+
+        long before = generation.get();
+        DepartmentAnalytics computed = compute(period);
+        if (isClosed(period)) {
+            computed = store(computed);
+        }
+        if (generation.get() == before) cache.put(period, computed);
+        return computed;
+    }
+
+    // Recompute a closed month's snapshot (e.g. after a correction to a paid salary)
+    @Transactional
+    public DepartmentAnalytics rebuildSnapshot(int year, int month) {
+        YearMonth period = period(year, month);
+        if (!isClosed(period))
+            throw new ResponseStatusException(HttpStatus.CONFLICT, "Month " + period + " is not closed yet");
+        snapshotRepository.deleteMonth(year, month);
+        snapshotRepository.flush();
+        cache.remove(period);
+        return month(year, month);
+    }
+
+    // A salary of this month changed
+    public void invalidate(int year, int month) {
+        generation.incrementAndGet();
+        YearMonth period = YearMonth.of(year, month);
+        DepartmentAnalytics cached = cache.get(period);
+        if (cached != null && !cached.isSnapshot()) cache.remove(period);
+    }
+
+    // Employee data changed (department, role, joining date): every open month may be affected
+    public void invalidateAll() {
+        generation.incrementAndGet();
+        cache.values().removeIf(a -> !a.isSnapshot());
+    }
+
+    private DepartmentAnalytics compute(YearMonth period) {
+        long start = System.currentTimeMillis();
+        DepartmentAnalytics analytics = DepartmentAnalytics.builder()
+                .year(period.getYear())
+                .month(period.getMonthValue())
+                .snapshot(false)
+                .computedAt(LocalDateTime.now())
+                .costByDepartment(salaryRepository.costByDepartment(period.getMonthValue(), period.getYear()))
+                .payByRole(salaryRepository.payByRole(period.getMonthValue(), period.getYear()))
+                .headcountTrend(headcountTrend(period))
+                .build();
+        log.info("Analytics computed for {} in {} ms", period, System.currentTimeMillis() - start);
+        return analytics;
+    }
+
+    // Joiners per month from one GROUP BY, accumulated into headcount at each month end
+    private List<HeadcountPoint> headcountTrend(YearMonth period) {
+        Map<YearMonth, Long> joins = new HashMap<>();
+        long before = 0;
+        YearMonth first = period.minusMonths(TREND_MONTHS - 1);
+        for (JoinCount row : employeeRepository.countJoinsByMonth(period.plusMonths(1).atDay(1))) {
+            YearMonth joined = YearMonth.of(row.getYear(), row.getMonth());
+            if (joined.isBefore(first)) before += row.getJoined();
+            else joins.put(joined, row.getJoined());
+        }
+
+        List<HeadcountPoint> trend = new ArrayList<>(TREND_MONTHS);
+        long headcount = before;
+        for (YearMonth m = first; !m.isAfter(period); m = m.plusMonths(1)) {
+            long joined = joins.getOrDefault(m, 0L);
+            headcount += joined;
+            trend.add(new HeadcountPoint(m.getYear(), m.getMonthValue(), joined, headcount));
+        }
+        return trend;
+    }
+
+    private boolean isClosed(YearMonth period) {
+        return period.isBefore(YearMonth.now())
+                && salaryRepository.isMonthFullyPaid(period.getMonthValue(), period.getYear());
+    }
+
+    private DepartmentAnalytics store(DepartmentAnalytics computed) {
+        computed.setSnapshot(true);
+        try {
+            snapshotRepository.save(AnalyticsSnapshot.builder()
+                    .year(computed.getYear())
+                    .month(computed.getMonth())
+                    .payload(objectMapper.writeValueAsString(computed))
+                    .computedAt(computed.getComputedAt())
+                    .build());
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Could not serialize analytics snapshot", e);
+        } catch (DataIntegrityViolationException e) {
+            // Another request stored the same month first; its snapshot wins
+            return snapshotRepository.findByYearAndMonth(computed.getYear(), computed.getMonth())
+                    .map(this::read).orElse(computed);
+        }
+        return computed;
+    }
+
+    private DepartmentAnalytics read(AnalyticsSnapshot snapshot) {
+        try {
+            return objectMapper.readValue(snapshot.getPayload(), DepartmentAnalytics.class);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Corrupt analytics snapshot for " + snapshot.getYear() + "-" + snapshot.getMonth(), e);
+        }
+    }
+
+    private static YearMonth period(int year, int month) {
+        if (month < 1 || month > 12) throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Invalid month: " + month);
+        return YearMonth.of(year, month);
+    }
+}
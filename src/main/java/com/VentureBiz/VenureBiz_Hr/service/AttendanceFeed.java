@@ -0,0 +1,117 @@
+package com.VentureBiz.VenureBiz_Hr.service;
+
+import com.VentureBiz.VenureBiz_Hr.dto.AttendanceDelta;
+import com.VentureBiz.VenureBiz_Hr.dto.AttendanceEvent;
+import com.VentureBiz.VenureBiz_Hr.dto.AttendanceSnapshot;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Live attendance feed for the HR dashboard (STOMP topic {@value #TOPIC}). Writers publish
+ * the new state of a user's day (after commit when a transaction is active); events wait in
+ * a map keyed by user and day, so repeated changes between ticks collapse into the latest
+ * one. Every tick drains the map into batches of at most dashboard.feed.max-batch events.
+ * Each event is a full state, so applying one twice is harmless and a client can merge a
+ * snapshot with deltas of a higher seq. Slow sessions are cut off by the transport's
+ * per-session send buffer (see WebSocketConfig), never by this class.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class AttendanceFeed {
+
+    public static final String TOPIC = "/topic/attendance";
+
+    private record Key(long userId, LocalDate date) { }
+
+    private final SimpMessagingTemplate messagingTemplate;
+    private final PresenceBoard presenceBoard;
+
+    @Value("${dashboard.feed.max-batch:200}")
+    private int maxBatch;
+
+    private final Map<Key, AttendanceEvent> pending = new ConcurrentHashMap<>();
+    // Guarded by this; the snapshot reads it under the same lock so seq and board agree
+    private long seq;
+
+    public void checkIn(Long userId, LocalDate date, LocalTime checkIn) {
+        publish(new AttendanceEvent(AttendanceEvent.Type.CHECK_IN, userId, date, checkIn, null, "PENDING"));
+    }
+
+    public void checkOut(Long userId, LocalDate date, LocalTime checkIn, LocalTime checkOut, String status) {
+        publish(new AttendanceEvent(AttendanceEvent.Type.CHECK_OUT, userId, date, checkIn, checkOut, status));
+    }
+
+    public void edited(Long userId, LocalDate date, LocalTime checkIn, LocalTime checkOut, String status) {
+        publish(new AttendanceEvent(AttendanceEvent.Type.EDIT, userId, date, checkIn, checkOut, status));
+    }
+
+    public void deleted(Long userId, LocalDate date) {
+        publish(new AttendanceEvent(AttendanceEvent.Type.DELETE, userId, date, null, null, null));
+    }
+
+    // Sent once to a new subscriber: today's board and the seq it corresponds to
+    public synchronized AttendanceSnapshot snapshot() {
+        LocalDate today = LocalDate.now();
+        List<AttendanceEvent> entries = new ArrayList<>();
+        presenceBoard.entries().forEach((userId, p) -> entries.add(p.checkOut() == null
+                ? new AttendanceEvent(AttendanceEvent.Type.CHECK_IN, userId, today, p.checkIn(), null, "PENDING")
+                : new AttendanceEvent(AttendanceEvent.Type.CHECK_OUT, userId, today, p.checkIn(), p.checkOut(),
+                AttendanceRules.determineFinalStatus(p.checkIn(), p.checkOut()))));
+        entries.sort(Comparator.comparing(AttendanceEvent::getUserId));
+        return new AttendanceSnapshot(seq, entries, presenceBoard.counts());
+    }
+
+    @Scheduled(fixedDelayString = "${dashboard.feed.tick-ms:500}")
+    public synchronized void flush() {
+        if (pending.isEmpty()) return;
+
+        List<AttendanceEvent> drained = new ArrayList<>(pending.size());
+        for (Key key : List.copyOf(pending.keySet())) {
+            AttendanceEvent event = pending.remove(key);
+            if (event != null) drained.add(event);
+        }
+
+        int step = Math.max(1, maxBatch);
+        for (int i = 0; i < drained.size(); i += step) {
+            List<AttendanceEvent> batch = drained.subList(i, Math.min(i + step, drained.size()));
+            boolean last = i + step >= drained.size();
+            try {
+                messagingTemplate.convertAndSend(TOPIC, new AttendanceDelta(++seq, List.copyOf(batch),
+                        last ? presenceBoard.counts() : null));
+            } catch (RuntimeException e) {
+                // The dashboard recovers from a gap by re-subscribing; writers never see this
+                log.warn("Live attendance batch {} could not be sent: {}", seq, e.getMessage());
+            }
+        }
+    }
+
+    private void publish(AttendanceEvent event) {
+        if (event.getUserId() == null || event.getDate() == null) return;
+        Runnable enqueue = () -> pending.put(new Key(event.getUserId(), event.getDate()), event);
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            enqueue.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                enqueue.run();
+            }
+        });
+    }
+}
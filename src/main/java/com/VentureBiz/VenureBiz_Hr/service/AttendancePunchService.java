@@ -0,0 +1,122 @@
+package com.VentureBiz.VenureBiz_Hr.service;
+
+import com.VentureBiz.VenureBiz_Hr.model.Attendance;
+import com.VentureBiz.VenureBiz_Hr.model.User;
+import com.VentureBiz.VenureBiz_Hr.repository.AttendanceRepository;
+import com.VentureBiz.VenureBiz_Hr.service.punch.Punch;
+import com.VentureBiz.VenureBiz_Hr.service.punch.WriteBehindPunchWriter;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+
+/**
+ * Employee check-in/check-out. The presence board answers duplicates without SQL; accepted
+ * punches are either written in their own transaction or, with write-behind enabled, handed
+ * to {@link WriteBehindPunchWriter} and acknowledged without touching the database.
+ */
+@Service
+@RequiredArgsConstructor
+public class AttendancePunchService {
+
+    private final AttendanceRepository attendanceRepository;
+    private final AttendanceRollupService attendanceRollupService;
+    private final PresenceBoard presenceBoard;
+    private final WriteBehindPunchWriter writeBehindPunchWriter;
+    private final TransactionTemplate transactionTemplate;
+    private final WorkingDayCalendar workingDayCalendar;
+    private final AttendanceFeed attendanceFeed;
+
+    public String checkIn(User user) {
+        LocalDate today = LocalDate.now();
+        if (!workingDayCalendar.isWorkingDay(user.getId(), today))
+            return "You cannot check in on weekends or holidays!";
+
+        // O(1) answer from the presence board, no SQL for repeat clicks
+        LocalTime now = LocalTime.now();
+        if (!presenceBoard.tryCheckIn(user.getId(), today, now)) return "Already checked in today!";
+
+        if (writeBehindPunchWriter.isEnabled()) {
+            try {
+                writeBehindPunchWriter.submit(new Punch(Punch.Type.IN, user.getId(), today, now, null));
+            } catch (RuntimeException e) {
+                presenceBoard.forget(user.getId(), today);
+                throw e;
+            }
+            attendanceFeed.checkIn(user.getId(), today, now);
+            return "Checked in successfully at " + now;
+        }
+
+        boolean inserted = Boolean.TRUE.equals(transactionTemplate.execute(status -> {
+            restoreOnRollback(user.getId(), today, null);
+            // Unique (user_id, date) makes the insert idempotent under concurrency
+            if (attendanceRepository.insertCheckIn(user.getId(), today, now) == 0) return false;
+            attendanceRollupService.onChange(user.getId(), today, null, "PENDING");
+            return true;
+        }));
+        if (!inserted) {
+            presenceBoard.forget(user.getId(), today);
+            return "Already checked in today!";
+        }
+
+        attendanceFeed.checkIn(user.getId(), today, now);
+        return "Checked in successfully at " + now;
+    }
+
+    public String checkOut(User user) {
+        LocalDate today = LocalDate.now();
+        PresenceBoard.Presence presence = presenceBoard.get(user.getId(), today);
+        if (presence == null) throw new RuntimeException("No check-in record found!");
+        if (presence.checkOut() != null) return "Already checked out!";
+
+        if (writeBehindPunchWriter.isEnabled()) {
+            LocalTime checkOut = LocalTime.now();
+            String status = AttendanceRules.determineFinalStatus(presence.checkIn(), checkOut);
+            presenceBoard.put(user.getId(), today, presence.checkIn(), checkOut);
+            try {
+                writeBehindPunchWriter.submit(new Punch(Punch.Type.OUT, user.getId(), today, checkOut, status));
+            } catch (RuntimeException e) {
+                presenceBoard.put(user.getId(), today, presence.checkIn(), null);
+                throw e;
+            }
+            attendanceFeed.checkOut(user.getId(), today, presence.checkIn(), checkOut, status);
+            return "Checked out at " + checkOut + " (" + status + ")";
+        }
+
+        return transactionTemplate.execute(txStatus -> {
+            Attendance attendance = attendanceRepository.findByUserAndDate(user, today)
+                    .orElseThrow(() -> new RuntimeException("No check-in record found!"));
+
+            if (attendance.getCheckOutTime() != null) return "Already checked out!";
+
+            String previousStatus = attendance.getStatus();
+            LocalTime checkIn = attendance.getCheckInTime();
+            LocalTime checkOut = LocalTime.now();
+            attendance.setCheckOutTime(checkOut);
+            attendance.setStatus(AttendanceRules.determineFinalStatus(checkIn, checkOut));
+            attendanceRepository.save(attendance);
+            attendanceRollupService.onChange(user.getId(), today, previousStatus, attendance.getStatus());
+            presenceBoard.put(user.getId(), today, checkIn, checkOut);
+            restoreOnRollback(user.getId(), today, presence);
+            attendanceFeed.checkOut(user.getId(), today, checkIn, checkOut, attendance.getStatus());
+
+            return "Checked out at " + checkOut + " (" + attendance.getStatus() + ")";
+        });
+    }
+
+    // Put the board entry back to its previous state if the transaction does not commit
+    private void restoreOnRollback(Long userId, LocalDate date, PresenceBoard.Presence previous) {
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                if (status == STATUS_COMMITTED) return;
+                if (previous == null) presenceBoard.forget(userId, date);
+                else presenceBoard.put(userId, date, previous.checkIn(), previous.checkOut());
+            }
+        });
+    }
+}
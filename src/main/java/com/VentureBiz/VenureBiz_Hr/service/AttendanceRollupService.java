@@ -0,0 +1,154 @@
+package com.VentureBiz.VenureBiz_Hr.service;
+
+import com.VentureBiz.VenureBiz_Hr.dto.AttendanceStatusCount;
+import com.VentureBiz.VenureBiz_Hr.dto.MonthlyAttendanceCounts;
+import com.VentureBiz.VenureBiz_Hr.dto.RollupDrift;
+import com.VentureBiz.VenureBiz_Hr.repository.AttendanceRepository;
+import com.VentureBiz.VenureBiz_Hr.repository.AttendanceRollupRepository;
+import com.VentureBiz.VenureBiz_Hr.repository.UserRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.util.*;
+
+/**
+ * Maintains attendance_monthly_rollup. Every change to an attendance row calls {@link #onChange}
+ * inside the same transaction; {@link #rebuildMonth} recomputes a month from raw rows and
+ * {@link #checkConsistency} reports any drift between the two.
+ */
+@Service
+@RequiredArgsConstructor
+public class AttendanceRollupService {
+
+    private final AttendanceRollupRepository rollupRepository;
+    private final AttendanceRepository attendanceRepository;
+    private final UserRepository userRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final WorkingDayCalendar workingDayCalendar;
+
+    @Value("${attendance.reconcile.chunk-size:1000}")
+    private int chunkSize;
+
+    // One attendance row moving from oldStatus to newStatus (either may be null)
+    public record StatusChange(long userId, LocalDate date, String oldStatus, String newStatus) { }
+
+    // Moves one row's contribution from oldStatus to newStatus (either may be null)
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void onChange(Long userId, LocalDate date, String oldStatus, String newStatus) {
+        if (userId == null || date == null || Objects.equals(oldStatus, newStatus)) return;
+
+        // Summaries only count working days (weekends and the user's holidays are skipped), so the rollup does too
+        if (!workingDayCalendar.isWorkingDay(userId, date)) return;
+
+        int[] delta = new int[AttendanceSummaryService.SUMMARY_STATUSES.size()];
+        int oldIndex = indexOf(oldStatus);
+        int newIndex = indexOf(newStatus);
+        if (oldIndex >= 0) delta[oldIndex]--;
+        if (newIndex >= 0) delta[newIndex]++;
+        if (oldIndex < 0 && newIndex < 0) return;
+
+        rollupRepository.applyDelta(userId, date.getYear(), date.getMonthValue(),
+                delta[0], delta[1], delta[2], delta[3], delta[4], delta[5]);
+    }
+
+    // Batch form of onChange: nets the changes per user and month first, then one upsert each
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void applyChanges(List<StatusChange> changes) {
+        List<String> statuses = AttendanceSummaryService.SUMMARY_STATUSES;
+        Map<List<Object>, int[]> deltas = new LinkedHashMap<>();
+        for (StatusChange change : changes) {
+            if (Objects.equals(change.oldStatus(), change.newStatus())
+                    || !workingDayCalendar.isWorkingDay(change.userId(), change.date())) continue;
+
+            int[] delta = deltas.computeIfAbsent(
+                    List.of(change.userId(), change.date().getYear(), change.date().getMonthValue()),
+                    k -> new int[statuses.size()]);
+            int oldIndex = indexOf(change.oldStatus());
+            int newIndex = indexOf(change.newStatus());
+            if (oldIndex >= 0) delta[oldIndex]--;
+            if (newIndex >= 0) delta[newIndex]++;
+        }
+
+        deltas.forEach((key, delta) -> {
+            if (Arrays.stream(delta).allMatch(d -> d == 0)) return;
+            rollupRepository.applyDelta((Long) key.get(0), (Integer) key.get(1), (Integer) key.get(2),
+                    delta[0], delta[1], delta[2], delta[3], delta[4], delta[5]);
+        });
+    }
+
+    // Counter index of a status; -1 for null (no row) or a status the summaries do not count
+    private static int indexOf(String status) {
+        return status == null ? -1 : AttendanceSummaryService.SUMMARY_STATUSES.indexOf(status);
+    }
+
+    // Recomputes the counters of users in (fromUserId, toUserId] for a month; caller owns the transaction
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void refreshRange(int year, int month, long fromUserId, long toUserId) {
+        LocalDate from = LocalDate.of(year, month, 1);
+        rollupRepository.resetRange(year, month, fromUserId, toUserId);
+        rollupRepository.rebuildRange(year, month, from, from.plusMonths(1), fromUserId, toUserId);
+    }
+
+    // Recomputes every month a user has attendance in, e.g. after their office (and so their holidays) changed
+    public void rebuildUser(long userId) {
+        transactionTemplate.executeWithoutResult(status -> {
+            for (Number period : attendanceRepository.findMonthsOfUser(userId)) {
+                refreshRange(period.intValue() / 12, period.intValue() % 12 + 1, userId - 1, userId);
+            }
+        });
+    }
+
+    // Rebuild command: recomputes a whole month from the attendance table, one chunk per transaction
+    public String rebuildMonth(int year, int month) {
+        long start = System.currentTimeMillis();
+        long maxUserId = userRepository.findMaxId();
+        int step = Math.max(1, chunkSize);
+
+        for (long from = 0; from < maxUserId; from += step) {
+            long lower = from;
+            long upper = Math.min(from + step, maxUserId);
+            transactionTemplate.executeWithoutResult(status -> refreshRange(year, month, lower, upper));
+        }
+
+        return "Attendance rollup rebuilt for " + year + "-" + month
+                + " in " + (System.currentTimeMillis() - start) + " ms";
+    }
+
+    // Compares the rollup with a GROUP BY over the attendance table; an empty list means no drift
+    public List<RollupDrift> checkConsistency(int year, int month) {
+        LocalDate from = LocalDate.of(year, month, 1);
+        List<String> statuses = AttendanceSummaryService.SUMMARY_STATUSES;
+
+        Map<Long, long[]> actual = new HashMap<>();
+        Map<Long, String> emails = new HashMap<>();
+        for (AttendanceStatusCount row : attendanceRepository.countByUserAndStatus(from, from.plusMonths(1), null)) {
+            long[] counts = actual.computeIfAbsent(row.getUserId(), k -> new long[statuses.size()]);
+            emails.put(row.getUserId(), row.getEmail());
+            int index = statuses.indexOf(row.getStatus());
+            if (index >= 0) counts[index] = row.getTotal();
+        }
+
+        List<RollupDrift> drift = new ArrayList<>();
+        for (MonthlyAttendanceCounts row : rollupRepository.findCounts(year, month, null)) {
+            long[] rollup = AttendanceSummaryService.toArray(row);
+            long[] counts = actual.getOrDefault(row.getUserId(), new long[statuses.size()]);
+            for (int i = 0; i < statuses.size(); i++) {
+                if (rollup[i] != counts[i]) {
+                    drift.add(RollupDrift.builder()
+                            .userId(row.getUserId())
+                            .email(emails.getOrDefault(row.getUserId(), row.getEmail()))
+                            .status(statuses.get(i))
+                            .rollupCount(rollup[i])
+                            .actualCount(counts[i])
+                            .build());
+                }
+            }
+        }
+        return drift;
+    }
+}
@@ -0,0 +1,33 @@
+package com.VentureBiz.VenureBiz_Hr.service;
+
+import java.time.LocalTime;
+
+/**
+ * Office time rules shared by check-in/check-out, the presence board and imports.
+ */
+public final class AttendanceRules {
+
+    // --- TIME RULES ---
+    public static final LocalTime CHECKIN_ON_TIME = LocalTime.of(9, 50);
+    public static final LocalTime LATE_LIMIT = LocalTime.of(11, 0);
+    public static final LocalTime HALF_DAY_LIMIT = LocalTime.of(12, 0);
+    public static final LocalTime ABSENT_LIMIT = LocalTime.of(14, 0);
+    public static final LocalTime CHECKOUT_FULL_DAY = LocalTime.of(18, 0);
+
+    private AttendanceRules() {
+    }
+
+    public static String determineFinalStatus(LocalTime checkIn, LocalTime checkOut) {
+        if (checkIn == null) return "ABSENT";
+        if (checkIn.isAfter(ABSENT_LIMIT)) return "ABSENT";
+        if (checkOut.isBefore(CHECKOUT_FULL_DAY)) return "HALF_DAY";
+        if (checkIn.isAfter(HALF_DAY_LIMIT) && checkIn.isBefore(ABSENT_LIMIT)) return "HALF_DAY";
+        if (checkIn.isAfter(CHECKIN_ON_TIME) && checkIn.isBefore(LATE_LIMIT)) return "LATE";
+        if (checkIn.isBefore(CHECKIN_ON_TIME) || checkIn.equals(CHECKIN_ON_TIME)) return "PRESENT";
+        return "PENDING";
+    }
+
+    public static boolean isLate(LocalTime checkIn) {
+        return checkIn != null && checkIn.isAfter(CHECKIN_ON_TIME);
+    }
+}
@@ -0,0 +1,59 @@
+package com.VentureBiz.VenureBiz_Hr.service;
+
+import com.VentureBiz.VenureBiz_Hr.dto.MonthlyAttendanceCounts;
+import com.VentureBiz.VenureBiz_Hr.repository.AttendanceRollupRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+
+import java.util.*;
+
+/**
+ * Monthly attendance summaries read from attendance_monthly_rollup (one primary-key
+ * lookup per user), shared by the employee and HR summary endpoints.
+ */
+@Service
+@RequiredArgsConstructor
+public class AttendanceSummaryService {
+
+    public static final List<String> SUMMARY_STATUSES =
+            List.of("PRESENT", "LATE", "HALF_DAY", "ABSENT", "PENDING", "LEAVE");
+
+    private final AttendanceRollupRepository rollupRepository;
+
+    // email -> (status -> count) for every user
+    public Map<String, Map<String, Long>> summarizeAll(int year, int month) {
+        return summarize(year, month, null);
+    }
+
+    // status -> count for a single user
+    public Map<String, Long> summarizeUser(String email, int year, int month) {
+        Map<String, Map<String, Long>> report = summarize(year, month, email);
+        Map<String, Long> summary = report.get(email);
+        if (summary == null) throw new RuntimeException("User not found: " + email);
+        return summary;
+    }
+
+    private Map<String, Map<String, Long>> summarize(int year, int month, String email) {
+        Map<String, Map<String, Long>> report = new HashMap<>();
+
+        for (MonthlyAttendanceCounts row : rollupRepository.findCounts(year, month, email)) {
+            long[] counts = toArray(row);
+            Map<String, Long> summary = new HashMap<>();
+            for (int i = 0; i < SUMMARY_STATUSES.size(); i++) summary.put(SUMMARY_STATUSES.get(i), counts[i]);
+            report.put(row.getEmail(), summary);
+        }
+        return report;
+    }
+
+    // Counters in SUMMARY_STATUSES order, missing rollup rows read as zero
+    static long[] toArray(MonthlyAttendanceCounts row) {
+        return new long[]{
+                nz(row.getPresent()), nz(row.getLate()), nz(row.getHalfDay()),
+                nz(row.getAbsent()), nz(row.getPending()), nz(row.getOnLeave())
+        };
+    }
+
+    private static long nz(Long value) {
+        return value == null ? 0L : value;
+    }
+}
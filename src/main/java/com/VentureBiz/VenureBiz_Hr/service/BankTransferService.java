@@ -0,0 +1,137 @@
+package com.VentureBiz.VenureBiz_Hr.service;
+
+import com.VentureBiz.VenureBiz_Hr.dto.BankTransferRow;
+import com.VentureBiz.VenureBiz_Hr.repository.SalaryRepository;
+import com.VentureBiz.VenureBiz_Hr.service.bank.BankFileWriter;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Objects;
+import java.util.stream.Stream;
+
+/**
+ * Bulk salary transfer file for a month: payable salaries streamed from a cursor in bank
+ * order, one batch per bank with control totals. Only the salary ids are kept while
+ * streaming. With markPaid, those ids are flipped to PAID in one transaction of chunked
+ * updates before the file trailer is written, so a file that ends with its FT record
+ * always matches what was marked. A failed commit leaves the file without a trailer,
+ * which a bank will reject.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class BankTransferService {
+
+    private final SalaryRepository salaryRepository;
+    private final PlatformTransactionManager transactionManager;
+    private final AnalyticsService analyticsService;
+
+    @Value("${bank-file.company-name:VentureBiz}")
+    private String companyName;
+
+    @Value("${bank-file.mark-batch-size:1000}")
+    private int markBatchSize;
+
+    public ResponseEntity<StreamingResponseBody> transferFile(int month, int year, BankFileWriter.Format format,
+                                                              boolean markPaid, LocalDate paidDate) {
+        String fileName = String.format("salary-transfer-%d-%02d.%s", year, month, format.extension);
+
+        TransactionTemplate readOnly = new TransactionTemplate(transactionManager);
+        readOnly.setReadOnly(true);
+        TransactionTemplate readWrite = new TransactionTemplate(transactionManager);
+
+        StreamingResponseBody body = out -> {
+            long start = System.currentTimeMillis();
+            try (BankFileWriter writer = BankFileWriter.open(format, out)) {
+                writer.fileHeader(companyName, year, month, LocalDate.now().format(DateTimeFormatter.BASIC_ISO_DATE));
+
+                Batches batches = readOnly.execute(status -> writeBatches(month, year, writer));
+
+                if (markPaid && batches.count > 0) {
+                    long[] ids = Arrays.copyOf(batches.ids, (int) batches.count);
+                    readWrite.executeWithoutResult(status -> markPaid(ids, paidDate));
+                    analyticsService.invalidate(year, month);
+                }
+
+                writer.fileTrailer(batches.batch, batches.count, batches.totalMinor);
+                log.info("Bank file {}: {} banks, {} credits, total {} minor units{} in {} ms", fileName,
+                        batches.batch, batches.count, batches.totalMinor, markPaid ? ", marked PAID" : "",
+                        System.currentTimeMillis() - start);
+            }
+        };
+
+        return ResponseEntity.ok()
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"" + fileName + "\"")
+                .contentType(MediaType.parseMediaType(format.contentType))
+                .body(body);
+    }
+
+    // Running state of the stream: current batch, control totals and included salary ids
+    private static final class Batches {
+        int batch;
+        long count;
+        long totalMinor;
+        long[] ids = new long[1024];
+    }
+
+    private Batches writeBatches(int month, int year, BankFileWriter writer) {
+        Batches b = new Batches();
+        String bank = null;
+        long batchCount = 0, batchTotal = 0;
+
+        try (Stream<BankTransferRow> stream = salaryRepository.streamPayable(month, year)) {
+            for (Iterator<BankTransferRow> it = stream.iterator(); it.hasNext(); ) {
+                BankTransferRow r = it.next();
+                if (!Objects.equals(bank, r.getBankName())) {
+                    if (bank != null) writer.batchTrailer(b.batch, batchCount, batchTotal);
+                    bank = r.getBankName();
+                    writer.batchHeader(++b.batch, bank);
+                    batchCount = 0;
+                    batchTotal = 0;
+                }
+
+                long amount = r.getNetPay().movePointRight(2).longValueExact();
+                writer.credit(r.getEmployeeCode(), r.getName(), r.getAccountNumber(), amount);
+
+                if (b.count == b.ids.length) b.ids = Arrays.copyOf(b.ids, b.ids.length * 2);
+                b.ids[(int) b.count++] = r.getId();
+                b.totalMinor += amount;
+                batchCount++;
+                batchTotal += amount;
+            }
+            if (bank != null) writer.batchTrailer(b.batch, batchCount, batchTotal);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return b;
+    }
+
+    // All-or-nothing: a row paid concurrently (count mismatch) rolls every chunk back
+    private void markPaid(long[] ids, LocalDate paidDate) {
+        int step = Math.max(1, markBatchSize);
+        long updated = 0;
+        for (int from = 0; from < ids.length; from += step) {
+            List<Long> chunk = Arrays.stream(ids, from, Math.min(from + step, ids.length)).boxed().toList();
+            updated += salaryRepository.markPaid(chunk, paidDate);
+        }
+        if (updated != ids.length) {
+            throw new IllegalStateException("Only " + updated + " of " + ids.length
+                    + " salaries could be marked PAID; another change paid some of them. Nothing was marked.");
+        }
+    }
+}
@@ -0,0 +1,114 @@
+package com.VentureBiz.VenureBiz_Hr.service;
+
+import com.VentureBiz.VenureBiz_Hr.dto.AttendanceExportRow;
+import com.VentureBiz.VenureBiz_Hr.dto.SalaryExportRow;
+import com.VentureBiz.VenureBiz_Hr.repository.AttendanceRepository;
+import com.VentureBiz.VenureBiz_Hr.repository.SalaryRepository;
+import com.VentureBiz.VenureBiz_Hr.service.export.TabularWriter;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.time.LocalDate;
+import java.util.Iterator;
+import java.util.stream.Stream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Streams monthly attendance and payroll registers from a database cursor straight
+ * into the HTTP response as CSV or XLSX, optionally gzipped.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class ExportService {
+
+    private final AttendanceRepository attendanceRepository;
+    private final SalaryRepository salaryRepository;
+    private final PlatformTransactionManager transactionManager;
+
+    public ResponseEntity<StreamingResponseBody> attendanceRegister(int year, int month,
+                                                                    TabularWriter.Format format, boolean gzip) {
+        LocalDate from = LocalDate.of(year, month, 1);
+        String name = String.format("attendance-%d-%02d", year, month);
+
+        return stream(name, format, gzip, writer -> {
+            writer.header("ID", "Email", "Date", "Check In", "Check Out", "Status", "Reason");
+            long rows = 0;
+            try (Stream<AttendanceExportRow> stream = attendanceRepository.streamRegister(from, from.plusMonths(1))) {
+                for (Iterator<AttendanceExportRow> it = stream.iterator(); it.hasNext(); ) {
+                    AttendanceExportRow r = it.next();
+                    writer.row(r.getId(), r.getEmail(), r.getDate(), r.getCheckInTime(),
+                            r.getCheckOutTime(), r.getStatus(), r.getReason());
+                    rows++;
+                }
+            }
+            return rows;
+        });
+    }
+
+    public ResponseEntity<StreamingResponseBody> payrollRegister(int month, int year,
+                                                                 TabularWriter.Format format, boolean gzip) {
+        String name = String.format("payroll-%d-%02d", year, month);
+
+        return stream(name, format, gzip, writer -> {
+            writer.header("ID", "Employee Code", "Name", "Department", "Month", "Year", "Basic Pay", "HRA",
+                    "Allowances", "Deductions", "Loss of Pay", "Net Pay", "Status", "Paid Date", "Bank", "Account Number");
+            long rows = 0;
+            try (Stream<SalaryExportRow> stream = salaryRepository.streamRegister(month, year)) {
+                for (Iterator<SalaryExportRow> it = stream.iterator(); it.hasNext(); ) {
+                    SalaryExportRow r = it.next();
+                    writer.row(r.getId(), r.getEmployeeCode(), r.getName(), r.getDepartment(), r.getMonth(),
+                            r.getYear(), r.getBasicPay(), r.getHra(), r.getAllowances(), r.getDeductions(),
+                            r.getLopDeduction(), r.getNetPay(), r.getStatus(), r.getPaidDate(), r.getBankName(), r.getAccountNumber());
+                    rows++;
+                }
+            }
+            return rows;
+        });
+    }
+
+    @FunctionalInterface
+    private interface RowSource {
+        long writeTo(TabularWriter writer) throws IOException;
+    }
+
+    private ResponseEntity<StreamingResponseBody> stream(String name, TabularWriter.Format format,
+                                                         boolean gzip, RowSource source) {
+        String fileName = name + "." + format.extension + (gzip ? ".gz" : "");
+        MediaType contentType = MediaType.parseMediaType(gzip ? "application/gzip" : format.contentType);
+
+        // The body runs on an async thread after the controller returns, so it opens its own transaction
+        TransactionTemplate readOnly = new TransactionTemplate(transactionManager);
+        readOnly.setReadOnly(true);
+
+        StreamingResponseBody body = out -> {
+            long start = System.currentTimeMillis();
+            OutputStream target = gzip ? new GZIPOutputStream(out, 64 * 1024) : out;
+            Long rows = readOnly.execute(status -> {
+                try (TabularWriter writer = TabularWriter.open(format, target, name)) {
+                    return source.writeTo(writer);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+            if (gzip) ((GZIPOutputStream) target).finish();
+            target.flush();
+            log.info("Export {} finished: {} rows in {} ms", fileName, rows, System.currentTimeMillis() - start);
+        };
+
+        return ResponseEntity.ok()
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"" + fileName + "\"")
+                .contentType(contentType)
+                .body(body);
+    }
+}
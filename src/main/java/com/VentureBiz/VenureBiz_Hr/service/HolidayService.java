@@ -0,0 +1,107 @@
+package com.VentureBiz.VenureBiz_Hr.service;
+
+import com.VentureBiz.VenureBiz_Hr.model.Holiday;
+import com.VentureBiz.VenureBiz_Hr.repository.HolidayRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.List;
+import java.util.Set;
+import java.util.TreeSet;
+
+/**
+ * HR maintenance of the holiday calendar. After a change commits, the affected years are
+ * dropped from {@link WorkingDayCalendar} and the attendance rollup of each affected month
+ * that has started is rebuilt, since summaries only count working days.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class HolidayService {
+
+    private final HolidayRepository holidayRepository;
+    private final WorkingDayCalendar workingDayCalendar;
+    private final AttendanceRollupService attendanceRollupService;
+    private final TransactionTemplate transactionTemplate;
+
+    // Holidays of a year; location = null lists every office
+    public List<Holiday> list(int year, String location) {
+        LocalDate from = LocalDate.of(year, 1, 1);
+        return holidayRepository.findInRange(from, from.plusYears(1), normalize(location));
+    }
+
+    public Holiday create(Holiday holiday) {
+        validate(holiday);
+        holiday.setId(null);
+        holiday.setOfficeLocation(normalize(holiday.getOfficeLocation()));
+        Holiday saved = transactionTemplate.execute(status -> {
+            requireUnique(holiday, null);
+            return holidayRepository.save(holiday);
+        });
+        changed(saved.getDate());
+        return saved;
+    }
+
+    public Holiday update(Long id, Holiday updated) {
+        validate(updated);
+        LocalDate[] dates = new LocalDate[2];
+        Holiday saved = transactionTemplate.execute(status -> {
+            Holiday existing = holidayRepository.findById(id)
+                    .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Holiday not found: " + id));
+            dates[0] = existing.getDate();
+            existing.setDate(updated.getDate());
+            existing.setName(updated.getName());
+            existing.setOfficeLocation(normalize(updated.getOfficeLocation()));
+            requireUnique(existing, id);
+            return holidayRepository.save(existing);
+        });
+        dates[1] = saved.getDate();
+        changed(dates);
+        return saved;
+    }
+
+    public void delete(Long id) {
+        LocalDate date = transactionTemplate.execute(status -> {
+            Holiday existing = holidayRepository.findById(id)
+                    .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Holiday not found: " + id));
+            holidayRepository.delete(existing);
+            return existing.getDate();
+        });
+        changed(date);
+    }
+
+    private void changed(LocalDate... dates) {
+        Set<YearMonth> months = new TreeSet<>();
+        for (LocalDate date : dates) {
+            if (date == null) continue;
+            workingDayCalendar.invalidate(date.getYear());
+            months.add(YearMonth.from(date));
+        }
+        for (YearMonth month : months) {
+            if (month.isAfter(YearMonth.now())) continue;
+            log.info(attendanceRollupService.rebuildMonth(month.getYear(), month.getMonthValue()));
+        }
+    }
+
+    private void requireUnique(Holiday holiday, Long excludeId) {
+        if (holidayRepository.existsOn(holiday.getDate(), holiday.getOfficeLocation(), excludeId)) {
+            throw new ResponseStatusException(HttpStatus.CONFLICT, "A holiday already exists on " + holiday.getDate()
+                    + (holiday.getOfficeLocation() == null ? "" : " for " + holiday.getOfficeLocation()));
+        }
+    }
+
+    private static void validate(Holiday holiday) {
+        if (holiday.getDate() == null || holiday.getName() == null || holiday.getName().isBlank())
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Holiday date and name are required");
+    }
+
+    private static String normalize(String location) {
+        return location == null || location.isBlank() ? null : location.trim();
+    }
+}
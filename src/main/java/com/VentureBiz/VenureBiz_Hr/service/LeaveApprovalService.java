@@ -0,0 +1,158 @@
+package com.VentureBiz.VenureBiz_Hr.service;
+
+import com.VentureBiz.VenureBiz_Hr.dto.LeaveDecisionResult;
+import com.VentureBiz.VenureBiz_Hr.dto.LeaveDecisionRow;
+import com.VentureBiz.VenureBiz_Hr.model.LeaveBalance;
+import com.VentureBiz.VenureBiz_Hr.model.LeaveLedgerEntry;
+import com.VentureBiz.VenureBiz_Hr.model.LeaveRequest;
+import com.VentureBiz.VenureBiz_Hr.model.LeaveRequest.LeaveStatus;
+import com.VentureBiz.VenureBiz_Hr.repository.LeaveBalanceRepository;
+import com.VentureBiz.VenureBiz_Hr.repository.LeaveRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.*;
+
+/**
+ * HR leave decisions. A single status change may move a leave in any direction and posts
+ * the matching consumption or reversal. A bulk decision only moves PENDING requests: it
+ * locks the rows, checks balances in memory, flips every eligible id with one UPDATE and
+ * posts the consumptions in one batch, all in one transaction.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class LeaveApprovalService {
+
+    private final LeaveRepository leaveRepository;
+    private final LeaveBalanceRepository balanceRepository;
+    private final LeaveLedgerService ledgerService;
+    private final LeaveCalendar leaveCalendar;
+
+    @Value("${leave.decision.max-ids:1000}")
+    private int maxIds;
+
+    @Transactional
+    public LeaveRequest decide(Long id, LeaveStatus status, String hrEmail) {
+        leaveRepository.lockForDecision(List.of(id));
+        LeaveRequest leave = leaveRepository.findById(id)
+                .orElseThrow(() -> new RuntimeException("Leave not found"));
+        LeaveStatus old = leave.getLeaveStatus();
+        long userId = leave.getEmployee().getId();
+        int year = leave.getStartDate().getYear();
+
+        if (old != LeaveStatus.APPROVED && status == LeaveStatus.APPROVED) {
+            ledgerService.requireAvailable(userId, leave.getLeaveType(), year, leave.getDays());
+            ledgerService.post(List.of(posting(leave, LeaveLedgerEntry.EntryType.CONSUMPTION)));
+        } else if (old == LeaveStatus.APPROVED && status != LeaveStatus.APPROVED) {
+            ledgerService.post(List.of(posting(leave, LeaveLedgerEntry.EntryType.REVERSAL)));
+        }
+
+        leave.setLeaveStatus(status);
+        leave.setApprovedByHr(hrEmail);
+        leave.setApprovedOn(LocalDate.now());
+        LeaveRequest saved = leaveRepository.save(leave);
+        leaveCalendar.refresh(List.of(id));
+        return saved;
+    }
+
+    @Transactional
+    public LeaveDecisionResult decideBulk(List<Long> requestedIds, LeaveStatus status, String hrEmail) {
+        if (status != LeaveStatus.APPROVED && status != LeaveStatus.REJECTED)
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "status must be APPROVED or REJECTED");
+        if (requestedIds == null || requestedIds.isEmpty())
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "ids must not be empty");
+        if (requestedIds.size() > maxIds)
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "At most " + maxIds + " ids per decision");
+
+        long start = System.currentTimeMillis();
+        Set<Long> ids = new LinkedHashSet<>(requestedIds);
+        Map<Long, LeaveDecisionRow> rows = new HashMap<>();
+        for (LeaveDecisionRow row : leaveRepository.lockForDecision(ids)) rows.put(row.getId(), row);
+
+        Map<List<Object>, BigDecimal> available = status == LeaveStatus.APPROVED ? availableFor(rows.values()) : Map.of();
+        Map<Long, LeaveDecisionResult.Outcome> outcomes = new HashMap<>();
+        List<Long> eligible = new ArrayList<>();
+        List<LeaveLedgerService.Posting> postings = new ArrayList<>();
+
+        for (Long id : ids) {
+            LeaveDecisionRow row = rows.get(id);
+            if (row == null) {
+                outcomes.put(id, LeaveDecisionResult.Outcome.NOT_FOUND);
+                continue;
+            }
+            if (!LeaveStatus.PENDING.name().equals(row.getLeaveStatus())) {
+                outcomes.put(id, LeaveDecisionResult.Outcome.NOT_PENDING);
+                continue;
+            }
+            if (status == LeaveStatus.APPROVED) {
+                // Earlier ids in the same request draw on the same balance first
+                List<Object> key = balanceKey(row.getUserId(), row.getLeaveType(), row.getStartDate().getYear());
+                BigDecimal left = available.getOrDefault(key, BigDecimal.ZERO);
+                BigDecimal days = BigDecimal.valueOf(row.getDays());
+                if (left.compareTo(days) < 0) {
+                    outcomes.put(id, LeaveDecisionResult.Outcome.INSUFFICIENT_BALANCE);
+                    continue;
+                }
+                available.put(key, left.subtract(days));
+                postings.add(new LeaveLedgerService.Posting(row.getUserId(), LeaveRequest.LeaveType.valueOf(row.getLeaveType()),
+                        row.getStartDate().getYear(), LeaveLedgerEntry.EntryType.CONSUMPTION, row.getDays(), row.getId()));
+            }
+            eligible.add(id);
+            outcomes.put(id, status == LeaveStatus.APPROVED
+                    ? LeaveDecisionResult.Outcome.APPROVED : LeaveDecisionResult.Outcome.REJECTED);
+        }
+
+        int decided = eligible.isEmpty() ? 0 : leaveRepository.decidePending(eligible, status, hrEmail, LocalDate.now());
+        if (decided != eligible.size()) {
+            // Cannot happen while the rows are locked; roll back rather than post a partial ledger
+            throw new IllegalStateException("Expected to decide " + eligible.size() + " leaves but updated " + decided);
+        }
+        ledgerService.post(postings);
+        leaveCalendar.refresh(eligible);
+
+        log.info("Bulk leave decision {} by {}: {} of {} ids decided in {} ms",
+                status, hrEmail, decided, ids.size(), System.currentTimeMillis() - start);
+
+        List<LeaveDecisionResult.Item> items = new ArrayList<>(ids.size());
+        for (Long id : ids) items.add(new LeaveDecisionResult.Item(id, outcomes.get(id)));
+        return LeaveDecisionResult.builder()
+                .status(status)
+                .requested(ids.size())
+                .decided(decided)
+                .items(items)
+                .build();
+    }
+
+    // Current available days of every user/type/year touched by the decision, in one query
+    private Map<List<Object>, BigDecimal> availableFor(Collection<LeaveDecisionRow> rows) {
+        Set<Long> userIds = new HashSet<>();
+        Set<Integer> years = new HashSet<>();
+        for (LeaveDecisionRow row : rows) {
+            userIds.add(row.getUserId());
+            years.add(row.getStartDate().getYear());
+        }
+        Map<List<Object>, BigDecimal> available = new HashMap<>();
+        if (userIds.isEmpty()) return available;
+        for (LeaveBalance b : balanceRepository.findForUsers(userIds, years)) {
+            available.put(balanceKey(b.getUserId(), b.getLeaveType().name(), b.getYear()), b.getAvailable());
+        }
+        return available;
+    }
+
+    private static List<Object> balanceKey(Long userId, String leaveType, int year) {
+        return List.of(userId, leaveType, year);
+    }
+
+    private static LeaveLedgerService.Posting posting(LeaveRequest leave, LeaveLedgerEntry.EntryType type) {
+        return new LeaveLedgerService.Posting(leave.getEmployee().getId(), leave.getLeaveType(),
+                leave.getStartDate().getYear(), type, leave.getDays(), leave.getId());
+    }
+}
@@ -0,0 +1,104 @@
+package com.VentureBiz.VenureBiz_Hr.service;
+
+import com.VentureBiz.VenureBiz_Hr.dto.LeaveReconciliationReport;
+import com.VentureBiz.VenureBiz_Hr.repository.AttendanceRepository;
+import com.VentureBiz.VenureBiz_Hr.repository.UserRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.time.temporal.ChronoUnit;
+
+/**
+ * Brings attendance in line with approved leave for a date range: three set-based statements
+ * per chunk of user ids (insert LEAVE for covered days without a row, ABSENT -> LEAVE on
+ * covered days, uncovered LEAVE -> ABSENT). Idempotent, so the nightly job simply re-runs a
+ * trailing window; the monthly rollup of each changed chunk is refreshed in the same transaction.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class LeaveAttendanceService {
+
+    private static final long MAX_RANGE_DAYS = 366;
+
+    private final AttendanceRepository attendanceRepository;
+    private final UserRepository userRepository;
+    private final AttendanceRollupService attendanceRollupService;
+    private final TransactionTemplate transactionTemplate;
+
+    @Value("${attendance.reconcile.chunk-size:1000}")
+    private int chunkSize;
+
+    @Value("${attendance.leave-reconcile.lookback-days:31}")
+    private int lookbackDays;
+
+    // Nightly window: the trailing lookback up to today, so late rejections are picked up too
+    public LeaveReconciliationReport reconcileRecent() {
+        LocalDate today = LocalDate.now();
+        return reconcile(today.minusDays(Math.max(0, lookbackDays)), today, false);
+    }
+
+    public LeaveReconciliationReport reconcile(LocalDate from, LocalDate to, boolean dryRun) {
+        if (to.isBefore(from)) throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "to is before from");
+        if (to.isAfter(LocalDate.now()))
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Cannot reconcile future dates: " + to);
+        if (ChronoUnit.DAYS.between(from, to) >= MAX_RANGE_DAYS)
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Range is limited to " + MAX_RANGE_DAYS + " days");
+
+        long start = System.currentTimeMillis();
+        LeaveReconciliationReport report = LeaveReconciliationReport.builder()
+                .from(from)
+                .to(to)
+                .dryRun(dryRun)
+                .build();
+
+        long maxUserId = userRepository.findMaxId();
+        int step = Math.max(1, chunkSize);
+
+        for (long lowerId = 0; lowerId < maxUserId; lowerId += step) {
+            long lower = lowerId;
+            long upper = Math.min(lowerId + step, maxUserId);
+
+            if (dryRun) {
+                report.setLeaveInserted(report.getLeaveInserted()
+                        + attendanceRepository.countLeaveDaysMissing(from, to, lower, upper));
+                report.setAbsentToLeave(report.getAbsentToLeave()
+                        + attendanceRepository.countAbsentCoveredByLeave(from, to, lower, upper));
+                report.setLeaveReverted(report.getLeaveReverted()
+                        + attendanceRepository.countUncoveredLeave(from, to, lower, upper));
+                continue;
+            }
+
+            long[] counts = transactionTemplate.execute(status -> {
+                long[] changed = {
+                        attendanceRepository.insertLeaveDays(from, to, lower, upper),
+                        attendanceRepository.markAbsentAsLeave(from, to, lower, upper),
+                        attendanceRepository.revertUncoveredLeave(from, to, lower, upper)
+                };
+                if (changed[0] > 0 || changed[1] > 0 || changed[2] > 0) {
+                    for (YearMonth m = YearMonth.from(from); !m.isAfter(YearMonth.from(to)); m = m.plusMonths(1)) {
+                        attendanceRollupService.refreshRange(m.getYear(), m.getMonthValue(), lower, upper);
+                    }
+                }
+                return changed;
+            });
+            report.setLeaveInserted(report.getLeaveInserted() + counts[0]);
+            report.setAbsentToLeave(report.getAbsentToLeave() + counts[1]);
+            report.setLeaveReverted(report.getLeaveReverted() + counts[2]);
+            report.setChunks(report.getChunks() + 1);
+        }
+
+        report.setElapsedMs(System.currentTimeMillis() - start);
+        log.info("Leave reconciliation {}..{}{}: {} inserted, {} absent -> leave, {} reverted in {} ms",
+                from, to, dryRun ? " (dry run)" : "", report.getLeaveInserted(), report.getAbsentToLeave(),
+                report.getLeaveReverted(), report.getElapsedMs());
+        return report;
+    }
+}
@@ -0,0 +1,259 @@
+package com.VentureBiz.VenureBiz_Hr.service;
+
+import com.VentureBiz.VenureBiz_Hr.dto.LeaveAbsence;
+import com.VentureBiz.VenureBiz_Hr.dto.TeamAvailability;
+import com.VentureBiz.VenureBiz_Hr.repository.LeaveRepository;
+import com.VentureBiz.VenureBiz_Hr.repository.UserRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.http.HttpStatus;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.util.*;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * In-memory interval index over pending and approved leaves, per employee, per department
+ * and company-wide. Each set is ordered by start date, so "anything overlapping [from, to]"
+ * is a range seek over starts in [from - longest leave + 1, to] followed by an end-date
+ * filter: O(log n + k). Loaded at startup and rebuilt nightly; leave writes call
+ * {@link #refresh} (after commit when a transaction is active), which reloads just the
+ * touched leaves. The leave_requests table stays authoritative: the overlap check on apply/edit
+ * answers from the index first and then re-checks the database under a lock on the user's row.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class LeaveCalendar {
+
+    private static final Comparator<LeaveAbsence> BY_START =
+            Comparator.comparing(LeaveAbsence::getStartDate).thenComparing(LeaveAbsence::getLeaveId);
+    private static final long MAX_RANGE_DAYS = 366;
+    private static final String NO_DEPARTMENT = "";
+
+    private final LeaveRepository leaveRepository;
+    private final UserRepository userRepository;
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Map<Long, LeaveAbsence> byId = new HashMap<>();
+    private final Map<Long, NavigableSet<LeaveAbsence>> byUser = new HashMap<>();
+    private final Map<String, NavigableSet<LeaveAbsence>> byDepartment = new HashMap<>();
+    private final NavigableSet<LeaveAbsence> all = new TreeSet<>(BY_START);
+    // Longest indexed leave in days; bounds how far before 'from' an overlapping leave can start
+    private long longestDays = 1;
+    // While a rebuild reads the table: leaves/users refreshed meanwhile, re-applied on top of what it read
+    private Set<Long> refreshedIds;
+    private Set<String> refreshedEmails;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void loadOnStartup() {
+        rebuild();
+    }
+
+    // Nightly reload heals any drift (e.g. writes made by another instance)
+    @Scheduled(cron = "0 15 2 * * *")
+    public void rebuild() {
+        long start = System.currentTimeMillis();
+        lock.writeLock().lock();
+        try {
+            refreshedIds = new HashSet<>();
+            refreshedEmails = new HashSet<>();
+        } finally {
+            lock.writeLock().unlock();
+        }
+
+        List<LeaveAbsence> rows = leaveRepository.findAbsences();
+        lock.writeLock().lock();
+        try {
+            byId.clear();
+            byUser.clear();
+            byDepartment.clear();
+            all.clear();
+            longestDays = 1;
+            rows.forEach(this::add);
+
+            // A refresh applied after the read above may be missing from rows: reload those leaves again
+            if (!refreshedIds.isEmpty()) {
+                refreshedIds.forEach(this::remove);
+                leaveRepository.findAbsences(refreshedIds).forEach(this::add);
+            }
+            for (String email : refreshedEmails) replaceUser(email, leaveRepository.findAbsencesByEmail(email));
+        } finally {
+            refreshedIds = null;
+            refreshedEmails = null;
+            lock.writeLock().unlock();
+        }
+        log.info("Leave calendar loaded: {} leaves in {} ms", rows.size(), System.currentTimeMillis() - start);
+    }
+
+    // Reloads the given leaves (a deleted or rejected leave drops out)
+    public void refresh(Collection<Long> leaveIds) {
+        if (leaveIds.isEmpty()) return;
+        List<Long> ids = List.copyOf(leaveIds);
+        afterCommit(() -> replace(ids, leaveRepository.findAbsences(ids)));
+    }
+
+    // Employee name/department changed: reload that user's leaves
+    public void refreshUser(String email) {
+        if (email == null) return;
+        afterCommit(() -> {
+            List<LeaveAbsence> rows = leaveRepository.findAbsencesByEmail(email);
+            lock.writeLock().lock();
+            try {
+                replaceUser(email, rows);
+                if (refreshedEmails != null) refreshedEmails.add(email);
+            } finally {
+                lock.writeLock().unlock();
+            }
+        });
+    }
+
+    /*
+     * Rejects [from, to] if it overlaps another pending/approved leave of the user (excludeLeaveId = the leave
+     * being edited). The index answers the common case; then the user's row is locked until the caller's
+     * transaction commits and the database is checked, so two concurrent applies (or a write from another
+     * instance the index has not seen yet) cannot both pass.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void requireNoOverlap(Long userId, LocalDate from, LocalDate to, Long excludeLeaveId) {
+        if (to.isBefore(from)) throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "End date is before start date");
+        lock.readLock().lock();
+        try {
+            for (LeaveAbsence a : overlapping(byUser.get(userId), from, to)) {
+                if (!a.getLeaveId().equals(excludeLeaveId)) throw overlap(a);
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+
+        userRepository.lockById(userId);
+        List<LeaveAbsence> stored = leaveRepository.findOverlapping(userId, from, to, excludeLeaveId);
+        if (!stored.isEmpty()) throw overlap(stored.get(0));
+    }
+
+    private static ResponseStatusException overlap(LeaveAbsence a) {
+        return new ResponseStatusException(HttpStatus.CONFLICT, "Overlaps your " + a.getLeaveStatus()
+                + " " + a.getLeaveType() + " leave " + a.getStartDate() + " to " + a.getEndDate());
+    }
+
+    // Everyone (or one department) with a pending/approved leave touching [from, to]
+    public TeamAvailability availability(LocalDate from, LocalDate to, String department) {
+        if (to.isBefore(from)) throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "to is before from");
+        if (ChronoUnit.DAYS.between(from, to) >= MAX_RANGE_DAYS)
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Range is limited to " + MAX_RANGE_DAYS + " days");
+
+        List<LeaveAbsence> absences;
+        lock.readLock().lock();
+        try {
+            NavigableSet<LeaveAbsence> set = department == null ? all : byDepartment.get(department);
+            absences = overlapping(set, from, to);
+        } finally {
+            lock.readLock().unlock();
+        }
+
+        Map<LocalDate, Integer> perDay = new LinkedHashMap<>();
+        for (LocalDate d = from; !d.isAfter(to); d = d.plusDays(1)) perDay.put(d, 0);
+        for (LeaveAbsence a : absences) {
+            LocalDate first = a.getStartDate().isBefore(from) ? from : a.getStartDate();
+            LocalDate last = a.getEndDate().isAfter(to) ? to : a.getEndDate();
+            for (LocalDate d = first; !d.isAfter(last); d = d.plusDays(1)) perDay.merge(d, 1, Integer::sum);
+        }
+        return TeamAvailability.builder()
+                .from(from)
+                .to(to)
+                .department(department)
+                .absences(absences)
+                .outPerDay(perDay)
+                .build();
+    }
+
+    // Caller holds the lock
+    private List<LeaveAbsence> overlapping(NavigableSet<LeaveAbsence> set, LocalDate from, LocalDate to) {
+        if (set == null || set.isEmpty()) return List.of();
+        LeaveAbsence low = probe(from.minusDays(longestDays - 1), Long.MIN_VALUE);
+        LeaveAbsence high = probe(to, Long.MAX_VALUE);
+        List<LeaveAbsence> result = new ArrayList<>();
+        for (LeaveAbsence a : set.subSet(low, true, high, true)) {
+            if (!a.getEndDate().isBefore(from)) result.add(a);
+        }
+        return result;
+    }
+
+    private void replace(List<Long> ids, List<LeaveAbsence> rows) {
+        lock.writeLock().lock();
+        try {
+            ids.forEach(this::remove);
+            rows.forEach(this::add);
+            if (refreshedIds != null) refreshedIds.addAll(ids);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // Caller holds the write lock
+    private void replaceUser(String email, List<LeaveAbsence> rows) {
+        List<Long> stale = byId.values().stream().filter(a -> email.equals(a.getEmail()))
+                .map(LeaveAbsence::getLeaveId).toList();
+        stale.forEach(this::remove);
+        rows.forEach(this::add);
+    }
+
+    // Caller holds the write lock
+    private void add(LeaveAbsence a) {
+        if (a.getStartDate() == null || a.getEndDate() == null) return;
+        byId.put(a.getLeaveId(), a);
+        byUser.computeIfAbsent(a.getUserId(), k -> new TreeSet<>(BY_START)).add(a);
+        byDepartment.computeIfAbsent(department(a), k -> new TreeSet<>(BY_START)).add(a);
+        all.add(a);
+        longestDays = Math.max(longestDays, ChronoUnit.DAYS.between(a.getStartDate(), a.getEndDate()) + 1);
+    }
+
+    // Caller holds the write lock
+    private void remove(Long leaveId) {
+        LeaveAbsence a = byId.remove(leaveId);
+        if (a == null) return;
+        removeFrom(byUser, a.getUserId(), a);
+        removeFrom(byDepartment, department(a), a);
+        all.remove(a);
+    }
+
+    private static <K> void removeFrom(Map<K, NavigableSet<LeaveAbsence>> index, K key, LeaveAbsence a) {
+        NavigableSet<LeaveAbsence> set = index.get(key);
+        if (set != null && set.remove(a) && set.isEmpty()) index.remove(key);
+    }
+
+    private static String department(LeaveAbsence a) {
+        return a.getDepartment() == null ? NO_DEPARTMENT : a.getDepartment();
+    }
+
+    private static LeaveAbsence probe(LocalDate start, long leaveId) {
+        LeaveAbsence p = new LeaveAbsence();
+        p.setStartDate(start);
+        p.setLeaveId(leaveId);
+        return p;
+    }
+
+    private static void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+}
@@ -0,0 +1,127 @@
+package com.VentureBiz.VenureBiz_Hr.service;
+
+import com.VentureBiz.VenureBiz_Hr.model.LeaveBalance;
+import com.VentureBiz.VenureBiz_Hr.model.LeaveLedgerEntry;
+import com.VentureBiz.VenureBiz_Hr.model.LeaveRequest;
+import com.VentureBiz.VenureBiz_Hr.repository.LeaveBalanceRepository;
+import com.VentureBiz.VenureBiz_Hr.repository.LeaveLedgerRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.*;
+
+/**
+ * Leave ledger and the balances it materializes. Every posting writes ledger rows and
+ * upserts leave_balances in the caller's transaction, so a balance never disagrees with
+ * the ledger or with the leave status change that caused it. Balance checks are a single
+ * lookup on (user, type, year). Pending requests are not reserved against the balance;
+ * approval checks again.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class LeaveLedgerService {
+
+    private static final String INSERT_ENTRY = "INSERT INTO leave_ledger " +
+            "(user_id, leave_type, year, entry_type, days, leave_request_id, created_at) VALUES (?, ?, ?, ?, ?, ?, ?)";
+    private static final String UPSERT_BALANCE = "INSERT INTO leave_balances (user_id, leave_type, year, accrued, used) " +
+            "VALUES (?, ?, ?, 0, ?) ON DUPLICATE KEY UPDATE used = used + VALUES(used)";
+
+    private final LeaveLedgerRepository ledgerRepository;
+    private final LeaveBalanceRepository balanceRepository;
+    private final JdbcTemplate jdbcTemplate;
+
+    @Value("${leave.accrual.casual-per-month:1.0}")
+    private BigDecimal casualPerMonth;
+
+    @Value("${leave.accrual.sick-per-month:0.5}")
+    private BigDecimal sickPerMonth;
+
+    // Consumption (approval) or reversal (approval withdrawn) of one leave request
+    public record Posting(long userId, LeaveRequest.LeaveType leaveType, int year,
+                          LeaveLedgerEntry.EntryType entryType, long days, long leaveRequestId) {
+
+        // Signed ledger amount: consumption takes days away, reversal gives them back
+        BigDecimal ledgerDays() {
+            return BigDecimal.valueOf(entryType == LeaveLedgerEntry.EntryType.CONSUMPTION ? -days : days);
+        }
+    }
+
+    public BigDecimal available(Long userId, LeaveRequest.LeaveType leaveType, int year) {
+        return balanceRepository.findByUserIdAndLeaveTypeAndYear(userId, leaveType, year)
+                .map(LeaveBalance::getAvailable)
+                .orElse(BigDecimal.ZERO);
+    }
+
+    public void requireAvailable(Long userId, LeaveRequest.LeaveType leaveType, int year, long days) {
+        BigDecimal available = available(userId, leaveType, year);
+        if (available.compareTo(BigDecimal.valueOf(days)) < 0) {
+            throw new ResponseStatusException(HttpStatus.CONFLICT, "Insufficient " + leaveType + " leave balance for "
+                    + year + ": " + available.stripTrailingZeros().toPlainString() + " day(s) available, " + days + " requested");
+        }
+    }
+
+    public List<LeaveBalance> balances(Long userId, int year) {
+        return balanceRepository.findByUserIdAndYearOrderByLeaveType(userId, year);
+    }
+
+    public List<LeaveLedgerEntry> ledger(Long userId, int year) {
+        return ledgerRepository.findByUserIdAndYearOrderById(userId, year);
+    }
+
+    // Batched ledger inserts, then one balance upsert per user/type/year
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void post(List<Posting> postings) {
+        if (postings.isEmpty()) return;
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+
+        List<Object[]> entries = new ArrayList<>(postings.size());
+        Map<List<Object>, Long> usedDelta = new LinkedHashMap<>();
+        for (Posting p : postings) {
+            entries.add(new Object[]{p.userId(), p.leaveType().name(), p.year(), p.entryType().name(),
+                    p.ledgerDays(), p.leaveRequestId(), now});
+            usedDelta.merge(List.of(p.userId(), p.leaveType().name(), p.year()), -p.ledgerDays().longValue(), Long::sum);
+        }
+
+        List<Object[]> balances = new ArrayList<>(usedDelta.size());
+        usedDelta.forEach((key, delta) -> {
+            if (delta != 0) balances.add(new Object[]{key.get(0), key.get(1), key.get(2), delta});
+        });
+
+        jdbcTemplate.batchUpdate(INSERT_ENTRY, entries);
+        if (!balances.isEmpty()) jdbcTemplate.batchUpdate(UPSERT_BALANCE, balances);
+    }
+
+    // Credits a month's accrual to every active employee; a month already credited is skipped
+    @Transactional
+    public int accrueMonth(int year, int month) {
+        if (month < 1 || month > 12) throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Invalid month: " + month);
+        long start = System.currentTimeMillis();
+        int credited = 0;
+        for (LeaveRequest.LeaveType type : LeaveRequest.LeaveType.values()) {
+            BigDecimal days = accrualPerMonth(type);
+            if (days.signum() <= 0 || ledgerRepository.accrualExists(type, year, month)) continue;
+            credited += ledgerRepository.insertAccruals(type.name(), year, month, days);
+            ledgerRepository.creditAccruals(type.name(), year, month);
+        }
+        log.info("Leave accrual {}-{}: {} ledger rows in {} ms", year, month, credited, System.currentTimeMillis() - start);
+        return credited;
+    }
+
+    private BigDecimal accrualPerMonth(LeaveRequest.LeaveType type) {
+        return switch (type) {
+            case CASUAL -> casualPerMonth;
+            case SICK -> sickPerMonth;
+        };
+    }
+}
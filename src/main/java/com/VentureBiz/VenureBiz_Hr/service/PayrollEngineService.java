@@ -0,0 +1,273 @@
+package com.VentureBiz.VenureBiz_Hr.service;
+
+import com.VentureBiz.VenureBiz_Hr.dto.LeaveSpan;
+import com.VentureBiz.VenureBiz_Hr.dto.MonthlyAttendanceCounts;
+import com.VentureBiz.VenureBiz_Hr.dto.PayrollComputationReport;
+import com.VentureBiz.VenureBiz_Hr.dto.SalaryTemplateRow;
+import com.VentureBiz.VenureBiz_Hr.model.Employee;
+import com.VentureBiz.VenureBiz_Hr.model.Salary;
+import com.VentureBiz.VenureBiz_Hr.model.SalaryStatus;
+import com.VentureBiz.VenureBiz_Hr.repository.AttendanceRollupRepository;
+import com.VentureBiz.VenureBiz_Hr.repository.LeaveRepository;
+import com.VentureBiz.VenureBiz_Hr.repository.SalaryRepository;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jakarta.persistence.EntityManager;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.LocalDate;
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Computes a month's salaries from attendance. Three set-based reads (latest salary per
+ * employee, the attendance rollup and approved leaves) feed an in-memory computation;
+ * the results are written per employee partition in parallel, one batched chunk per
+ * transaction. All money is BigDecimal rounded HALF_UP to 2 places.
+ *
+ * Loss of pay (in days) = unpaid absences x absent-day-factor + half days x half-day-factor
+ * + (late days / late-grace) x late-penalty-days, capped at the month's working days, where
+ * unpaid absences are absences not covered by approved leave. The deduction is
+ * gross x LOP days / working days, where working days are the month's weekdays less the
+ * company-wide and the employee's office holidays ({@link WorkingDayCalendar}).
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class PayrollEngineService {
+
+    private final SalaryRepository salaryRepository;
+    private final AttendanceRollupRepository rollupRepository;
+    private final LeaveRepository leaveRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final EntityManager entityManager;
+    private final AnalyticsService analyticsService;
+    private final WorkingDayCalendar workingDayCalendar;
+
+    @Value("${payroll.rules.absent-day-factor:1.0}")
+    private BigDecimal absentDayFactor;
+
+    @Value("${payroll.rules.half-day-factor:0.5}")
+    private BigDecimal halfDayFactor;
+
+    @Value("${payroll.rules.late-grace:3}")
+    private int lateGrace;
+
+    @Value("${payroll.rules.late-penalty-days:0.5}")
+    private BigDecimal latePenaltyDays;
+
+    @Value("${payroll.engine.parallelism:4}")
+    private int parallelism;
+
+    @Value("${payroll.engine.chunk-size:500}")
+    private int chunkSize;
+
+    private ExecutorService executor;
+
+    // One employee's computed salary for the month
+    record Computed(SalaryTemplateRow template, BigDecimal lopDays, BigDecimal lopDeduction, BigDecimal net) { }
+
+    @PostConstruct
+    void startPool() {
+        AtomicInteger threads = new AtomicInteger();
+        executor = Executors.newFixedThreadPool(Math.max(1, parallelism),
+                r -> new Thread(r, "payroll-engine-" + threads.incrementAndGet()));
+    }
+
+    @PreDestroy
+    void stopPool() {
+        executor.shutdown();
+    }
+
+    public PayrollComputationReport compute(int month, int year) {
+        if (month < 1 || month > 12) throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Invalid month: " + month);
+        long start = System.currentTimeMillis();
+        LocalDate from = LocalDate.of(year, month, 1);
+        LocalDate to = from.plusMonths(1);
+        int workingDays = workingDayCalendar.workingDays(from, to, null);
+
+        // ✅ Three set-based reads for the whole company
+        Map<Long, SalaryTemplateRow> templates = new LinkedHashMap<>();
+        for (SalaryTemplateRow row : salaryRepository.findLatestUpTo(year * 12 + month)) {
+            templates.put(row.getEmployeeId(), row);
+        }
+        Map<Long, MonthlyAttendanceCounts> attendance = new HashMap<>();
+        for (MonthlyAttendanceCounts row : rollupRepository.findCounts(year, month, null)) {
+            attendance.put(row.getUserId(), row);
+        }
+        Map<Long, Integer> leaveDays = new HashMap<>();
+        for (LeaveSpan leave : leaveRepository.findApprovedOverlapping(from, to)) {
+            leaveDays.merge(leave.getUserId(), overlapWorkingDays(leave, from, to), Integer::sum);
+        }
+        // Working days differ by office holidays; one bitset count per location
+        Map<String, Integer> workingDaysByLocation = new HashMap<>();
+        workingDaysByLocation.put(null, workingDays);
+        Map<Long, Integer> userWorkingDays = new HashMap<>();
+        for (SalaryTemplateRow t : templates.values()) {
+            String location = workingDayCalendar.locationOf(t.getUserId());
+            userWorkingDays.put(t.getUserId(), workingDaysByLocation.computeIfAbsent(location,
+                    l -> workingDayCalendar.workingDays(from, to, l)));
+        }
+
+        // ✅ Partition by employee id; each partition computes and writes its own chunks
+        int partitions = Math.max(1, parallelism);
+        List<List<SalaryTemplateRow>> partitioned = new ArrayList<>();
+        for (int i = 0; i < partitions; i++) partitioned.add(new ArrayList<>());
+        templates.values().forEach(t -> partitioned.get((int) Math.floorMod(t.getEmployeeId(), (long) partitions)).add(t));
+
+        Totals totals = new Totals();
+        List<CompletableFuture<Void>> workers = new ArrayList<>();
+        for (List<SalaryTemplateRow> partition : partitioned) {
+            if (partition.isEmpty()) continue;
+            workers.add(CompletableFuture.runAsync(() -> {
+                List<Computed> results = new ArrayList<>(partition.size());
+                for (SalaryTemplateRow template : partition) {
+                    results.add(computeOne(template, attendance.get(template.getUserId()),
+                            leaveDays.getOrDefault(template.getUserId(), 0),
+                            userWorkingDays.getOrDefault(template.getUserId(), workingDays)));
+                }
+                for (int i = 0; i < results.size(); i += chunkSize) {
+                    List<Computed> chunk = results.subList(i, Math.min(i + chunkSize, results.size()));
+                    transactionTemplate.executeWithoutResult(status -> writeChunk(month, year, chunk, totals));
+                }
+            }, executor));
+        }
+        try {
+            CompletableFuture.allOf(workers.toArray(CompletableFuture[]::new)).join();
+        } catch (RuntimeException e) {
+            analyticsService.invalidate(year, month);
+            throw new RuntimeException("Payroll computation failed for " + month + "/" + year
+                    + " (committed chunks are kept, re-run to finish): " + e.getMessage(), e);
+        }
+
+        analyticsService.invalidate(year, month);
+        long elapsed = System.currentTimeMillis() - start;
+        log.info("Payroll computed for {}-{}: {} employees, {} created, {} updated, {} paid skipped in {} ms",
+                year, month, templates.size(), totals.created.get(), totals.updated.get(), totals.skippedPaid.get(), elapsed);
+
+        return PayrollComputationReport.builder()
+                .month(month)
+                .year(year)
+                .workingDays(workingDays)
+                .employees(templates.size())
+                .created(totals.created.get())
+                .updated(totals.updated.get())
+                .skippedPaid(totals.skippedPaid.get())
+                .totalGross(totals.gross())
+                .totalLopDeduction(totals.lop())
+                .totalNet(totals.net())
+                .elapsedMs(elapsed)
+                .build();
+    }
+
+    Computed computeOne(SalaryTemplateRow template, MonthlyAttendanceCounts counts, int approvedLeaveDays,
+                                int workingDays) {
+        long absent = counts == null || counts.getAbsent() == null ? 0 : counts.getAbsent();
+        long halfDay = counts == null || counts.getHalfDay() == null ? 0 : counts.getHalfDay();
+        long late = counts == null || counts.getLate() == null ? 0 : counts.getLate();
+        long onLeave = counts == null || counts.getOnLeave() == null ? 0 : counts.getOnLeave();
+
+        // Reconciled leave days are already LEAVE rather than ABSENT; only the rest can excuse an absence
+        long unpaidAbsent = Math.max(0, absent - Math.max(0, approvedLeaveDays - onLeave));
+        BigDecimal lopDays = absentDayFactor.multiply(BigDecimal.valueOf(unpaidAbsent))
+                .add(halfDayFactor.multiply(BigDecimal.valueOf(halfDay)));
+        if (lateGrace > 0) lopDays = lopDays.add(latePenaltyDays.multiply(BigDecimal.valueOf(late / lateGrace)));
+        lopDays = lopDays.min(BigDecimal.valueOf(workingDays)).setScale(2, RoundingMode.HALF_UP);
+
+        BigDecimal gross = template.getBasicPay().add(template.getHra()).add(template.getAllowances());
+        BigDecimal lopDeduction = workingDays == 0 ? BigDecimal.ZERO.setScale(2)
+                : gross.multiply(lopDays).divide(BigDecimal.valueOf(workingDays), 2, RoundingMode.HALF_UP);
+        BigDecimal net = gross.subtract(template.getDeductions()).subtract(lopDeduction)
+                .max(BigDecimal.ZERO).setScale(2, RoundingMode.HALF_UP);
+
+        return new Computed(template, lopDays, lopDeduction, net);
+    }
+
+    // Creates or updates the month's salary rows of one chunk (PAID rows are never touched)
+    private void writeChunk(int month, int year, List<Computed> chunk, Totals totals) {
+        // One SELECT for the chunk; employees are fetched with it, so getEmployee() costs no query
+        Map<Long, Salary> existing = new HashMap<>();
+        for (Salary salary : salaryRepository.findForEmployees(month, year,
+                chunk.stream().map(c -> c.template().getEmployeeId()).toList())) {
+            existing.put(salary.getEmployee().getId(), salary);
+        }
+
+        List<Salary> toSave = new ArrayList<>(chunk.size());
+        for (Computed c : chunk) {
+            SalaryTemplateRow t = c.template();
+            Salary salary = existing.get(t.getEmployeeId());
+            if (salary != null && salary.getStatus() == SalaryStatus.PAID) {
+                totals.skippedPaid.incrementAndGet();
+                continue;
+            }
+            if (salary == null) {
+                salary = Salary.builder()
+                        .employee(entityManager.getReference(Employee.class, t.getEmployeeId()))
+                        .month(month).year(year)
+                        .payslipDate(LocalDate.now())
+                        .status(SalaryStatus.PENDING)
+                        .build();
+                totals.created.incrementAndGet();
+            } else {
+                totals.updated.incrementAndGet();
+            }
+
+            salary.setBasicPay(t.getBasicPay());
+            salary.setHra(t.getHra());
+            salary.setAllowances(t.getAllowances());
+            salary.setDeductions(t.getDeductions());
+            salary.setBankName(t.getBankName());
+            salary.setAccountNumber(t.getAccountNumber());
+            salary.setLopDays(c.lopDays());
+            salary.setLopDeduction(c.lopDeduction());
+            salary.setNetPay(c.net());
+            toSave.add(salary);
+            totals.add(salary.grossPay(), c.lopDeduction(), c.net());
+        }
+
+        salaryRepository.saveAll(toSave);
+        entityManager.flush();
+        entityManager.clear();
+    }
+
+    // Leave days inside [from, to) that are working days of the user's office
+    private int overlapWorkingDays(LeaveSpan leave, LocalDate from, LocalDate to) {
+        LocalDate start = leave.getStartDate().isBefore(from) ? from : leave.getStartDate();
+        LocalDate end = leave.getEndDate().plusDays(1).isAfter(to) ? to : leave.getEndDate().plusDays(1);
+        return start.isBefore(end)
+                ? workingDayCalendar.workingDays(start, end, workingDayCalendar.locationOf(leave.getUserId())) : 0;
+    }
+
+    // Running totals shared by the partition workers
+    private static final class Totals {
+        final AtomicInteger created = new AtomicInteger();
+        final AtomicInteger updated = new AtomicInteger();
+        final AtomicInteger skippedPaid = new AtomicInteger();
+        private BigDecimal gross = BigDecimal.ZERO;
+        private BigDecimal lop = BigDecimal.ZERO;
+        private BigDecimal net = BigDecimal.ZERO;
+
+        synchronized void add(BigDecimal g, BigDecimal l, BigDecimal n) {
+            gross = gross.add(g);
+            lop = lop.add(l);
+            net = net.add(n);
+        }
+
+        synchronized BigDecimal gross() { return gross.setScale(2, RoundingMode.HALF_UP); }
+
+        synchronized BigDecimal lop() { return lop.setScale(2, RoundingMode.HALF_UP); }
+
+        synchronized BigDecimal net() { return net.setScale(2, RoundingMode.HALF_UP); }
+    }
+}
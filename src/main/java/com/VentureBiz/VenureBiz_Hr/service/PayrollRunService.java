@@ -0,0 +1,334 @@
+package com.VentureBiz.VenureBiz_Hr.service;
+
+import com.VentureBiz.VenureBiz_Hr.dto.PayrollRunStatus;
+import com.VentureBiz.VenureBiz_Hr.dto.SalaryLine;
+import com.VentureBiz.VenureBiz_Hr.model.Employee;
+import com.VentureBiz.VenureBiz_Hr.model.Salary;
+import com.VentureBiz.VenureBiz_Hr.model.SalaryStatus;
+import com.VentureBiz.VenureBiz_Hr.repository.EmployeeRepository;
+import com.VentureBiz.VenureBiz_Hr.repository.SalaryRepository;
+import com.VentureBiz.VenureBiz_Hr.service.csv.CsvReader;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jakarta.persistence.EntityManager;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Bulk payroll run: one call upserts the salaries of a whole month. Employees are resolved
+ * with a single IN query, lines are partitioned by employee across a small worker pool and
+ * each partition is written in chunks (one transaction and one batched flush per chunk).
+ * A salary that is already PAID is left as it is and reported as a line error.
+ * Runs are tracked in memory by job id; finished runs are kept for payroll.run.retention-minutes.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class PayrollRunService {
+
+    private final EmployeeRepository employeeRepository;
+    private final SalaryRepository salaryRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final EntityManager entityManager;
+    private final AnalyticsService analyticsService;
+
+    @Value("${payroll.run.parallelism:4}")
+    private int parallelism;
+
+    @Value("${payroll.run.chunk-size:500}")
+    private int chunkSize;
+
+    @Value("${payroll.run.max-lines:100000}")
+    private int maxLines;
+
+    @Value("${payroll.run.retention-minutes:60}")
+    private long retentionMinutes;
+
+    private ExecutorService executor;
+    private final Map<String, Run> runs = new ConcurrentHashMap<>();
+
+    // A validated line with the position it came from
+    private record Line(long line, SalaryLine salary, Long employeeId) { }
+
+    private static final class Run {
+        final String jobId = UUID.randomUUID().toString();
+        final int month;
+        final int year;
+        final int totalLines;
+        final long startNanos = System.nanoTime();
+        final LocalDateTime startedAt = LocalDateTime.now();
+        final AtomicInteger processed = new AtomicInteger();
+        final AtomicInteger created = new AtomicInteger();
+        final AtomicInteger updated = new AtomicInteger();
+        final Queue<PayrollRunStatus.LineError> errors = new ConcurrentLinkedQueue<>();
+        volatile PayrollRunStatus.State state = PayrollRunStatus.State.RUNNING;
+        volatile LocalDateTime finishedAt;
+        volatile long elapsedNanos;
+
+        Run(int month, int year, int totalLines) {
+            this.month = month;
+            this.year = year;
+            this.totalLines = totalLines;
+        }
+
+        void fail(long line, String employeeCode, String message) {
+            errors.add(new PayrollRunStatus.LineError(line, employeeCode, message));
+            processed.incrementAndGet();
+        }
+    }
+
+    @PostConstruct
+    void startPool() {
+        AtomicInteger threads = new AtomicInteger();
+        executor = Executors.newFixedThreadPool(Math.max(1, parallelism),
+                r -> new Thread(r, "payroll-run-" + threads.incrementAndGet()));
+    }
+
+    @PreDestroy
+    void stopPool() {
+        executor.shutdown();
+    }
+
+    public PayrollRunStatus submit(int month, int year, List<SalaryLine> lines) {
+        List<Line> numbered = new ArrayList<>(lines.size());
+        for (int i = 0; i < lines.size(); i++) numbered.add(new Line(i + 1, lines.get(i), null));
+        return start(month, year, numbered);
+    }
+
+    // CSV with a header row: employeeCode,basicPay,hra,allowances,deductions,bankName,accountNumber
+    public PayrollRunStatus submitCsv(int month, int year, InputStream csv) {
+        List<Line> lines = new ArrayList<>();
+        List<PayrollRunStatus.LineError> parseErrors = new ArrayList<>();
+        try (CsvReader reader = new CsvReader(csv)) {
+            if (!reader.header().contains("employeecode"))
+                throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "CSV header must include employeeCode");
+
+            for (CsvReader.Row row = reader.next(); row != null; row = reader.next()) {
+                try {
+                    lines.add(new Line(row.line(), SalaryLine.builder()
+                            .employeeCode(row.get("employeeCode"))
+                            .basicPay(number(row.get("basicPay")))
+                            .hra(number(row.get("hra")))
+                            .allowances(number(row.get("allowances")))
+                            .deductions(number(row.get("deductions")))
+                            .bankName(row.get("bankName"))
+                            .accountNumber(row.get("accountNumber"))
+                            .build(), null));
+                } catch (NumberFormatException e) {
+                    parseErrors.add(new PayrollRunStatus.LineError(row.line(), row.get("employeeCode"),
+                            "Not a number: " + e.getMessage()));
+                }
+                if (lines.size() + parseErrors.size() > maxLines) break;
+            }
+        } catch (IOException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Unreadable CSV: " + e.getMessage());
+        }
+
+        return start(month, year, lines, parseErrors);
+    }
+
+    public PayrollRunStatus status(String jobId) {
+        Run run = runs.get(jobId);
+        if (run == null) throw new ResponseStatusException(HttpStatus.NOT_FOUND, "Payroll run not found: " + jobId);
+        return snapshot(run);
+    }
+
+    private PayrollRunStatus start(int month, int year, List<Line> lines) {
+        return start(month, year, lines, List.of());
+    }
+
+    private PayrollRunStatus start(int month, int year, List<Line> lines, List<PayrollRunStatus.LineError> parseErrors) {
+        if (month < 1 || month > 12) throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Invalid month: " + month);
+        int total = lines.size() + parseErrors.size();
+        if (total == 0) throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "No salary lines supplied");
+        if (total > maxLines)
+            throw new ResponseStatusException(HttpStatus.PAYLOAD_TOO_LARGE, "At most " + maxLines + " lines per run");
+
+        evictFinished();
+        Run run = new Run(month, year, total);
+        parseErrors.forEach(e -> run.fail(e.getLine(), e.getEmployeeCode(), e.getMessage()));
+        runs.put(run.jobId, run);
+
+        List<CompletableFuture<Void>> workers = new ArrayList<>();
+        for (List<Line> partition : partition(run, lines)) {
+            workers.add(CompletableFuture.runAsync(() -> writePartition(run, partition), executor));
+        }
+
+        CompletableFuture.allOf(workers.toArray(CompletableFuture[]::new)).whenComplete((ok, error) -> {
+            run.elapsedNanos = System.nanoTime() - run.startNanos;
+            run.finishedAt = LocalDateTime.now();
+            analyticsService.invalidate(year, month);
+            if (error != null) {
+                log.error("Payroll run {} failed", run.jobId, error);
+                run.state = PayrollRunStatus.State.FAILED;
+            } else {
+                run.state = PayrollRunStatus.State.COMPLETED;
+            }
+            log.info("Payroll run {} for {}-{}: {} created, {} updated, {} failed in {} ms", run.jobId, year, month,
+                    run.created.get(), run.updated.get(), run.errors.size(), run.elapsedNanos / 1_000_000);
+        });
+
+        return snapshot(run);
+    }
+
+    // Validates, resolves employees with one query and splits the lines by employee id
+    private List<List<Line>> partition(Run run, List<Line> lines) {
+        Map<String, Line> byCode = new LinkedHashMap<>();
+        for (Line line : lines) {
+            String problem = validate(line.salary());
+            String code = problem == null ? line.salary().getEmployeeCode().trim() : null;
+            if (problem != null) run.fail(line.line(), line.salary() == null ? null : line.salary().getEmployeeCode(), problem);
+            else if (byCode.putIfAbsent(code, line) != null) run.fail(line.line(), code, "Duplicate employee in this run");
+        }
+
+        Map<String, Long> employeeIds = byCode.isEmpty() ? Map.of()
+                : employeeRepository.findByEmployeeIdIn(byCode.keySet()).stream()
+                        .collect(Collectors.toMap(Employee::getEmployeeId, Employee::getId));
+
+        // ✅ Same employee always lands in the same partition, so workers never touch the same salary row
+        int partitions = Math.max(1, parallelism);
+        List<List<Line>> partitioned = new ArrayList<>();
+        for (int i = 0; i < partitions; i++) partitioned.add(new ArrayList<>());
+        byCode.forEach((code, line) -> {
+            Long employeeId = employeeIds.get(code);
+            if (employeeId == null) run.fail(line.line(), code, "Employee not found");
+            else partitioned.get((int) Math.floorMod(employeeId, (long) partitions))
+                    .add(new Line(line.line(), line.salary(), employeeId));
+        });
+        partitioned.removeIf(List::isEmpty);
+        return partitioned;
+    }
+
+    private void writePartition(Run run, List<Line> partition) {
+        for (int from = 0; from < partition.size(); from += chunkSize) {
+            List<Line> chunk = partition.subList(from, Math.min(from + chunkSize, partition.size()));
+            List<Line> paid = new ArrayList<>();
+            try {
+                int[] counts = transactionTemplate.execute(status -> {
+                    paid.clear();
+                    return writeChunk(run, chunk, paid);
+                });
+                run.created.addAndGet(counts[0]);
+                run.updated.addAndGet(counts[1]);
+                run.processed.addAndGet(chunk.size() - paid.size());
+                paid.forEach(line -> run.fail(line.line(), line.salary().getEmployeeCode(),
+                        "Salary already PAID; use the salary update endpoint to correct it"));
+            } catch (RuntimeException e) {
+                String message = "Chunk rolled back: " + rootMessage(e);
+                chunk.forEach(line -> run.fail(line.line(), line.salary().getEmployeeCode(), message));
+            }
+        }
+    }
+
+    // Upserts one chunk: a single SELECT for existing rows, then a batched flush; returns {created, updated}
+    private int[] writeChunk(Run run, List<Line> chunk, List<Line> paid) {
+        List<Long> employeeIds = chunk.stream().map(Line::employeeId).toList();
+        Map<Long, Salary> existing = salaryRepository.findForEmployees(run.month, run.year, employeeIds).stream()
+                .collect(Collectors.toMap(s -> s.getEmployee().getId(), Function.identity(), (a, b) -> a));
+
+        int created = 0, updated = 0;
+        List<Salary> toSave = new ArrayList<>(chunk.size());
+        for (Line line : chunk) {
+            SalaryLine in = line.salary();
+            Salary salary = existing.get(line.employeeId());
+            if (salary != null && salary.getStatus() == SalaryStatus.PAID) {
+                paid.add(line);
+                continue;
+            }
+            if (salary == null) {
+                salary = Salary.builder()
+                        .employee(entityManager.getReference(Employee.class, line.employeeId()))
+                        .month(run.month).year(run.year)
+                        .payslipDate(LocalDate.now()).status(SalaryStatus.PENDING)
+                        .build();
+                created++;
+            } else {
+                updated++;
+            }
+
+            salary.setBasicPay(in.getBasicPay());
+            salary.setHra(in.getHra());
+            salary.setAllowances(in.getAllowances());
+            salary.setDeductions(in.getDeductions());
+            salary.setBankName(in.getBankName());
+            salary.setAccountNumber(in.getAccountNumber());
+            if (salary.getPayslipDate() == null) salary.setPayslipDate(LocalDate.now());
+            salary.calculateNetPay();
+            toSave.add(salary);
+        }
+
+        salaryRepository.saveAll(toSave);
+        entityManager.flush();
+        entityManager.clear();
+        return new int[]{created, updated};
+    }
+
+    private static String validate(SalaryLine line) {
+        if (line == null) return "Empty line";
+        if (line.getEmployeeCode() == null || line.getEmployeeCode().isBlank()) return "employeeCode is required";
+        if (line.getBasicPay() == null || line.getHra() == null
+                || line.getAllowances() == null || line.getDeductions() == null)
+            return "basicPay, hra, allowances and deductions are required";
+        if (line.getBasicPay().signum() < 0 || line.getHra().signum() < 0
+                || line.getAllowances().signum() < 0 || line.getDeductions().signum() < 0)
+            return "Amounts cannot be negative";
+        if (line.getBankName() == null || line.getAccountNumber() == null)
+            return "bankName and accountNumber are required";
+        return null;
+    }
+
+    private static BigDecimal number(String value) {
+        return value == null ? null : new BigDecimal(value);
+    }
+
+    private static String rootMessage(Throwable e) {
+        while (e.getCause() != null) e = e.getCause();
+        return e.getMessage();
+    }
+
+    private void evictFinished() {
+        LocalDateTime cutoff = LocalDateTime.now().minus(Duration.ofMinutes(retentionMinutes));
+        runs.values().removeIf(r -> r.finishedAt != null && r.finishedAt.isBefore(cutoff));
+    }
+
+    private static PayrollRunStatus snapshot(Run run) {
+        long elapsed = run.finishedAt != null ? run.elapsedNanos : System.nanoTime() - run.startNanos;
+        int processed = run.processed.get();
+        List<PayrollRunStatus.LineError> errors = new ArrayList<>(run.errors);
+        errors.sort(Comparator.comparingLong(PayrollRunStatus.LineError::getLine));
+
+        return PayrollRunStatus.builder()
+                .jobId(run.jobId)
+                .month(run.month)
+                .year(run.year)
+                .state(run.state)
+                .totalLines(run.totalLines)
+                .processed(processed)
+                .created(run.created.get())
+                .updated(run.updated.get())
+                .failed(errors.size())
+                .errors(errors)
+                .startedAt(run.startedAt)
+                .finishedAt(run.finishedAt)
+                .elapsedMs(elapsed / 1_000_000)
+                .linesPerSecond(elapsed == 0 ? 0 : processed * 1_000_000_000.0 / elapsed)
+                .build();
+    }
+}
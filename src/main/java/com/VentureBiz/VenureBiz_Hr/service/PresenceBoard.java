@@ -0,0 +1,106 @@
+package com.VentureBiz.VenureBiz_Hr.service;
+
+import com.VentureBiz.VenureBiz_Hr.dto.LiveAttendanceCounts;
+import com.VentureBiz.VenureBiz_Hr.dto.PresenceRow;
+import com.VentureBiz.VenureBiz_Hr.repository.AttendanceRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * In-memory "who is in today" board keyed by user id. Answers check-in/check-out
+ * questions without SQL; rebuilt from the attendance table at startup and at midnight.
+ * The attendance table stays authoritative: its (user_id, date) unique key rejects any
+ * duplicate the board lets through.
+ */
+@Component
+@RequiredArgsConstructor
+public class PresenceBoard {
+
+    public record Presence(LocalTime checkIn, LocalTime checkOut) { }
+
+    private record Day(LocalDate date, ConcurrentHashMap<Long, Presence> entries) { }
+
+    private final AttendanceRepository attendanceRepository;
+    private final AtomicReference<Day> today = new AtomicReference<>(new Day(LocalDate.MIN, new ConcurrentHashMap<>()));
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void loadOnStartup() {
+        rebuild(LocalDate.now());
+    }
+
+    // Midnight rollover
+    @Scheduled(cron = "0 0 0 * * *")
+    public void rollOver() {
+        rebuild(LocalDate.now());
+    }
+
+    public synchronized void rebuild(LocalDate date) {
+        ConcurrentHashMap<Long, Presence> entries = new ConcurrentHashMap<>();
+        for (PresenceRow row : attendanceRepository.findPresence(date)) {
+            entries.put(row.getUserId(), new Presence(row.getCheckInTime(), row.getCheckOutTime()));
+        }
+        today.set(new Day(date, entries));
+    }
+
+    // True if this call registered the check-in, false if the user was already on the board
+    public boolean tryCheckIn(Long userId, LocalDate date, LocalTime at) {
+        return board(date).putIfAbsent(userId, new Presence(at, null)) == null;
+    }
+
+    public Presence get(Long userId, LocalDate date) {
+        return board(date).get(userId);
+    }
+
+    // Keeps the board in step with HR edits and rolled-back writes; ignored for other days
+    public void put(Long userId, LocalDate date, LocalTime checkIn, LocalTime checkOut) {
+        Day day = today.get();
+        if (userId == null || !day.date().equals(date)) return;
+        if (checkIn == null) day.entries().remove(userId);
+        else day.entries().put(userId, new Presence(checkIn, checkOut));
+    }
+
+    public void forget(Long userId, LocalDate date) {
+        put(userId, date, null, null);
+    }
+
+    // Today's entries (copy) for the live dashboard snapshot
+    public Map<Long, Presence> entries() {
+        return Map.copyOf(board(LocalDate.now()));
+    }
+
+    public LiveAttendanceCounts counts() {
+        LocalDate date = LocalDate.now();
+        long present = 0, late = 0, pending = 0, checkedOut = 0;
+        for (Presence p : board(date).values()) {
+            present++;
+            if (AttendanceRules.isLate(p.checkIn())) late++;
+            if (p.checkOut() == null) pending++;
+            else checkedOut++;
+        }
+        return new LiveAttendanceCounts(date, present, late, pending, checkedOut);
+    }
+
+    private ConcurrentHashMap<Long, Presence> board(LocalDate date) {
+        Day day = today.get();
+        if (!day.date().equals(date)) {
+            // A request raced the midnight job (or startup); load the day now
+            synchronized (this) {
+                day = today.get();
+                if (!day.date().equals(date)) {
+                    rebuild(date);
+                    day = today.get();
+                }
+            }
+        }
+        return day.entries();
+    }
+}
@@ -0,0 +1,314 @@
+package com.VentureBiz.VenureBiz_Hr.service;
+
+import com.VentureBiz.VenureBiz_Hr.dto.EmployeeUserId;
+import com.VentureBiz.VenureBiz_Hr.dto.PunchImportReport;
+import com.VentureBiz.VenureBiz_Hr.dto.PunchState;
+import com.VentureBiz.VenureBiz_Hr.repository.AttendanceRepository;
+import com.VentureBiz.VenureBiz_Hr.repository.EmployeeRepository;
+import com.VentureBiz.VenureBiz_Hr.service.csv.CsvReader;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.sql.Date;
+import java.sql.Time;
+import java.time.*;
+import java.time.format.DateTimeParseException;
+import java.util.*;
+
+/**
+ * Bulk import of biometric terminal punch logs (CSV with header employeeCode,deviceId,timestamp
+ * or NDJSON with the same fields). Employee codes are resolved in one query per thousand;
+ * repeated punches (same employee and timestamp, from any device) are dropped, and the rest
+ * fold into first-in/last-out per user and day. Each chunk of days is merged with the
+ * existing rows (locked), so earlier punches or a manual check-in widen rather than replace
+ * the times, and upserted with one JDBC batch plus its rollup deltas in one transaction.
+ * Status follows {@link AttendanceRules#determineFinalStatus}; a day with a single punch
+ * stays PENDING today and becomes HALF_DAY for past days, as the nightly job would make it.
+ * Re-importing the same file changes nothing.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class PunchImportService {
+
+    public enum Format { CSV, NDJSON }
+
+    private static final String UPSERT =
+            "INSERT INTO attendance (user_id, date, check_in_time, check_out_time, status) VALUES (?, ?, ?, ?, ?) " +
+            "ON DUPLICATE KEY UPDATE check_in_time = VALUES(check_in_time), " +
+            "check_out_time = VALUES(check_out_time), status = VALUES(status)";
+    private static final int CODE_CHUNK = 1000;
+
+    private final EmployeeRepository employeeRepository;
+    private final AttendanceRepository attendanceRepository;
+    private final AttendanceRollupService attendanceRollupService;
+    private final WorkingDayCalendar workingDayCalendar;
+    private final PresenceBoard presenceBoard;
+    private final AttendanceFeed attendanceFeed;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final ObjectMapper objectMapper;
+
+    @Value("${attendance.import.batch-size:1000}")
+    private int batchSize;
+
+    @Value("${attendance.import.max-lines:200000}")
+    private int maxLines;
+
+    private record Raw(long line, String employeeCode, LocalDateTime at) { }
+
+    private record DayKey(long userId, LocalDate date) { }
+
+    private static final Comparator<DayKey> BY_USER_DAY =
+            Comparator.comparingLong(DayKey::userId).thenComparing(DayKey::date);
+
+    // Earliest and latest punch of one user on one day
+    private static final class Span {
+        LocalTime first;
+        LocalTime last;
+
+        void add(LocalTime t) {
+            if (first == null || t.isBefore(first)) first = t;
+            if (last == null || t.isAfter(last)) last = t;
+        }
+    }
+
+    // An employee-day after merging the imported punches with the stored row
+    record DayRow(LocalTime checkIn, LocalTime checkOut, String status) {
+
+        boolean sameAs(PunchState current) {
+            return current != null && checkIn.equals(current.getCheckInTime())
+                    && Objects.equals(checkOut, current.getCheckOutTime()) && status.equals(current.getStatus());
+        }
+    }
+
+    // The merged row to write, and what it was before
+    private record Merged(DayKey key, LocalTime checkIn, LocalTime checkOut, String status, String previousStatus) { }
+
+    // Format from the file name when not given: .ndjson/.jsonl/.json are NDJSON, anything else CSV
+    public static Format formatOf(String fileName) {
+        String name = fileName == null ? "" : fileName.toLowerCase(Locale.ROOT);
+        return name.endsWith(".ndjson") || name.endsWith(".jsonl") || name.endsWith(".json") ? Format.NDJSON : Format.CSV;
+    }
+
+    public PunchImportReport importPunches(InputStream in, Format format) throws IOException {
+        long start = System.currentTimeMillis();
+        List<PunchImportReport.LineError> errors = new ArrayList<>();
+        List<Raw> raws = format == Format.NDJSON ? readNdjson(in, errors) : readCsv(in, errors);
+        long lines = raws.size() + errors.size();
+
+        // ✅ One query per thousand distinct codes
+        Map<String, Long> userIds = resolve(raws);
+
+        LocalDateTime now = LocalDateTime.now();
+        Set<List<Object>> seen = new HashSet<>();
+        Map<DayKey, Span> spans = new TreeMap<>(BY_USER_DAY);
+        long accepted = 0, duplicates = 0;
+        for (Raw raw : raws) {
+            Long userId = userIds.get(raw.employeeCode());
+            if (userId == null) {
+                errors.add(new PunchImportReport.LineError(raw.line(), raw.employeeCode(), "Unknown employee code"));
+                continue;
+            }
+            if (raw.at().isAfter(now)) {
+                errors.add(new PunchImportReport.LineError(raw.line(), raw.employeeCode(), "Timestamp is in the future"));
+                continue;
+            }
+            if (!seen.add(List.of(userId, raw.at()))) {
+                duplicates++;
+                continue;
+            }
+            LocalDate date = raw.at().toLocalDate();
+            if (!workingDayCalendar.isWorkingDay(userId, date)) {
+                errors.add(new PunchImportReport.LineError(raw.line(), raw.employeeCode(), date + " is not a working day"));
+                continue;
+            }
+            spans.computeIfAbsent(new DayKey(userId, date), k -> new Span()).add(raw.at().toLocalTime());
+            accepted++;
+        }
+
+        int[] totals = new int[3]; // inserted, updated, unchanged
+        List<Map.Entry<DayKey, Span>> days = new ArrayList<>(spans.entrySet());
+        int step = Math.max(1, batchSize);
+        for (int i = 0; i < days.size(); i += step) {
+            List<Map.Entry<DayKey, Span>> chunk = days.subList(i, Math.min(i + step, days.size()));
+            List<Merged> written = transactionTemplate.execute(status -> writeChunk(chunk, totals));
+            publishToday(written);
+        }
+
+        errors.sort(Comparator.comparingLong(PunchImportReport.LineError::getLine));
+        long elapsed = System.currentTimeMillis() - start;
+        log.info("Punch import: {} lines, {} accepted, {} duplicates, {} days ({} inserted, {} updated), {} failed in {} ms",
+                lines, accepted, duplicates, days.size(), totals[0], totals[1], errors.size(), elapsed);
+
+        return PunchImportReport.builder()
+                .lines(lines)
+                .accepted(accepted)
+                .duplicates(duplicates)
+                .days(days.size())
+                .inserted(totals[0])
+                .updated(totals[1])
+                .unchanged(totals[2])
+                .failed(errors.size())
+                .errors(errors)
+                .elapsedMs(elapsed)
+                .build();
+    }
+
+    private List<Merged> writeChunk(List<Map.Entry<DayKey, Span>> chunk, int[] totals) {
+        Set<Long> users = new HashSet<>();
+        LocalDate from = LocalDate.MAX, to = LocalDate.MIN;
+        for (Map.Entry<DayKey, Span> e : chunk) {
+            users.add(e.getKey().userId());
+            if (e.getKey().date().isBefore(from)) from = e.getKey().date();
+            if (e.getKey().date().isAfter(to)) to = e.getKey().date();
+        }
+        Map<DayKey, PunchState> existing = new HashMap<>();
+        for (PunchState s : attendanceRepository.lockPunchStates(users, from, to)) {
+            existing.put(new DayKey(s.getUserId(), s.getDate()), s);
+        }
+
+        LocalDate today = LocalDate.now();
+        List<Merged> merged = new ArrayList<>();
+        List<Object[]> args = new ArrayList<>();
+        List<AttendanceRollupService.StatusChange> changes = new ArrayList<>();
+        for (Map.Entry<DayKey, Span> e : chunk) {
+            DayKey key = e.getKey();
+            PunchState current = existing.get(key);
+
+            DayRow row = merge(e.getValue().first, e.getValue().last, current, key.date(), today);
+            if (row.sameAs(current)) {
+                totals[2]++;
+                continue;
+            }
+            totals[current == null ? 0 : 1]++;
+            String previous = current == null ? null : current.getStatus();
+            merged.add(new Merged(key, row.checkIn(), row.checkOut(), row.status(), previous));
+            args.add(new Object[]{key.userId(), Date.valueOf(key.date()), Time.valueOf(row.checkIn()),
+                    row.checkOut() == null ? null : Time.valueOf(row.checkOut()), row.status()});
+            changes.add(new AttendanceRollupService.StatusChange(key.userId(), key.date(), previous, row.status()));
+        }
+
+        if (!args.isEmpty()) jdbcTemplate.batchUpdate(UPSERT, args);
+        attendanceRollupService.applyChanges(changes);
+        return merged;
+    }
+
+    /*
+     * first/last: the day's earliest and latest imported punch. A stored check-in before first or check-out
+     * after last widens the span; one distinct time is a single punch (check-in only), which stays PENDING
+     * today and is HALF_DAY for a past day.
+     */
+    static DayRow merge(LocalTime first, LocalTime last, PunchState current, LocalDate date, LocalDate today) {
+        LocalTime in = first, out = last;
+        if (current != null) {
+            if (current.getCheckInTime() != null && current.getCheckInTime().isBefore(in)) in = current.getCheckInTime();
+            if (current.getCheckOutTime() != null && current.getCheckOutTime().isAfter(out)) out = current.getCheckOutTime();
+        }
+        if (out.equals(in)) out = null;
+        String status = out != null ? AttendanceRules.determineFinalStatus(in, out)
+                : date.isBefore(today) ? "HALF_DAY" : "PENDING";
+        return new DayRow(in, out, status);
+    }
+
+    // Today's rows feed the presence board and the live dashboard once committed
+    private void publishToday(List<Merged> written) {
+        LocalDate today = LocalDate.now();
+        for (Merged m : written) {
+            if (!m.key().date().equals(today)) continue;
+            presenceBoard.put(m.key().userId(), today, m.checkIn(), m.checkOut());
+            attendanceFeed.edited(m.key().userId(), today, m.checkIn(), m.checkOut(), m.status());
+        }
+    }
+
+    private Map<String, Long> resolve(List<Raw> raws) {
+        List<String> codes = raws.stream().map(Raw::employeeCode).distinct().toList();
+        Map<String, Long> userIds = new HashMap<>();
+        for (int i = 0; i < codes.size(); i += CODE_CHUNK) {
+            for (EmployeeUserId row : employeeRepository.findUserIdsByEmployeeCodes(
+                    codes.subList(i, Math.min(i + CODE_CHUNK, codes.size())))) {
+                if (row.getUserId() != null) userIds.put(row.getEmployeeCode(), row.getUserId());
+            }
+        }
+        return userIds;
+    }
+
+    private List<Raw> readCsv(InputStream in, List<PunchImportReport.LineError> errors) throws IOException {
+        List<Raw> raws = new ArrayList<>();
+        try (CsvReader reader = new CsvReader(in)) {
+            if (!reader.header().contains("employeecode") || !reader.header().contains("timestamp"))
+                throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "CSV header must contain employeeCode and timestamp");
+            for (CsvReader.Row row = reader.next(); row != null; row = reader.next()) {
+                checkLimit(raws.size() + errors.size());
+                add(row.line(), row.get("employeeCode"), row.get("timestamp"), raws, errors);
+            }
+        }
+        return raws;
+    }
+
+    private List<Raw> readNdjson(InputStream in, List<PunchImportReport.LineError> errors) throws IOException {
+        List<Raw> raws = new ArrayList<>();
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8), 64 * 1024)) {
+            long line = 0;
+            for (String text = reader.readLine(); text != null; text = reader.readLine()) {
+                line++;
+                if (text.isBlank()) continue;
+                checkLimit(raws.size() + errors.size());
+                JsonNode node;
+                try {
+                    node = objectMapper.readTree(text);
+                } catch (IOException e) {
+                    errors.add(new PunchImportReport.LineError(line, null, "Invalid JSON"));
+                    continue;
+                }
+                add(line, text(node, "employeeCode"), text(node, "timestamp"), raws, errors);
+            }
+        }
+        return raws;
+    }
+
+    private static void add(long line, String code, String timestamp, List<Raw> raws, List<PunchImportReport.LineError> errors) {
+        if (code == null || timestamp == null) {
+            errors.add(new PunchImportReport.LineError(line, code, "employeeCode and timestamp are required"));
+            return;
+        }
+        try {
+            raws.add(new Raw(line, code, parseTimestamp(timestamp)));
+        } catch (DateTimeParseException e) {
+            errors.add(new PunchImportReport.LineError(line, code, "Invalid timestamp: " + timestamp));
+        }
+    }
+
+    // ISO local ("2025-02-10T09:01:00" or with a space) or with an offset, converted to server time
+    static LocalDateTime parseTimestamp(String value) {
+        String iso = value.trim().replace(' ', 'T');
+        try {
+            return LocalDateTime.parse(iso);
+        } catch (DateTimeParseException e) {
+            return OffsetDateTime.parse(iso).atZoneSameInstant(ZoneId.systemDefault()).toLocalDateTime();
+        }
+    }
+
+    private static String text(JsonNode node, String field) {
+        JsonNode value = node.get(field);
+        return value == null || value.isNull() || value.asText().isBlank() ? null : value.asText().trim();
+    }
+
+    private void checkLimit(int read) {
+        if (read >= maxLines)
+            throw new ResponseStatusException(HttpStatus.PAYLOAD_TOO_LARGE, "At most " + maxLines + " punches per import");
+    }
+}
@@ -0,0 +1,45 @@
+package com.VentureBiz.VenureBiz_Hr.service;
+
+import com.VentureBiz.VenureBiz_Hr.model.SalaryStatus;
+import com.VentureBiz.VenureBiz_Hr.repository.SalaryRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+
+/**
+ * Month-level salary status changes. Each one is a single UPDATE on the salaries table,
+ * so closing or paying a month never loads the rows into memory.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class SalaryLifecycleService {
+
+    private final SalaryRepository salaryRepository;
+    private final AnalyticsService analyticsService;
+
+    // CURRENT -> PENDING for a closed month
+    @Transactional
+    public int closeMonth(int month, int year) {
+        long start = System.currentTimeMillis();
+        int updated = salaryRepository.transitionStatus(month, year, SalaryStatus.CURRENT, SalaryStatus.PENDING);
+        log.info("Salary month close {}-{}: {} CURRENT -> PENDING in {} ms",
+                year, month, updated, System.currentTimeMillis() - start);
+        analyticsService.invalidate(year, month);
+        return updated;
+    }
+
+    // Everything not yet PAID in the month -> PAID with the given paid date
+    @Transactional
+    public int markMonthPaid(int month, int year, LocalDate paidDate) {
+        long start = System.currentTimeMillis();
+        int updated = salaryRepository.markMonthPaid(month, year, paidDate);
+        log.info("Salary month {}-{} marked PAID on {}: {} rows in {} ms",
+                year, month, paidDate, updated, System.currentTimeMillis() - start);
+        analyticsService.invalidate(year, month);
+        return updated;
+    }
+}
@@ -0,0 +1,127 @@
+package com.VentureBiz.VenureBiz_Hr.service;
+
+import com.VentureBiz.VenureBiz_Hr.dto.UserLocation;
+import com.VentureBiz.VenureBiz_Hr.repository.EmployeeRepository;
+import com.VentureBiz.VenureBiz_Hr.repository.HolidayRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Working days per office location: one bit per day of the year (bit = day of year - 1),
+ * set for weekdays that are neither a company-wide holiday nor a holiday of that office.
+ * Built on first use from one query and cached; {@link #invalidate} drops a year after
+ * holidays change. Employees without an office location follow the company-wide calendar.
+ * A user's location is looked up in a small map of users that have one, reloaded lazily
+ * after employee edits.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class WorkingDayCalendar {
+
+    private final HolidayRepository holidayRepository;
+    private final EmployeeRepository employeeRepository;
+
+    private record Key(String location, int year) { }
+
+    private final Map<Key, BitSet> years = new ConcurrentHashMap<>();
+    // Bumped on every invalidation so a bitset built from stale holidays is not cached
+    private final AtomicLong generation = new AtomicLong();
+    private volatile Map<Long, String> locations;
+    private final AtomicLong locationGeneration = new AtomicLong();
+
+    // Weekday and not a company-wide holiday: some office is open (the nightly job runs)
+    public boolean isCompanyWorkingDay(LocalDate date) {
+        return isWorkingDay(date, null);
+    }
+
+    public boolean isWorkingDay(LocalDate date, String location) {
+        return bits(location, date.getYear()).get(date.getDayOfYear() - 1);
+    }
+
+    public boolean isWorkingDay(Long userId, LocalDate date) {
+        return isWorkingDay(date, locationOf(userId));
+    }
+
+    // Working days in [from, to) for an office (null = company-wide calendar)
+    public int workingDays(LocalDate from, LocalDate to, String location) {
+        int days = 0;
+        for (LocalDate start = from; start.isBefore(to); ) {
+            LocalDate nextYear = LocalDate.of(start.getYear() + 1, 1, 1);
+            LocalDate end = to.isBefore(nextYear) ? to : nextYear;
+            int endIndex = end.equals(nextYear) ? start.lengthOfYear() : end.getDayOfYear() - 1;
+            days += bits(location, start.getYear()).get(start.getDayOfYear() - 1, endIndex).cardinality();
+            start = end;
+        }
+        return days;
+    }
+
+    public String locationOf(Long userId) {
+        if (userId == null) return null;
+        Map<Long, String> current = locations;
+        if (current == null) current = loadLocations();
+        return current.get(userId);
+    }
+
+    // Holidays of a year changed
+    public void invalidate(int year) {
+        generation.incrementAndGet();
+        years.keySet().removeIf(k -> k.year() == year);
+    }
+
+    // An employee's office location may have changed
+    public void refreshLocations() {
+        locationGeneration.incrementAndGet();
+        locations = null;
+    }
+
+    // Nightly reset picks up changes made by another instance
+    @Scheduled(cron = "0 20 2 * * *")
+    public void clear() {
+        generation.incrementAndGet();
+        years.clear();
+        refreshLocations();
+    }
+
+    private BitSet bits(String location, int year) {
+        Key key = new Key(location, year);
+        BitSet cached = years.get(key);
+        if (cached != null) return cached;
+
+        long before = generation.get();
+        LocalDate first = LocalDate.ofYearDay(year, 1);
+        BitSet bits = new BitSet(first.lengthOfYear());
+        for (LocalDate d = first; d.getYear() == year; d = d.plusDays(1)) {
+            if (d.getDayOfWeek() != DayOfWeek.SATURDAY && d.getDayOfWeek() != DayOfWeek.SUNDAY) {
+                bits.set(d.getDayOfYear() - 1);
+            }
+        }
+        for (LocalDate closed : holidayRepository.findClosedDays(first, first.plusYears(1), location)) {
+            bits.clear(closed.getDayOfYear() - 1);
+        }
+        if (generation.get() == before) years.put(key, bits);
+        return bits;
+    }
+
+    private synchronized Map<Long, String> loadLocations() {
+        if (locations != null) return locations;
+        long before = locationGeneration.get();
+        Map<Long, String> loaded = new HashMap<>();
+        for (UserLocation row : employeeRepository.findUserLocations()) {
+            if (row.getUserId() != null) loaded.put(row.getUserId(), row.getOfficeLocation());
+        }
+        if (locationGeneration.get() == before) locations = loaded;
+        log.info("Working-day calendar: {} users with an office location", loaded.size());
+        return loaded;
+    }
+}
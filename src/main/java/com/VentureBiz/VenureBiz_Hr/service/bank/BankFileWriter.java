@@ -0,0 +1,40 @@
+package com.VentureBiz.VenureBiz_Hr.service.bank;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.OutputStream;
+
+/**
+ * Record-at-a-time writer for bulk salary transfer files: a file header, one batch per
+ * bank (header, credits, trailer with count and total) and a file trailer with control
+ * totals. Amounts are in minor units (paise/cents).
+ */
+public interface BankFileWriter extends Closeable {
+
+    void fileHeader(String company, int year, int month, String generatedOn) throws IOException;
+
+    void batchHeader(int batch, String bankName) throws IOException;
+
+    void credit(String employeeCode, String name, String accountNumber, long amountMinor) throws IOException;
+
+    void batchTrailer(int batch, long count, long totalMinor) throws IOException;
+
+    void fileTrailer(int batches, long count, long totalMinor) throws IOException;
+
+    enum Format {
+        CSV("text/csv", "csv"),
+        FIXED("text/plain", "txt");
+
+        public final String contentType;
+        public final String extension;
+
+        Format(String contentType, String extension) {
+            this.contentType = contentType;
+            this.extension = extension;
+        }
+    }
+
+    static BankFileWriter open(Format format, OutputStream out) {
+        return format == Format.FIXED ? new FixedWidthBankFileWriter(out) : new CsvBankFileWriter(out);
+    }
+}
@@ -0,0 +1,63 @@
+package com.VentureBiz.VenureBiz_Hr.service.bank;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+
+// record_type,batch,party,reference,name,account_number,count,amount_minor (RFC 4180 quoting);
+// party is the company (FH) or bank, reference the period (FH) or employee code (CR)
+class CsvBankFileWriter implements BankFileWriter {
+
+    private final Writer writer;
+    private String bank;
+
+    CsvBankFileWriter(OutputStream out) {
+        this.writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8), 64 * 1024);
+    }
+
+    @Override
+    public void fileHeader(String company, int year, int month, String generatedOn) throws IOException {
+        line("record_type", "batch", "party", "reference", "name", "account_number", "count", "amount_minor");
+        line("FH", "", company, String.format("%d%02d", year, month), generatedOn, "", "", "");
+    }
+
+    @Override
+    public void batchHeader(int batch, String bankName) throws IOException {
+        bank = bankName;
+        line("BH", String.valueOf(batch), bankName, "", "", "", "", "");
+    }
+
+    @Override
+    public void credit(String employeeCode, String name, String accountNumber, long amountMinor) throws IOException {
+        line("CR", "", bank, employeeCode, name, accountNumber, "", String.valueOf(amountMinor));
+    }
+
+    @Override
+    public void batchTrailer(int batch, long count, long totalMinor) throws IOException {
+        line("BT", String.valueOf(batch), bank, "", "", "", String.valueOf(count), String.valueOf(totalMinor));
+    }
+
+    @Override
+    public void fileTrailer(int batches, long count, long totalMinor) throws IOException {
+        line("FT", String.valueOf(batches), "", "", "", "", String.valueOf(count), String.valueOf(totalMinor));
+    }
+
+    private void line(String... values) throws IOException {
+        for (int i = 0; i < values.length; i++) {
+            if (i > 0) writer.write(',');
+            String v = values[i] == null ? "" : values[i];
+            if (v.indexOf(',') >= 0 || v.indexOf('"') >= 0 || v.indexOf('\n') >= 0 || v.indexOf('\r') >= 0) {
+                writer.write('"');
+                writer.write(v.replace("\"", "\"\""));
+                writer.write('"');
+            } else {
+                writer.write(v);
+            }
+        }
+        writer.write("\r\n");
+    }
+
+    @Override
+    public void close() throws IOException {
+        writer.flush();
+    }
+}
@@ -0,0 +1,77 @@
+package com.VentureBiz.VenureBiz_Hr.service.bank;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.text.Normalizer;
+
+/**
+ * 120-character ASCII records, text left-aligned and space-padded, numbers right-aligned
+ * and zero-padded:
+ * <pre>
+ * FH company(35) period YYYYMM(6) generated YYYYMMDD(8)
+ * BH batch(5) bank(35)
+ * CR employeeCode(15) name(35) account(20) amountMinor(15)
+ * BT batch(5) count(9) totalMinor(18)
+ * FT batches(5) count(9) totalMinor(18)
+ * </pre>
+ */
+class FixedWidthBankFileWriter implements BankFileWriter {
+
+    private static final int WIDTH = 120;
+
+    private final Writer writer;
+
+    FixedWidthBankFileWriter(OutputStream out) {
+        this.writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.US_ASCII), 64 * 1024);
+    }
+
+    @Override
+    public void fileHeader(String company, int year, int month, String generatedOn) throws IOException {
+        record("FH" + text(company, 35) + String.format("%d%02d", year, month) + text(generatedOn, 8));
+    }
+
+    @Override
+    public void batchHeader(int batch, String bankName) throws IOException {
+        record("BH" + number(batch, 5) + text(bankName, 35));
+    }
+
+    @Override
+    public void credit(String employeeCode, String name, String accountNumber, long amountMinor) throws IOException {
+        record("CR" + text(employeeCode, 15) + text(name, 35) + text(accountNumber, 20) + number(amountMinor, 15));
+    }
+
+    @Override
+    public void batchTrailer(int batch, long count, long totalMinor) throws IOException {
+        record("BT" + number(batch, 5) + number(count, 9) + number(totalMinor, 18));
+    }
+
+    @Override
+    public void fileTrailer(int batches, long count, long totalMinor) throws IOException {
+        record("FT" + number(batches, 5) + number(count, 9) + number(totalMinor, 18));
+    }
+
+    private void record(String body) throws IOException {
+        writer.write(text(body, WIDTH));
+        writer.write("\r\n");
+    }
+
+    // Accents stripped and anything else non-ASCII replaced, then cut/padded to width
+    private static String text(String value, int width) {
+        String ascii = value == null ? "" : Normalizer.normalize(value, Normalizer.Form.NFD)
+                .replaceAll("\\p{M}", "")
+                .replaceAll("[^\\x20-\\x7E]", "?");
+        if (ascii.length() >= width) return ascii.substring(0, width);
+        return ascii + " ".repeat(width - ascii.length());
+    }
+
+    private static String number(long value, int width) {
+        String digits = Long.toString(value);
+        if (digits.length() > width) throw new IllegalArgumentException("Value " + value + " exceeds " + width + " digits");
+        return "0".repeat(width - digits.length()) + digits;
+    }
+
+    @Override
+    public void close() throws IOException {
+        writer.flush();
+    }
+}
@@ -0,0 +1,102 @@
+package com.VentureBiz.VenureBiz_Hr.service.csv;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+
+/**
+ * Minimal RFC 4180 reader (the counterpart of the export CSV writer). The first record is
+ * the header; {@link #next()} returns each following record keyed by lower-cased column name.
+ */
+public class CsvReader implements Closeable {
+
+    public record Row(long line, Map<String, String> values) {
+        public String get(String column) {
+            String value = values.get(column.toLowerCase(Locale.ROOT));
+            return value == null || value.isBlank() ? null : value.trim();
+        }
+    }
+
+    private final Reader reader;
+    private final List<String> header;
+    private long line = 1;
+    private int peeked = -2;
+
+    public CsvReader(InputStream in) throws IOException {
+        this.reader = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8), 64 * 1024);
+        List<String> columns = readRecord();
+        if (columns == null) throw new IOException("CSV is empty");
+        this.header = columns.stream().map(c -> c.replace("\uFEFF", "").trim().toLowerCase(Locale.ROOT)).toList();
+    }
+
+    public List<String> header() {
+        return header;
+    }
+
+    // Next data record, or null at end of input; blank lines are skipped
+    public Row next() throws IOException {
+        while (true) {
+            long start = line;
+            List<String> fields = readRecord();
+            if (fields == null) return null;
+            if (fields.size() == 1 && fields.get(0).isBlank()) continue;
+
+            Map<String, String> values = new HashMap<>();
+            for (int i = 0; i < header.size() && i < fields.size(); i++) values.put(header.get(i), fields.get(i));
+            return new Row(start, values);
+        }
+    }
+
+    private List<String> readRecord() throws IOException {
+        int c = read();
+        if (c == -1) return null;
+
+        List<String> fields = new ArrayList<>();
+        StringBuilder field = new StringBuilder();
+        boolean quoted = false;
+        while (true) {
+            if (quoted) {
+                if (c == -1) throw new IOException("Unterminated quoted field at line " + line);
+                if (c == '"') {
+                    if (peek() == '"') { read(); field.append('"'); }
+                    else quoted = false;
+                } else {
+                    if (c == '\n') line++;
+                    field.append((char) c);
+                }
+            } else if (c == '"' && field.isEmpty()) {
+                quoted = true;
+            } else if (c == ',') {
+                fields.add(field.toString());
+                field.setLength(0);
+            } else if (c == '\r' || c == '\n' || c == -1) {
+                if (c == '\r' && peek() == '\n') read();
+                if (c != -1) line++;
+                fields.add(field.toString());
+                return fields;
+            } else {
+                field.append((char) c);
+            }
+            c = read();
+        }
+    }
+
+    private int read() throws IOException {
+        if (peeked != -2) {
+            int c = peeked;
+            peeked = -2;
+            return c;
+        }
+        return reader.read();
+    }
+
+    private int peek() throws IOException {
+        if (peeked == -2) peeked = reader.read();
+        return peeked;
+    }
+
+    @Override
+    public void close() throws IOException {
+        reader.close();
+    }
+}
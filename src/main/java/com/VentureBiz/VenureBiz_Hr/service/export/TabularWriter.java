@@ -0,0 +1,33 @@
+package com.VentureBiz.VenureBiz_Hr.service.export;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.OutputStream;
+
+/**
+ * Row-at-a-time writer for register exports. Implementations never hold more than a
+ * small window of rows in memory, so an export costs the same heap for any row count.
+ */
+public interface TabularWriter extends Closeable {
+
+    void header(String... columns) throws IOException;
+
+    void row(Object... values) throws IOException;
+
+    enum Format {
+        CSV("text/csv", "csv"),
+        XLSX("application/vnd.openxmlformats-officedocument.spreadsheetml.sheet", "xlsx");
+
+        public final String contentType;
+        public final String extension;
+
+        Format(String contentType, String extension) {
+            this.contentType = contentType;
+            this.extension = extension;
+        }
+    }
+
+    static TabularWriter open(Format format, OutputStream out, String sheetName) {
+        return format == Format.XLSX ? new XlsxTabularWriter(out, sheetName) : new CsvTabularWriter(out);
+    }
+}
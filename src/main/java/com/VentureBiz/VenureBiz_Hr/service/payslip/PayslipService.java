@@ -0,0 +1,245 @@
+package com.VentureBiz.VenureBiz_Hr.service.payslip;
+
+import com.VentureBiz.VenureBiz_Hr.dto.PayslipSource;
+import com.VentureBiz.VenureBiz_Hr.model.SalaryStatus;
+import com.VentureBiz.VenureBiz_Hr.repository.PayslipRepository;
+import com.VentureBiz.VenureBiz_Hr.repository.SalaryRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.math.BigDecimal;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.LocalDateTime;
+import java.time.Month;
+import java.time.format.TextStyle;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+/**
+ * Server-side payslip PDFs. Rendering runs on a bounded pool (payslip.render.*); a full
+ * queue answers 503. A PAID salary's payslip is stored in the payslips table the first time
+ * it is rendered and served from there afterwards. Metrics: payslip.render (timer) and
+ * payslip.requests tagged result=hit|miss (stored artifact served vs rendered).
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class PayslipService {
+
+    // stored: the bytes are the salary's kept payslip (safe to cache as immutable)
+    public record Rendered(byte[] content, String etag, boolean stored) { }
+
+    private final SalaryRepository salaryRepository;
+    private final PayslipRepository payslipRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${payslip.render.threads:4}")
+    private int threads;
+
+    @Value("${payslip.render.queue-capacity:200}")
+    private int queueCapacity;
+
+    private final PayslipTemplate template = new PayslipTemplate();
+    private ThreadPoolExecutor executor;
+    private Timer renderTimer;
+    private Counter hits;
+    private Counter misses;
+
+    @PostConstruct
+    void start() {
+        AtomicInteger count = new AtomicInteger();
+        executor = new ThreadPoolExecutor(threads, threads, 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity), r -> new Thread(r, "payslip-render-" + count.incrementAndGet()));
+        renderTimer = Timer.builder("payslip.render").description("Time to render one payslip PDF").register(meterRegistry);
+        hits = Counter.builder("payslip.requests").tag("result", "hit").register(meterRegistry);
+        misses = Counter.builder("payslip.requests").tag("result", "miss").register(meterRegistry);
+    }
+
+    @PreDestroy
+    void stop() {
+        executor.shutdown();
+    }
+
+    // Loads what the payslip prints; employees may only read their own
+    public PayslipSource source(Long salaryId, String requesterEmail, boolean hr) {
+        PayslipSource source = salaryRepository.findPayslipSource(salaryId)
+                .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Salary record not found"));
+        if (!hr && !source.getOwnerEmail().equalsIgnoreCase(requesterEmail))
+            throw new ResponseStatusException(HttpStatus.FORBIDDEN, "Not your payslip");
+        return source;
+    }
+
+    // Stored ETag of a PAID salary's payslip, if it has been rendered before
+    public Optional<String> storedEtag(PayslipSource source) {
+        return source.getStatus() == SalaryStatus.PAID ? payslipRepository.findEtag(source.getId()) : Optional.empty();
+    }
+
+    public CompletableFuture<Rendered> payslip(PayslipSource source) {
+        if (source.getStatus() == SalaryStatus.PAID) {
+            Optional<byte[]> stored = payslipRepository.findContent(source.getId());
+            if (stored.isPresent()) {
+                hits.increment();
+                return CompletableFuture.completedFuture(new Rendered(stored.get(), etag(stored.get()), true));
+            }
+        }
+        misses.increment();
+        try {
+            return CompletableFuture.supplyAsync(() -> renderAndStore(source), executor);
+        } catch (RejectedExecutionException e) {
+            throw new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, "Payslip rendering is busy, try again shortly");
+        }
+    }
+
+    public String fileName(PayslipSource source) {
+        return String.format("payslip-%s-%d-%02d.pdf", source.getEmployeeCode(), source.getYear(), source.getMonth());
+    }
+
+    // Zip of every payslip of a month; renders ahead on the pool while earlier entries are written
+    public long writeMonthZip(int month, int year, OutputStream out) throws IOException {
+        List<PayslipSource> sources = salaryRepository.findPayslipSources(month, year);
+        Set<Long> stored = new HashSet<>(payslipRepository.findStoredSalaryIds(month, year));
+        int window = Math.max(1, threads * 2);
+
+        Deque<CompletableFuture<Rendered>> pending = new ArrayDeque<>();
+        long entries = 0;
+        try (ZipOutputStream zip = new ZipOutputStream(out)) {
+            // PDFs are already compressed enough for text-only pages; keep zip CPU low
+            zip.setLevel(1);
+            int next = 0;
+            while (next < sources.size() || !pending.isEmpty()) {
+                while (next < sources.size() && pending.size() < window) {
+                    PayslipSource source = sources.get(next++);
+                    pending.add(stored.contains(source.getId()) ? storedAsync(source) : renderAsync(source));
+                }
+
+                PayslipSource source = sources.get((int) entries);
+                Rendered rendered = pending.removeFirst().join();
+                zip.putNextEntry(new ZipEntry(fileName(source)));
+                zip.write(rendered.content());
+                zip.closeEntry();
+                entries++;
+            }
+        }
+        log.info("Payslip zip {}-{}: {} entries ({} stored)", year, month, entries, stored.size());
+        return entries;
+    }
+
+    private CompletableFuture<Rendered> storedAsync(PayslipSource source) {
+        hits.increment();
+        Optional<byte[]> stored = payslipRepository.findContent(source.getId());
+        byte[] content = stored.orElseGet(() -> render(source));
+        return CompletableFuture.completedFuture(new Rendered(content, etag(content), stored.isPresent()));
+    }
+
+    // Falls back to rendering on the caller's thread when the pool is saturated
+    private CompletableFuture<Rendered> renderAsync(PayslipSource source) {
+        misses.increment();
+        try {
+            return CompletableFuture.supplyAsync(() -> renderAndStore(source), executor);
+        } catch (RejectedExecutionException e) {
+            return CompletableFuture.completedFuture(renderAndStore(source));
+        }
+    }
+
+    // Stores a PAID payslip only if, under the salary's row lock, the row still prints the same;
+    // a salary edited while this rendered is served once but not kept
+    private Rendered renderAndStore(PayslipSource source) {
+        byte[] content = render(source);
+        String etag = etag(content);
+        boolean stored = source.getStatus() == SalaryStatus.PAID
+                && Boolean.TRUE.equals(transactionTemplate.execute(status -> {
+                    if (salaryRepository.lockById(source.getId()).isEmpty()) return false;
+                    Optional<PayslipSource> current = salaryRepository.findPayslipSource(source.getId());
+                    if (current.isEmpty() || !samePrint(source, current.get())) {
+                        log.info("Salary {} changed while its payslip rendered; not stored", source.getId());
+                        return false;
+                    }
+                    payslipRepository.store(source.getId(), etag, content, LocalDateTime.now());
+                    return true;
+                }));
+        return new Rendered(content, etag, stored);
+    }
+
+    // Every field the payslip prints is equal (amounts by value, ignoring scale)
+    static boolean samePrint(PayslipSource a, PayslipSource b) {
+        return a.getStatus() == b.getStatus()
+                && a.getMonth() == b.getMonth() && a.getYear() == b.getYear()
+                && Objects.equals(a.getName(), b.getName())
+                && Objects.equals(a.getEmployeeCode(), b.getEmployeeCode())
+                && Objects.equals(a.getDepartment(), b.getDepartment())
+                && Objects.equals(a.getBankName(), b.getBankName())
+                && Objects.equals(a.getAccountNumber(), b.getAccountNumber())
+                && Objects.equals(a.getPaidDate(), b.getPaidDate())
+                && sameAmount(a.getBasicPay(), b.getBasicPay())
+                && sameAmount(a.getHra(), b.getHra())
+                && sameAmount(a.getAllowances(), b.getAllowances())
+                && sameAmount(a.getDeductions(), b.getDeductions())
+                && sameAmount(a.getLopDays(), b.getLopDays())
+                && sameAmount(a.getLopDeduction(), b.getLopDeduction())
+                && sameAmount(a.getNetPay(), b.getNetPay());
+    }
+
+    private static boolean sameAmount(BigDecimal a, BigDecimal b) {
+        return a == null ? b == null : b != null && a.compareTo(b) == 0;
+    }
+
+    private byte[] render(PayslipSource s) {
+        return renderTimer.record(() -> {
+            BigDecimal lop = s.getLopDeduction() == null ? BigDecimal.ZERO : s.getLopDeduction();
+            Map<String, String> values = new HashMap<>();
+            values.put("period", Month.of(s.getMonth()).getDisplayName(TextStyle.FULL, Locale.ENGLISH) + " " + s.getYear());
+            values.put("name", s.getName());
+            values.put("employeeCode", s.getEmployeeCode());
+            values.put("department", s.getDepartment());
+            values.put("bank", s.getBankName());
+            values.put("account", mask(s.getAccountNumber()));
+            values.put("basicPay", money(s.getBasicPay()));
+            values.put("hra", money(s.getHra()));
+            values.put("allowances", money(s.getAllowances()));
+            values.put("deductions", money(s.getDeductions()));
+            values.put("lopDays", s.getLopDays() == null ? "0" : s.getLopDays().stripTrailingZeros().toPlainString());
+            values.put("lopDeduction", money(lop));
+            values.put("grossPay", money(s.getBasicPay().add(s.getHra()).add(s.getAllowances())));
+            values.put("totalDeductions", money(s.getDeductions().add(lop)));
+            values.put("netPay", money(s.getNetPay()));
+            values.put("status", String.valueOf(s.getStatus()));
+            values.put("paidDate", s.getPaidDate() == null ? "-" : s.getPaidDate().toString());
+            return template.render(values);
+        });
+    }
+
+    private static String money(BigDecimal value) {
+        return value == null ? "0.00" : String.format(Locale.ENGLISH, "%,.2f", value);
+    }
+
+    // Only the last four digits are printed
+    private static String mask(String account) {
+        if (account == null || account.length() <= 4) return account;
+        return "XXXX" + account.substring(account.length() - 4);
+    }
+
+    static String etag(byte[] content) {
+        try {
+            return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(content));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
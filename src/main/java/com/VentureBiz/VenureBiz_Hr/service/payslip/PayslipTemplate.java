@@ -0,0 +1,136 @@
+package com.VentureBiz.VenureBiz_Hr.service.payslip;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Single-page A4 payslip PDF built from a page-content template with {{field}} slots.
+ * The template is split into byte segments once (at construction); rendering only
+ * concatenates those segments with escaped values and writes the cross-reference table.
+ * Output is deterministic (no timestamps or ids), so the same salary always yields the same bytes.
+ */
+public class PayslipTemplate {
+
+    private static final Pattern SLOT = Pattern.compile("\\{\\{(\\w+)}}");
+
+    // Page content stream; Helvetica (F1) and Helvetica-Bold (F2), coordinates in points from bottom-left
+    static final String CONTENT = """
+            BT /F2 18 Tf 1 0 0 1 50 790 Tm (VentureBiz Payslip) Tj ET
+            BT /F1 11 Tf 1 0 0 1 50 770 Tm (Pay period: {{period}}) Tj ET
+            0.5 w 50 755 m 545 755 l S
+            BT /F2 10 Tf 1 0 0 1 50 732 Tm (Employee) Tj ET
+            BT /F1 10 Tf 1 0 0 1 160 732 Tm ({{name}}) Tj ET
+            BT /F2 10 Tf 1 0 0 1 50 716 Tm (Employee code) Tj ET
+            BT /F1 10 Tf 1 0 0 1 160 716 Tm ({{employeeCode}}) Tj ET
+            BT /F2 10 Tf 1 0 0 1 50 700 Tm (Department) Tj ET
+            BT /F1 10 Tf 1 0 0 1 160 700 Tm ({{department}}) Tj ET
+            BT /F2 10 Tf 1 0 0 1 50 684 Tm (Bank account) Tj ET
+            BT /F1 10 Tf 1 0 0 1 160 684 Tm ({{bank}}  {{account}}) Tj ET
+            50 668 m 545 668 l S
+            BT /F2 12 Tf 1 0 0 1 50 645 Tm (Earnings) Tj ET
+            BT /F2 12 Tf 1 0 0 1 310 645 Tm (Deductions) Tj ET
+            BT /F1 10 Tf 1 0 0 1 50 625 Tm (Basic pay) Tj ET
+            BT /F1 10 Tf 1 0 0 1 200 625 Tm ({{basicPay}}) Tj ET
+            BT /F1 10 Tf 1 0 0 1 50 609 Tm (HRA) Tj ET
+            BT /F1 10 Tf 1 0 0 1 200 609 Tm ({{hra}}) Tj ET
+            BT /F1 10 Tf 1 0 0 1 50 593 Tm (Allowances) Tj ET
+            BT /F1 10 Tf 1 0 0 1 200 593 Tm ({{allowances}}) Tj ET
+            BT /F1 10 Tf 1 0 0 1 310 625 Tm (Deductions) Tj ET
+            BT /F1 10 Tf 1 0 0 1 470 625 Tm ({{deductions}}) Tj ET
+            BT /F1 10 Tf 1 0 0 1 310 609 Tm (Loss of pay \\({{lopDays}} days\\)) Tj ET
+            BT /F1 10 Tf 1 0 0 1 470 609 Tm ({{lopDeduction}}) Tj ET
+            BT /F2 10 Tf 1 0 0 1 50 567 Tm (Gross pay) Tj ET
+            BT /F2 10 Tf 1 0 0 1 200 567 Tm ({{grossPay}}) Tj ET
+            BT /F2 10 Tf 1 0 0 1 310 567 Tm (Total deductions) Tj ET
+            BT /F2 10 Tf 1 0 0 1 470 567 Tm ({{totalDeductions}}) Tj ET
+            50 552 m 545 552 l S
+            BT /F2 14 Tf 1 0 0 1 50 527 Tm (Net pay) Tj ET
+            BT /F2 14 Tf 1 0 0 1 200 527 Tm ({{netPay}}) Tj ET
+            BT /F1 10 Tf 1 0 0 1 50 500 Tm (Status: {{status}}    Paid on: {{paidDate}}) Tj ET
+            BT /F1 8 Tf 1 0 0 1 50 60 Tm (This is a system generated payslip and does not require a signature.) Tj ET
+            """;
+
+    // Objects 1-5 never change: catalog, page tree, page, two fonts
+    private static final String[] FIXED_OBJECTS = {
+            "<< /Type /Catalog /Pages 2 0 R >>",
+            "<< /Type /Pages /Kids [3 0 R] /Count 1 >>",
+            "<< /Type /Page /Parent 2 0 R /MediaBox [0 0 595 842] " +
+                    "/Resources << /Font << /F1 4 0 R /F2 5 0 R >> >> /Contents 6 0 R >>",
+            "<< /Type /Font /Subtype /Type1 /BaseFont /Helvetica /Encoding /WinAnsiEncoding >>",
+            "<< /Type /Font /Subtype /Type1 /BaseFont /Helvetica-Bold /Encoding /WinAnsiEncoding >>"
+    };
+
+    private final byte[] prefix;          // header + fixed objects
+    private final long[] fixedOffsets;    // byte offset of objects 1-5
+    private final List<Object> segments;  // byte[] literal or String slot name
+
+    public PayslipTemplate() {
+        this(CONTENT);
+    }
+
+    PayslipTemplate(String content) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        write(out, "%PDF-1.4\n");
+        fixedOffsets = new long[FIXED_OBJECTS.length];
+        for (int i = 0; i < FIXED_OBJECTS.length; i++) {
+            fixedOffsets[i] = out.size();
+            write(out, (i + 1) + " 0 obj\n" + FIXED_OBJECTS[i] + "\nendobj\n");
+        }
+        prefix = out.toByteArray();
+
+        segments = new ArrayList<>();
+        Matcher m = SLOT.matcher(content);
+        int last = 0;
+        while (m.find()) {
+            segments.add(content.substring(last, m.start()).getBytes(StandardCharsets.ISO_8859_1));
+            segments.add(m.group(1));
+            last = m.end();
+        }
+        segments.add(content.substring(last).getBytes(StandardCharsets.ISO_8859_1));
+    }
+
+    public byte[] render(Map<String, String> values) {
+        ByteArrayOutputStream stream = new ByteArrayOutputStream(4096);
+        for (Object segment : segments) {
+            if (segment instanceof byte[] bytes) stream.writeBytes(bytes);
+            else stream.writeBytes(escape(values.get((String) segment)));
+        }
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream(prefix.length + stream.size() + 512);
+        out.writeBytes(prefix);
+        long contentOffset = out.size();
+        write(out, "6 0 obj\n<< /Length " + stream.size() + " >>\nstream\n");
+        out.writeBytes(stream.toByteArray());
+        write(out, "\nendstream\nendobj\n");
+
+        long xref = out.size();
+        StringBuilder tail = new StringBuilder("xref\n0 7\n0000000000 65535 f \n");
+        for (long offset : fixedOffsets) tail.append(String.format("%010d 00000 n \n", offset));
+        tail.append(String.format("%010d 00000 n \n", contentOffset));
+        tail.append("trailer\n<< /Size 7 /Root 1 0 R >>\nstartxref\n").append(xref).append("\n%%EOF\n");
+        write(out, tail.toString());
+        return out.toByteArray();
+    }
+
+    // PDF literal-string escaping; characters outside Latin-1 become '?'
+    private static byte[] escape(String value) {
+        if (value == null) return new byte[0];
+        StringBuilder sb = new StringBuilder(value.length() + 8);
+        for (char c : value.toCharArray()) {
+            if (c == '\\' || c == '(' || c == ')') sb.append('\\').append(c);
+            else if (c < 0x20) sb.append(' ');
+            else if (c > 0xFF) sb.append('?');
+            else sb.append(c);
+        }
+        return sb.toString().getBytes(StandardCharsets.ISO_8859_1);
+    }
+
+    private static void write(ByteArrayOutputStream out, String text) {
+        out.writeBytes(text.getBytes(StandardCharsets.ISO_8859_1));
+    }
+}
@@ -0,0 +1,24 @@
+package com.VentureBiz.VenureBiz_Hr.service.punch;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+
+/**
+ * An accepted check-in or check-out waiting to be written. status is the final status
+ * for a check-out (computed when it was accepted) and null for a check-in.
+ */
+public record Punch(Type type, long userId, LocalDate date, LocalTime time, String status) {
+
+    public enum Type { IN, OUT }
+
+    // One journal line: TYPE,userId,date,time[,status]
+    String toLine() {
+        return type + "," + userId + "," + date + "," + time + (status == null ? "" : "," + status);
+    }
+
+    static Punch fromLine(String line) {
+        String[] parts = line.split(",");
+        return new Punch(Type.valueOf(parts[0]), Long.parseLong(parts[1]), LocalDate.parse(parts[2]),
+                LocalTime.parse(parts[3]), parts.length > 4 ? parts[4] : null);
+    }
+}
@@ -0,0 +1,142 @@
+package com.VentureBiz.VenureBiz_Hr.service.punch;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static java.nio.file.StandardOpenOption.*;
+
+/**
+ * Append-only local journal of acknowledged punches, kept as numbered segment files
+ * (path.1, path.2, ...). A punch is on disk before the caller is answered. After each
+ * committed batch the active segment is rolled and every segment whose punches are all
+ * committed is deleted, so the journal stays bounded by what is still queued.
+ * Not thread-safe: the caller serializes access.
+ */
+class PunchJournal {
+
+    private static final class Segment {
+        final Path file;
+        long punches;
+
+        Segment(Path file) {
+            this.file = file;
+        }
+    }
+
+    private final Path path;
+    private final boolean fsync;
+    private final Deque<Segment> sealed = new ArrayDeque<>();
+    private Segment active;
+    private FileChannel channel;
+    private long nextSegment;
+    // Committed punches not yet accounted to a deleted segment (oldest first)
+    private long committed;
+
+    PunchJournal(Path path, boolean fsync) throws IOException {
+        this.path = path.toAbsolutePath();
+        this.fsync = fsync;
+        Files.createDirectories(this.path.getParent());
+        this.nextSegment = existingSegments().stream().mapToLong(this::segmentNumber).max().orElse(0) + 1;
+        open();
+    }
+
+    void append(Punch punch) throws IOException {
+        ByteBuffer buffer = ByteBuffer.wrap((punch.toLine() + "\n").getBytes(StandardCharsets.US_ASCII));
+        while (buffer.hasRemaining()) channel.write(buffer);
+        if (fsync) channel.force(false);
+        active.punches++;
+    }
+
+    // Punches left over from a previous run (acknowledged but maybe not committed), oldest first
+    List<Punch> readAll() throws IOException {
+        List<Path> files = new ArrayList<>();
+        if (Files.exists(path)) files.add(path); // single-file journal of older versions
+        files.addAll(existingSegments());
+
+        List<Punch> punches = new ArrayList<>();
+        for (Path file : files) {
+            if (file.equals(active.file)) continue;
+            for (String line : Files.readAllLines(file, StandardCharsets.US_ASCII)) {
+                if (!line.isBlank()) punches.add(Punch.fromLine(line.trim()));
+            }
+        }
+        return punches;
+    }
+
+    // The oldest n journaled punches are committed: roll the active segment, drop fully committed ones
+    void committed(long n) throws IOException {
+        committed += n;
+        while (!sealed.isEmpty() && sealed.peekFirst().punches <= committed) {
+            Segment done = sealed.removeFirst();
+            committed -= done.punches;
+            Files.deleteIfExists(done.file);
+        }
+        if (sealed.isEmpty() && committed >= active.punches) {
+            // Everything journaled is committed: reuse the active segment
+            channel.truncate(0);
+            if (fsync) channel.force(true);
+            active.punches = 0;
+            committed = 0;
+        } else if (committed > 0 && sealed.isEmpty()) {
+            roll();
+        }
+    }
+
+    // Everything journaled so far (including files of a previous run) is committed
+    void truncate() throws IOException {
+        for (Segment segment : sealed) Files.deleteIfExists(segment.file);
+        sealed.clear();
+        for (Path file : existingSegments()) {
+            if (!file.equals(active.file)) Files.deleteIfExists(file);
+        }
+        Files.deleteIfExists(path);
+        channel.truncate(0);
+        if (fsync) channel.force(true);
+        active.punches = 0;
+        committed = 0;
+    }
+
+    void close() throws IOException {
+        channel.close();
+    }
+
+    private void roll() throws IOException {
+        channel.close();
+        sealed.addLast(active);
+        open();
+    }
+
+    private void open() throws IOException {
+        active = new Segment(path.resolveSibling(path.getFileName() + "." + nextSegment++));
+        channel = FileChannel.open(active.file, CREATE, WRITE, APPEND);
+    }
+
+    private List<Path> existingSegments() throws IOException {
+        String prefix = path.getFileName() + ".";
+        try (Stream<Path> files = Files.list(path.getParent())) {
+            return files.filter(f -> f.getFileName().toString().startsWith(prefix))
+                    .filter(f -> segmentNumber(f) > 0)
+                    .sorted(Comparator.comparingLong(this::segmentNumber))
+                    .toList();
+        }
+    }
+
+    private long segmentNumber(Path file) {
+        String suffix = file.getFileName().toString().substring(path.getFileName().toString().length() + 1);
+        try {
+            return Long.parseLong(suffix);
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+}
@@ -0,0 +1,254 @@
+package com.VentureBiz.VenureBiz_Hr.service.punch;
+
+import com.VentureBiz.VenureBiz_Hr.dto.PunchState;
+import com.VentureBiz.VenureBiz_Hr.repository.AttendanceRepository;
+import com.VentureBiz.VenureBiz_Hr.service.AttendanceRollupService;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.sql.Date;
+import java.sql.Time;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Optional write-behind path for check-in/check-out (attendance.write-behind.enabled).
+ * An accepted punch is appended to a local journal and put on a bounded queue before the
+ * caller is answered; a single flusher thread drains the queue in batches (by size or every
+ * flush-interval-ms) and writes each batch, plus its rollup deltas, in one transaction.
+ * A full queue pushes back with 503 instead of growing without bound. Punches still in the
+ * journal at startup are replayed before new ones are accepted; a batch reads the rows it
+ * touches under lock first, so a replayed punch that already landed is a no-op for both the
+ * table and the rollup.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class WriteBehindPunchWriter {
+
+    private static final String INSERT_CHECK_IN =
+            "INSERT IGNORE INTO attendance (user_id, date, check_in_time, status) VALUES (?, ?, ?, 'PENDING')";
+    private static final String UPDATE_CHECK_OUT =
+            "UPDATE attendance SET check_out_time = ?, status = ? " +
+            "WHERE user_id = ? AND date = ? AND check_out_time IS NULL AND status = 'PENDING'";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final AttendanceRepository attendanceRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final AttendanceRollupService attendanceRollupService;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${attendance.write-behind.enabled:false}")
+    private boolean enabled;
+
+    @Value("${attendance.write-behind.capacity:10000}")
+    private int capacity;
+
+    @Value("${attendance.write-behind.batch-size:500}")
+    private int batchSize;
+
+    @Value("${attendance.write-behind.flush-interval-ms:200}")
+    private long flushIntervalMs;
+
+    @Value("${attendance.write-behind.offer-timeout-ms:50}")
+    private long offerTimeoutMs;
+
+    @Value("${attendance.write-behind.journal-path:./data/punch-journal.log}")
+    private String journalPath;
+
+    @Value("${attendance.write-behind.journal-fsync:true}")
+    private boolean journalFsync;
+
+    // Guards journal appends/rotation together with queue inserts
+    private final Object journalLock = new Object();
+
+    private BlockingQueue<Punch> queue;
+    private PunchJournal journal;
+    private Thread flusher;
+    private volatile boolean running;
+    private Timer flushTimer;
+    private DistributionSummary batchSizes;
+
+    @PostConstruct
+    public void start() throws IOException {
+        if (!enabled) return;
+
+        queue = new ArrayBlockingQueue<>(capacity);
+        journal = new PunchJournal(Path.of(journalPath), journalFsync);
+
+        Gauge.builder("attendance.writebehind.queue.depth", queue, BlockingQueue::size)
+                .description("Punches accepted but not yet written")
+                .register(meterRegistry);
+        flushTimer = Timer.builder("attendance.writebehind.flush")
+                .description("Time to write and commit one batch")
+                .register(meterRegistry);
+        batchSizes = DistributionSummary.builder("attendance.writebehind.batch.size")
+                .description("Punches per flushed batch")
+                .register(meterRegistry);
+
+        // ✅ Replay anything acknowledged before the last shutdown/crash
+        List<Punch> pending = journal.readAll();
+        for (int i = 0; i < pending.size(); i += batchSize) {
+            write(pending.subList(i, Math.min(i + batchSize, pending.size())));
+        }
+        if (!pending.isEmpty()) log.info("Replayed {} journaled punches", pending.size());
+        journal.truncate();
+
+        running = true;
+        flusher = new Thread(this::flushLoop, "punch-write-behind");
+        flusher.start();
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    // Journals and enqueues a punch; 503 if the queue stays full past offer-timeout-ms
+    public void submit(Punch punch) {
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(offerTimeoutMs);
+        while (true) {
+            synchronized (journalLock) {
+                if (queue.remainingCapacity() > 0) {
+                    try {
+                        journal.append(punch);
+                    } catch (IOException e) {
+                        throw new RuntimeException("Could not record punch: " + e.getMessage(), e);
+                    }
+                    queue.add(punch);
+                    return;
+                }
+            }
+            if (System.nanoTime() > deadline) {
+                throw new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE,
+                        "Attendance is busy, please try again in a moment");
+            }
+            LockSupport.parkNanos(TimeUnit.MILLISECONDS.toNanos(1));
+        }
+    }
+
+    private void flushLoop() {
+        List<Punch> batch = new ArrayList<>(batchSize);
+        while (running || !queue.isEmpty()) {
+            try {
+                Punch first = queue.poll(flushIntervalMs, TimeUnit.MILLISECONDS);
+                if (first == null) continue;
+                batch.add(first);
+                queue.drainTo(batch, batchSize - 1);
+
+                flushWithRetry(batch);
+
+                synchronized (journalLock) {
+                    // The batch was the oldest journaled punches (queue and journal share their order)
+                    journal.committed(batch.size());
+                }
+                batch.clear();
+            } catch (InterruptedException e) {
+                if (!running) continue;
+                Thread.currentThread().interrupt();
+                return;
+            } catch (IOException e) {
+                log.warn("Could not rotate punch journal: {}", e.getMessage());
+            }
+        }
+    }
+
+    // A batch is never dropped: keep retrying (the queue fills and pushes back meanwhile)
+    private void flushWithRetry(List<Punch> batch) throws InterruptedException {
+        long backoffMs = 100;
+        while (true) {
+            try {
+                flushTimer.record(() -> write(batch));
+                batchSizes.record(batch.size());
+                return;
+            } catch (RuntimeException e) {
+                log.error("Punch batch of {} failed, retrying in {} ms: {}", batch.size(), backoffMs, e.getMessage());
+                Thread.sleep(backoffMs);
+                backoffMs = Math.min(backoffMs * 2, 5000);
+            }
+        }
+    }
+
+    private record Key(long userId, LocalDate date) { }
+
+    /*
+     * One transaction per batch. The rows the batch touches are read FOR UPDATE first and the
+     * batch is applied to that state in order (check-in creates a PENDING row if there is none,
+     * check-out closes a PENDING row that has none), so the rollup deltas come from the rows
+     * themselves rather than from batch update counts, which a rewritten batch does not report.
+     */
+    private void write(List<Punch> batch) {
+        Set<Long> userIds = new HashSet<>();
+        LocalDate from = batch.get(0).date(), to = from;
+        for (Punch p : batch) {
+            userIds.add(p.userId());
+            if (p.date().isBefore(from)) from = p.date();
+            if (p.date().isAfter(to)) to = p.date();
+        }
+        LocalDate first = from, last = to;
+
+        transactionTemplate.executeWithoutResult(status -> {
+            Map<Key, String> statuses = new HashMap<>();
+            Set<Key> closed = new HashSet<>();
+            for (PunchState s : attendanceRepository.lockPunchStates(userIds, first, last)) {
+                Key key = new Key(s.getUserId(), s.getDate());
+                statuses.put(key, s.getStatus());
+                if (s.getCheckOutTime() != null) closed.add(key);
+            }
+
+            List<Object[]> inArgs = new ArrayList<>();
+            List<Object[]> outArgs = new ArrayList<>();
+            List<AttendanceRollupService.StatusChange> changes = new ArrayList<>();
+            // Check-ins before check-outs so an IN and OUT in the same batch both land
+            for (Punch p : batch) {
+                Key key = new Key(p.userId(), p.date());
+                if (p.type() != Punch.Type.IN || statuses.containsKey(key)) continue;
+                statuses.put(key, "PENDING");
+                inArgs.add(new Object[]{p.userId(), Date.valueOf(p.date()), Time.valueOf(p.time())});
+                changes.add(new AttendanceRollupService.StatusChange(p.userId(), p.date(), null, "PENDING"));
+            }
+            for (Punch p : batch) {
+                Key key = new Key(p.userId(), p.date());
+                if (p.type() != Punch.Type.OUT || !"PENDING".equals(statuses.get(key)) || !closed.add(key)) continue;
+                statuses.put(key, p.status());
+                outArgs.add(new Object[]{Time.valueOf(p.time()), p.status(), p.userId(), Date.valueOf(p.date())});
+                changes.add(new AttendanceRollupService.StatusChange(p.userId(), p.date(), "PENDING", p.status()));
+            }
+
+            if (!inArgs.isEmpty()) jdbcTemplate.batchUpdate(INSERT_CHECK_IN, inArgs);
+            if (!outArgs.isEmpty()) jdbcTemplate.batchUpdate(UPDATE_CHECK_OUT, outArgs);
+            attendanceRollupService.applyChanges(changes);
+        });
+    }
+
+    @PreDestroy
+    public void stop() throws InterruptedException, IOException {
+        if (flusher == null) return;
+        // The flusher drains what is queued and exits; anything left stays in the journal
+        running = false;
+        flusher.join(TimeUnit.SECONDS.toMillis(30));
+        journal.close();
+    }
+}
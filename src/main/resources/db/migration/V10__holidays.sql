@@ -0,0 +1,11 @@
+-- Holiday calendar: office_location NULL = company-wide, otherwise only employees of that office
+CREATE TABLE holidays (
+    id              BIGINT       NOT NULL AUTO_INCREMENT,
+    date            DATE         NOT NULL,
+    name            VARCHAR(255) NOT NULL,
+    office_location VARCHAR(255),
+    PRIMARY KEY (id),
+    CONSTRAINT uk_holiday_date_location UNIQUE (date, office_location)
+) ENGINE = InnoDB;
+
+ALTER TABLE employees ADD COLUMN office_location VARCHAR(255);
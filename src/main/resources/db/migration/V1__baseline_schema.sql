@@ -0,0 +1,82 @@
+-- Baseline schema as previously produced by spring.jpa.hibernate.ddl-auto=update.
+-- Existing databases are baselined at version 1 (spring.flyway.baseline-on-migrate) and skip this script.
+
+CREATE TABLE IF NOT EXISTS users (
+    id       BIGINT       NOT NULL AUTO_INCREMENT,
+    email    VARCHAR(255) NOT NULL,
+    password VARCHAR(255),
+    role     VARCHAR(32),
+    PRIMARY KEY (id),
+    CONSTRAINT uk_users_email UNIQUE (email)
+) ENGINE = InnoDB;
+
+CREATE TABLE IF NOT EXISTS employees (
+    id              BIGINT       NOT NULL AUTO_INCREMENT,
+    employee_id     VARCHAR(255) NOT NULL,
+    name            VARCHAR(255) NOT NULL,
+    department      VARCHAR(255),
+    dept_role       VARCHAR(255),
+    date_of_joining DATE,
+    status          VARCHAR(32),
+    user_email      VARCHAR(255) NOT NULL,
+    PRIMARY KEY (id),
+    CONSTRAINT uk_employees_employee_id UNIQUE (employee_id),
+    CONSTRAINT fk_employees_user_email FOREIGN KEY (user_email) REFERENCES users (email)
+) ENGINE = InnoDB;
+
+CREATE TABLE IF NOT EXISTS attendance (
+    id             BIGINT NOT NULL AUTO_INCREMENT,
+    user_id        BIGINT,
+    date           DATE,
+    check_in_time  TIME(6),
+    check_out_time TIME(6),
+    status         VARCHAR(255),
+    reason         VARCHAR(255),
+    PRIMARY KEY (id),
+    CONSTRAINT fk_attendance_user FOREIGN KEY (user_id) REFERENCES users (id)
+) ENGINE = InnoDB;
+
+CREATE TABLE IF NOT EXISTS leave_requests (
+    id             BIGINT      NOT NULL AUTO_INCREMENT,
+    employee_id    BIGINT      NOT NULL,
+    leave_type     VARCHAR(32) NOT NULL,
+    start_date     DATE        NOT NULL,
+    end_date       DATE        NOT NULL,
+    days           BIGINT      NOT NULL,
+    leave_status   VARCHAR(32) NOT NULL,
+    applied_on     DATE        NOT NULL,
+    reason         VARCHAR(500),
+    approved_by_hr VARCHAR(255),
+    approved_on    DATE,
+    PRIMARY KEY (id),
+    CONSTRAINT fk_leave_requests_user FOREIGN KEY (employee_id) REFERENCES users (id)
+) ENGINE = InnoDB;
+
+CREATE TABLE IF NOT EXISTS salaries (
+    id             BIGINT NOT NULL AUTO_INCREMENT,
+    employee_id    BIGINT NOT NULL,
+    basic_pay      DOUBLE NOT NULL,
+    hra            DOUBLE NOT NULL,
+    allowances     DOUBLE NOT NULL,
+    deductions     DOUBLE NOT NULL,
+    net_pay        DOUBLE NOT NULL,
+    month          INT    NOT NULL,
+    year           INT    NOT NULL,
+    payslip_date   DATE,
+    paid_date      DATE,
+    status         VARCHAR(32),
+    bank_name      VARCHAR(255),
+    account_number VARCHAR(255),
+    PRIMARY KEY (id),
+    CONSTRAINT fk_salaries_employee FOREIGN KEY (employee_id) REFERENCES employees (id)
+) ENGINE = InnoDB;
+
+CREATE TABLE IF NOT EXISTS announcements (
+    id         BIGINT        NOT NULL AUTO_INCREMENT,
+    title      VARCHAR(255)  NOT NULL,
+    message    VARCHAR(1000) NOT NULL,
+    created_by BIGINT        NOT NULL,
+    created_at DATETIME(6)   NOT NULL,
+    PRIMARY KEY (id),
+    CONSTRAINT fk_announcements_user FOREIGN KEY (created_by) REFERENCES users (id)
+) ENGINE = InnoDB;
@@ -0,0 +1,13 @@
+-- Keep the oldest row when a user has more than one attendance row for the same day,
+-- otherwise the unique key below cannot be created.
+DELETE newer
+FROM attendance newer
+         JOIN attendance older
+              ON older.user_id = newer.user_id
+                  AND older.date = newer.date
+                  AND older.id < newer.id;
+
+ALTER TABLE attendance
+    ADD CONSTRAINT uk_attendance_user_date UNIQUE (user_id, date);
+
+CREATE INDEX idx_attendance_date_status ON attendance (date, status);
@@ -0,0 +1,25 @@
+CREATE TABLE attendance_monthly_rollup (
+    id             BIGINT NOT NULL AUTO_INCREMENT,
+    user_id        BIGINT NOT NULL,
+    year           INT    NOT NULL,
+    month          INT    NOT NULL,
+    present_count  INT    NOT NULL DEFAULT 0,
+    late_count     INT    NOT NULL DEFAULT 0,
+    half_day_count INT    NOT NULL DEFAULT 0,
+    absent_count   INT    NOT NULL DEFAULT 0,
+    pending_count  INT    NOT NULL DEFAULT 0,
+    PRIMARY KEY (id),
+    CONSTRAINT uk_rollup_user_month UNIQUE (user_id, year, month)
+) ENGINE = InnoDB;
+
+-- Seed from existing rows (weekdays only, same rule as the summaries)
+INSERT INTO attendance_monthly_rollup
+    (user_id, year, month, present_count, late_count, half_day_count, absent_count, pending_count)
+SELECT user_id, YEAR(date), MONTH(date),
+       SUM(status = 'PRESENT'), SUM(status = 'LATE'), SUM(status = 'HALF_DAY'),
+       SUM(status = 'ABSENT'), SUM(status = 'PENDING')
+FROM attendance
+WHERE user_id IS NOT NULL
+  AND date IS NOT NULL
+  AND DAYOFWEEK(date) NOT IN (1, 7)
+GROUP BY user_id, YEAR(date), MONTH(date);
@@ -0,0 +1,14 @@
+-- Hibernate emulates sequences with a one-row table on MySQL (next_val = next hi value).
+-- With allocationSize 50 a fetch of n hands out ids (n-50, n], so seed 50 past the current max.
+
+CREATE TABLE IF NOT EXISTS employees_seq (next_val BIGINT);
+INSERT INTO employees_seq (next_val) SELECT COALESCE(MAX(id), 0) + 51 FROM employees;
+
+CREATE TABLE IF NOT EXISTS leave_requests_seq (next_val BIGINT);
+INSERT INTO leave_requests_seq (next_val) SELECT COALESCE(MAX(id), 0) + 51 FROM leave_requests;
+
+CREATE TABLE IF NOT EXISTS salaries_seq (next_val BIGINT);
+INSERT INTO salaries_seq (next_val) SELECT COALESCE(MAX(id), 0) + 51 FROM salaries;
+
+CREATE TABLE IF NOT EXISTS announcements_seq (next_val BIGINT);
+INSERT INTO announcements_seq (next_val) SELECT COALESCE(MAX(id), 0) + 51 FROM announcements;
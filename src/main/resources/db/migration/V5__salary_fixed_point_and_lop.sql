@@ -0,0 +1,14 @@
+-- Salary amounts move from DOUBLE to fixed-point DECIMAL(12,2); existing values are rounded to paise/cents.
+-- lop_days / lop_deduction hold the attendance-driven loss of pay computed by the payroll engine.
+
+ALTER TABLE salaries
+    MODIFY basic_pay  DECIMAL(12, 2) NOT NULL,
+    MODIFY hra        DECIMAL(12, 2) NOT NULL,
+    MODIFY allowances DECIMAL(12, 2) NOT NULL,
+    MODIFY deductions DECIMAL(12, 2) NOT NULL,
+    MODIFY net_pay    DECIMAL(12, 2) NOT NULL,
+    ADD COLUMN lop_days      DECIMAL(6, 2)  NULL AFTER net_pay,
+    ADD COLUMN lop_deduction DECIMAL(12, 2) NULL AFTER lop_days;
+
+-- Seek for "salary of employee X in month M" and "latest salary up to month M" (payroll engine, payroll runs)
+CREATE INDEX idx_salaries_employee_period ON salaries (employee_id, year, month);
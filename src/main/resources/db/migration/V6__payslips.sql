@@ -0,0 +1,9 @@
+-- Rendered payslip PDFs, stored once the salary is PAID (etag = SHA-256 of content)
+CREATE TABLE payslips (
+    salary_id   BIGINT      NOT NULL,
+    etag        VARCHAR(64) NOT NULL,
+    content     LONGBLOB    NOT NULL,
+    rendered_at DATETIME(6) NOT NULL,
+    PRIMARY KEY (salary_id),
+    CONSTRAINT fk_payslips_salary FOREIGN KEY (salary_id) REFERENCES salaries (id) ON DELETE CASCADE
+) ENGINE = InnoDB;
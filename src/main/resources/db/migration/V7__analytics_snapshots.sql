@@ -0,0 +1,13 @@
+-- Immutable analytics of closed months (JSON of DepartmentAnalytics)
+CREATE TABLE analytics_snapshots (
+    id          BIGINT      NOT NULL AUTO_INCREMENT,
+    year        INT         NOT NULL,
+    month       INT         NOT NULL,
+    payload     LONGTEXT    NOT NULL,
+    computed_at DATETIME(6) NOT NULL,
+    PRIMARY KEY (id),
+    CONSTRAINT uk_analytics_snapshot_month UNIQUE (year, month)
+) ENGINE = InnoDB;
+
+-- Department / role aggregations filter employees by department and role
+CREATE INDEX idx_employees_department ON employees (department);
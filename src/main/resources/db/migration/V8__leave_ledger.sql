@@ -0,0 +1,39 @@
+-- Leave ledger (every accrual, consumption and reversal) and the balances it materializes
+CREATE TABLE leave_ledger (
+    id               BIGINT        NOT NULL AUTO_INCREMENT,
+    user_id          BIGINT        NOT NULL,
+    leave_type       VARCHAR(20)   NOT NULL,
+    year             INT           NOT NULL,
+    accrual_month    INT           NULL,
+    entry_type       VARCHAR(20)   NOT NULL,
+    days             DECIMAL(6, 2) NOT NULL,
+    leave_request_id BIGINT        NULL,
+    created_at       DATETIME(6)   NOT NULL,
+    PRIMARY KEY (id),
+    CONSTRAINT uk_leave_ledger_accrual UNIQUE (user_id, leave_type, year, accrual_month),
+    INDEX idx_leave_ledger_user_year (user_id, year)
+) ENGINE = InnoDB;
+
+CREATE TABLE leave_balances (
+    id         BIGINT        NOT NULL AUTO_INCREMENT,
+    user_id    BIGINT        NOT NULL,
+    leave_type VARCHAR(20)   NOT NULL,
+    year       INT           NOT NULL,
+    accrued    DECIMAL(6, 2) NOT NULL,
+    used       DECIMAL(6, 2) NOT NULL,
+    PRIMARY KEY (id),
+    CONSTRAINT uk_leave_balance_user_type_year UNIQUE (user_id, leave_type, year)
+) ENGINE = InnoDB;
+
+-- Leaves approved before the ledger existed count as consumed (accruals are credited by the monthly job)
+INSERT INTO leave_ledger (user_id, leave_type, year, entry_type, days, leave_request_id, created_at)
+SELECT employee_id, leave_type, YEAR(start_date), 'CONSUMPTION', -days, id, NOW(6)
+FROM leave_requests WHERE leave_status = 'APPROVED';
+
+INSERT INTO leave_balances (user_id, leave_type, year, accrued, used)
+SELECT employee_id, leave_type, YEAR(start_date), 0, SUM(days)
+FROM leave_requests WHERE leave_status = 'APPROVED'
+GROUP BY employee_id, leave_type, YEAR(start_date);
+
+-- HR approval queue: pending requests by start date
+CREATE INDEX idx_leave_status_start ON leave_requests (leave_status, start_date);
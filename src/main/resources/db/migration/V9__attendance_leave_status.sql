@@ -0,0 +1,10 @@
+-- Approved leave days are written to attendance as LEAVE (see LeaveAttendanceService); the rollup counts them
+ALTER TABLE attendance_monthly_rollup ADD COLUMN leave_count INT NOT NULL DEFAULT 0 AFTER pending_count;
+
+UPDATE attendance_monthly_rollup r
+JOIN (SELECT user_id, YEAR(date) AS y, MONTH(date) AS m, COUNT(*) AS total
+      FROM attendance
+      WHERE status = 'LEAVE' AND DAYOFWEEK(date) NOT IN (1, 7)
+      GROUP BY user_id, YEAR(date), MONTH(date)) l
+  ON l.user_id = r.user_id AND l.y = r.year AND l.m = r.month
+SET r.leave_count = l.total;
@@ -0,0 +1,162 @@
+package com.VentureBiz.VenureBiz_Hr.repository;
+
+import jakarta.persistence.EntityManager;
+import org.hibernate.Session;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.data.domain.Limit;
+import org.springframework.test.context.TestPropertySource;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Calls the attendance repository queries on a seeded dataset, captures the SQL Hibernate
+ * actually sends (StatementInspector), runs EXPLAIN over it and fails if the attendance
+ * table is read with a full scan: H2 prints every table access with the index it uses and,
+ * when it can seek, the condition after a colon; an index without one is a full read.
+ */
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@TestPropertySource(properties = {
+        "spring.datasource.url=jdbc:h2:mem:plans;MODE=MySQL;DATABASE_TO_LOWER=TRUE;NON_KEYWORDS=DATE,MONTH,YEAR,VALUE,USER,DAY",
+        "spring.datasource.driver-class-name=org.h2.Driver",
+        "spring.jpa.database-platform=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.hibernate.ddl-auto=create-drop",
+        "spring.jpa.properties.hibernate.session_factory.statement_inspector="
+                + "com.VentureBiz.VenureBiz_Hr.repository.AttendanceQueryPlanTests$CapturingInspector",
+        "spring.flyway.enabled=false"
+})
+class AttendanceQueryPlanTests {
+
+    private static final int USERS = 50;
+    private static final int DAYS = 90;
+    private static final LocalDate FIRST_DAY = LocalDate.of(2025, 1, 1);
+    private static final LocalDate DAY = LocalDate.of(2025, 2, 10);
+    private static final LocalDate FROM = LocalDate.of(2025, 2, 1);
+    private static final LocalDate TO = LocalDate.of(2025, 3, 1);
+    // An attendance access in an H2 plan and the index comment that follows it
+    private static final Pattern ATTENDANCE_ACCESS =
+            Pattern.compile("\"attendance\"(?:\\s+\"\\w+\")?\\s*/\\*(.*?)\\*/", Pattern.DOTALL);
+
+    // Records every statement Hibernate prepares
+    public static class CapturingInspector implements StatementInspector {
+        static final List<String> STATEMENTS = new ArrayList<>();
+
+        @Override
+        public String inspect(String sql) {
+            STATEMENTS.add(sql);
+            return sql;
+        }
+    }
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private AttendanceRepository attendanceRepository;
+
+    // Every AttendanceRepository query that filters attendance, called with representative arguments.
+    // insertLeaveDays/countLeaveDaysMissing are left out: their recursive CTE uses MySQL's INTERVAL syntax.
+    private Map<String, Runnable> queries() {
+        Map<String, Runnable> queries = new LinkedHashMap<>();
+        queries.put("findByUserAndDate", () -> attendanceRepository.findByUserAndDate(
+                entityManager.getReference(com.VentureBiz.VenureBiz_Hr.model.User.class, 7L), DAY));
+        queries.put("findViewsByUser", () -> attendanceRepository.findViewsByUser(7L));
+        queries.put("findPresence", () -> attendanceRepository.findPresence(DAY));
+        queries.put("lockPunchStates", () -> attendanceRepository.lockPunchStates(List.of(7L, 8L), FROM, TO));
+        queries.put("findViewsByUserAndDateRange", () -> attendanceRepository.findViewsByUserAndDateRange(7L, FROM, TO));
+        queries.put("findViewsByDateRange", () -> attendanceRepository.findViewsByDateRange(FROM, TO));
+        queries.put("findWorkingDayViewsByDateRange", () -> attendanceRepository.findWorkingDayViewsByDateRange(FROM, TO));
+        queries.put("findPage", () -> attendanceRepository.findPage(1000, FROM, TO, "PRESENT", null, Limit.of(50)));
+        queries.put("streamRegister", () -> {
+            try (Stream<?> rows = attendanceRepository.streamRegister(FROM, TO)) {
+                rows.forEach(row -> { });
+            } catch (RuntimeException e) {
+                // H2 refuses MySQL's streaming fetch size; the statement has been prepared by then
+            }
+        });
+        queries.put("countByUserAndStatus", () -> attendanceRepository.countByUserAndStatus(FROM, TO, "user7@test.com"));
+        queries.put("findMonthsOfUser", () -> attendanceRepository.findMonthsOfUser(7L));
+        queries.put("insertAbsentees", () -> attendanceRepository.insertAbsentees(DAY, 0, 1000));
+        queries.put("countAbsentees", () -> attendanceRepository.countAbsentees(DAY, 0, 1000));
+        queries.put("markPendingAsHalfDay", () -> attendanceRepository.markPendingAsHalfDay(DAY, 0, 1000));
+        queries.put("countPendingWithoutCheckout", () -> attendanceRepository.countPendingWithoutCheckout(DAY, 0, 1000));
+        queries.put("markAbsentAsLeave", () -> attendanceRepository.markAbsentAsLeave(FROM, TO, 0, 1000));
+        queries.put("countAbsentCoveredByLeave", () -> attendanceRepository.countAbsentCoveredByLeave(FROM, TO, 0, 1000));
+        queries.put("revertUncoveredLeave", () -> attendanceRepository.revertUncoveredLeave(FROM, TO, 0, 1000));
+        queries.put("countUncoveredLeave", () -> attendanceRepository.countUncoveredLeave(FROM, TO, 0, 1000));
+        return queries;
+    }
+
+    @BeforeEach
+    void seed() {
+        for (int u = 1; u <= USERS; u++) {
+            entityManager.createNativeQuery("INSERT INTO users (id, email, password, role) VALUES (?, ?, 'x', 'EMPLOYEE')")
+                    .setParameter(1, u)
+                    .setParameter(2, "user" + u + "@test.com")
+                    .executeUpdate();
+            for (int d = 0; d < DAYS; d++) {
+                entityManager.createNativeQuery("INSERT INTO attendance (user_id, date, status) VALUES (?, ?, ?)")
+                        .setParameter(1, u)
+                        .setParameter(2, FIRST_DAY.plusDays(d))
+                        .setParameter(3, d % 7 == 0 ? "ABSENT" : "PRESENT")
+                        .executeUpdate();
+            }
+        }
+        entityManager.createNativeQuery("ANALYZE").executeUpdate();
+    }
+
+    @Test
+    void attendanceQueriesNeverScanTheWholeTable() {
+        queries().forEach((name, query) -> {
+            String sql = capture(name, query);
+            String plan = explain(sql);
+            List<String> accesses = new ArrayList<>();
+            for (Matcher m = ATTENDANCE_ACCESS.matcher(plan); m.find(); ) accesses.add(m.group(1));
+
+            assertThat(accesses).as("attendance access in plan for %s:%n%s", name, plan).isNotEmpty();
+            assertThat(accesses).as("plan for %s:%n%s", name, plan)
+                    .allSatisfy(index -> assertThat(index).contains(":").doesNotContainIgnoringCase("tableScan"));
+        });
+    }
+
+    // The last statement touching attendance that the query prepared
+    private String capture(String name, Runnable query) {
+        entityManager.flush();
+        CapturingInspector.STATEMENTS.clear();
+        query.run();
+        entityManager.flush();
+        List<String> statements = CapturingInspector.STATEMENTS.stream()
+                .filter(sql -> sql.toLowerCase().contains("attendance"))
+                .toList();
+        assertThat(statements).as("SQL captured for %s", name).isNotEmpty();
+        return statements.get(statements.size() - 1);
+    }
+
+    // EXPLAIN of the captured statement; H2 plans it without binding its parameters
+    private String explain(String sql) {
+        return entityManager.unwrap(Session.class).doReturningWork(connection -> {
+            try (PreparedStatement statement = connection.prepareStatement("EXPLAIN " + sql);
+                 ResultSet rows = statement.executeQuery()) {
+                StringBuilder plan = new StringBuilder();
+                while (rows.next()) plan.append(rows.getString(1)).append('\n');
+                return plan.toString();
+            }
+        });
+    }
+}
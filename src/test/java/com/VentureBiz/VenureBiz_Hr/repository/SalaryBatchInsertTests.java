@@ -0,0 +1,118 @@
+package com.VentureBiz.VenureBiz_Hr.repository;
+
+import com.VentureBiz.VenureBiz_Hr.model.Employee;
+import com.VentureBiz.VenureBiz_Hr.model.Role;
+import com.VentureBiz.VenureBiz_Hr.model.Salary;
+import com.VentureBiz.VenureBiz_Hr.model.SalaryStatus;
+import com.VentureBiz.VenureBiz_Hr.model.User;
+import jakarta.persistence.EntityManager;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.test.context.TestPropertySource;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Saves 1,000 salaries and checks Hibernate grouped them into JDBC batches instead of
+ * preparing one INSERT per row (which is what IDENTITY ids force), and that updating a
+ * month's existing salaries loads them with their employees in one query.
+ */
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@TestPropertySource(properties = {
+        "spring.datasource.url=jdbc:h2:mem:batching;MODE=MySQL;DATABASE_TO_LOWER=TRUE;NON_KEYWORDS=DATE,MONTH,YEAR,VALUE,USER",
+        "spring.datasource.driver-class-name=org.h2.Driver",
+        "spring.jpa.database-platform=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.hibernate.ddl-auto=create-drop",
+        "spring.jpa.properties.hibernate.generate_statistics=true",
+        "spring.flyway.enabled=false"
+})
+class SalaryBatchInsertTests {
+
+    private static final int ROWS = 1000;
+    private static final int EMPLOYEES = 200;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private SalaryRepository salaryRepository;
+
+    @Test
+    void saveAllIsBatched() {
+        User user = User.builder().email("batch@test.com").password("x").role(Role.EMPLOYEE).build();
+        entityManager.persist(user);
+        Employee employee = Employee.builder().employeeId("VB-BATCH").name("Batch").user(user).build();
+        entityManager.persist(employee);
+        entityManager.flush();
+
+        List<Salary> salaries = new ArrayList<>();
+        for (int i = 0; i < ROWS; i++) {
+            salaries.add(Salary.builder().employee(employee).basicPay(BigDecimal.valueOf(i))
+                    .hra(BigDecimal.ZERO).allowances(BigDecimal.ZERO).deductions(BigDecimal.ZERO).netPay(BigDecimal.valueOf(i))
+                    .month(1 + i % 12).year(2000 + i / 12)
+                    .status(SalaryStatus.PENDING).build());
+        }
+
+        Statistics statistics = entityManager.getEntityManagerFactory().unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+        salaryRepository.saveAll(salaries);
+        entityManager.flush();
+
+        assertThat(statistics.getEntityInsertCount()).isEqualTo(ROWS);
+        // batch_size 50 and allocationSize 50: ~20 batched INSERTs plus ~20 sequence calls, not 1,000
+        assertThat(statistics.getPrepareStatementCount()).isLessThan(100);
+    }
+
+    @Test
+    void updatingExistingSalariesLoadsEmployeesWithThem() {
+        List<Long> employeeIds = seedMonth(1, 2025);
+
+        // Same steps as a payroll-run chunk: one SELECT, key by employee, batched UPDATEs
+        Statistics statistics = entityManager.getEntityManagerFactory().unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+        Map<Long, Salary> existing = salaryRepository.findForEmployees(1, 2025, employeeIds).stream()
+                .collect(Collectors.toMap(s -> s.getEmployee().getId(), Function.identity()));
+        existing.values().forEach(s -> {
+            s.setBasicPay(BigDecimal.valueOf(200));
+            s.calculateNetPay();
+        });
+        salaryRepository.saveAll(existing.values());
+        entityManager.flush();
+
+        assertThat(existing).hasSize(EMPLOYEES);
+        assertThat(statistics.getEntityFetchCount()).isZero();
+        assertThat(statistics.getEntityUpdateCount()).isEqualTo(EMPLOYEES);
+        // One SELECT and a handful of batched UPDATEs, not one employee SELECT per salary
+        assertThat(statistics.getPrepareStatementCount()).isLessThan(10);
+    }
+
+    // EMPLOYEES employees with a PENDING salary for the month; returns their ids
+    private List<Long> seedMonth(int month, int year) {
+        List<Long> employeeIds = new ArrayList<>();
+        for (int i = 0; i < EMPLOYEES; i++) {
+            User user = User.builder().email("update" + i + "@test.com").password("x").role(Role.EMPLOYEE).build();
+            entityManager.persist(user);
+            Employee employee = Employee.builder().employeeId("VB-UPD-" + i).name("Update " + i).user(user).build();
+            entityManager.persist(employee);
+            entityManager.persist(Salary.builder().employee(employee).basicPay(BigDecimal.valueOf(100))
+                    .hra(BigDecimal.ZERO).allowances(BigDecimal.ZERO).deductions(BigDecimal.ZERO).netPay(BigDecimal.valueOf(100))
+                    .month(month).year(year).status(SalaryStatus.PENDING).build());
+            employeeIds.add(employee.getId());
+        }
+        entityManager.flush();
+        entityManager.clear();
+        return employeeIds;
+    }
+}
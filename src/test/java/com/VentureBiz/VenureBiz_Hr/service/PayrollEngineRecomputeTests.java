@@ -0,0 +1,89 @@
+package com.VentureBiz.VenureBiz_Hr.service;
+
+import com.VentureBiz.VenureBiz_Hr.dto.PayrollComputationReport;
+import com.VentureBiz.VenureBiz_Hr.model.Employee;
+import com.VentureBiz.VenureBiz_Hr.model.Role;
+import com.VentureBiz.VenureBiz_Hr.model.Salary;
+import com.VentureBiz.VenureBiz_Hr.model.SalaryStatus;
+import com.VentureBiz.VenureBiz_Hr.model.User;
+import jakarta.persistence.EntityManager;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Recomputing a month that is already computed: the existing salaries of each chunk are
+ * read with their employees in one SELECT, never one employee at a time. Runs without a
+ * test transaction because the engine commits its chunks from its own worker threads.
+ */
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@TestPropertySource(properties = {
+        "spring.datasource.url=jdbc:h2:mem:recompute;MODE=MySQL;DATABASE_TO_LOWER=TRUE;NON_KEYWORDS=DATE,MONTH,YEAR,VALUE,USER,DAY",
+        "spring.datasource.driver-class-name=org.h2.Driver",
+        "spring.jpa.database-platform=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.hibernate.ddl-auto=create-drop",
+        "spring.jpa.properties.hibernate.generate_statistics=true",
+        "spring.flyway.enabled=false",
+        "payroll.engine.parallelism=2",
+        "payroll.engine.chunk-size=50"
+})
+@Import({PayrollEngineService.class, WorkingDayCalendar.class})
+class PayrollEngineRecomputeTests {
+
+    private static final int EMPLOYEES = 200;
+
+    @MockitoBean
+    private AnalyticsService analyticsService;
+
+    @Autowired
+    private PayrollEngineService payrollEngineService;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Test
+    void recomputingAMonthDoesNotLoadEmployeesOneByOne() {
+        // Templates in January, February computed once
+        transactionTemplate.executeWithoutResult(status -> {
+            for (int i = 0; i < EMPLOYEES; i++) {
+                User user = User.builder().email("engine" + i + "@test.com").password("x").role(Role.EMPLOYEE).build();
+                entityManager.persist(user);
+                Employee employee = Employee.builder().employeeId("VB-ENG-" + i).name("Engine " + i).user(user).build();
+                entityManager.persist(employee);
+                entityManager.persist(Salary.builder().employee(employee).basicPay(BigDecimal.valueOf(2000))
+                        .hra(BigDecimal.ZERO).allowances(BigDecimal.ZERO).deductions(BigDecimal.ZERO)
+                        .netPay(BigDecimal.valueOf(2000)).month(1).year(2025).status(SalaryStatus.PENDING)
+                        .bankName("Bank").accountNumber("ACC" + i).build());
+            }
+        });
+        assertThat(payrollEngineService.compute(2, 2025).getCreated()).isEqualTo(EMPLOYEES);
+
+        Statistics statistics = entityManager.getEntityManagerFactory().unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+        PayrollComputationReport report = payrollEngineService.compute(2, 2025);
+
+        assertThat(report.getUpdated()).isEqualTo(EMPLOYEES);
+        assertThat(report.getCreated()).isZero();
+        assertThat(statistics.getEntityFetchCount()).isZero();
+        // Same figures, so nothing is dirty: 4 chunk SELECTs plus the company-wide reads
+        assertThat(statistics.getPrepareStatementCount()).isLessThan(20);
+    }
+}
@@ -0,0 +1,138 @@
+package com.VentureBiz.VenureBiz_Hr.service;
+
+import com.VentureBiz.VenureBiz_Hr.dto.MonthlyAttendanceCounts;
+import com.VentureBiz.VenureBiz_Hr.dto.SalaryTemplateRow;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.projection.SpelAwareProxyProjectionFactory;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.math.BigDecimal;
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Loss-of-pay arithmetic of {@link PayrollEngineService#computeOne} with the default rules
+ * (absent 1.0, half day 0.5, half a day per 3 late days). Gross 3,000 and deductions 100
+ * unless stated, so over 20 working days one LOP day costs 150.
+ */
+class PayrollEngineServiceTests {
+
+    private static final SpelAwareProxyProjectionFactory PROJECTIONS = new SpelAwareProxyProjectionFactory();
+
+    private PayrollEngineService engine;
+
+    @BeforeEach
+    void rules() {
+        engine = new PayrollEngineService(null, null, null, null, null, null, null);
+        ReflectionTestUtils.setField(engine, "absentDayFactor", new BigDecimal("1.0"));
+        ReflectionTestUtils.setField(engine, "halfDayFactor", new BigDecimal("0.5"));
+        ReflectionTestUtils.setField(engine, "lateGrace", 3);
+        ReflectionTestUtils.setField(engine, "latePenaltyDays", new BigDecimal("0.5"));
+    }
+
+    @Test
+    void noAttendanceRowMeansNoLossOfPay() {
+        PayrollEngineService.Computed c = engine.computeOne(template("2000", "600", "400", "100"), null, 0, 20);
+
+        assertThat(c.lopDays()).isEqualByComparingTo("0");
+        assertThat(c.lopDeduction()).isEqualTo(new BigDecimal("0.00"));
+        assertThat(c.net()).isEqualTo(new BigDecimal("2900.00"));
+    }
+
+    @Test
+    void approvedLeaveExcusesPartOfTheAbsences() {
+        // 3 absences, 2 approved leave days not yet reconciled to LEAVE: 1 unpaid
+        PayrollEngineService.Computed c = engine.computeOne(standard(), counts(3, 0, 0, 0), 2, 20);
+
+        assertThat(c.lopDays()).isEqualTo(new BigDecimal("1.00"));
+        assertThat(c.lopDeduction()).isEqualTo(new BigDecimal("150.00"));
+        assertThat(c.net()).isEqualTo(new BigDecimal("2750.00"));
+    }
+
+    @Test
+    void reconciledLeaveDaysDoNotExcuseAnAbsenceTwice() {
+        // Both approved days are already LEAVE rows: the remaining absence is unpaid
+        assertThat(engine.computeOne(standard(), counts(1, 0, 0, 2), 2, 20).lopDays())
+                .isEqualTo(new BigDecimal("1.00"));
+        // 3 approved days, 2 reconciled: the third excuses the one absence
+        assertThat(engine.computeOne(standard(), counts(1, 0, 0, 2), 3, 20).lopDays())
+                .isEqualTo(new BigDecimal("0.00"));
+        // More reconciled LEAVE rows than approved days (leave shortened later) never adds LOP
+        assertThat(engine.computeOne(standard(), counts(1, 0, 0, 3), 2, 20).lopDays())
+                .isEqualTo(new BigDecimal("1.00"));
+    }
+
+    @Test
+    void lateDaysCountPerCompletedGraceBlock() {
+        assertThat(engine.computeOne(standard(), counts(0, 0, 2, 0), 0, 20).lopDays()).isEqualTo(new BigDecimal("0.00"));
+        assertThat(engine.computeOne(standard(), counts(0, 0, 3, 0), 0, 20).lopDays()).isEqualTo(new BigDecimal("0.50"));
+        assertThat(engine.computeOne(standard(), counts(0, 0, 5, 0), 0, 20).lopDays()).isEqualTo(new BigDecimal("0.50"));
+        assertThat(engine.computeOne(standard(), counts(0, 0, 6, 0), 0, 20).lopDays()).isEqualTo(new BigDecimal("1.00"));
+        // Half days add on top: 1 half day + 3 late = 1.0 day = 150
+        PayrollEngineService.Computed c = engine.computeOne(standard(), counts(0, 1, 3, 0), 0, 20);
+        assertThat(c.lopDays()).isEqualTo(new BigDecimal("1.00"));
+        assertThat(c.lopDeduction()).isEqualTo(new BigDecimal("150.00"));
+    }
+
+    @Test
+    void zeroGraceDisablesTheLatePenalty() {
+        ReflectionTestUtils.setField(engine, "lateGrace", 0);
+
+        assertThat(engine.computeOne(standard(), counts(0, 0, 9, 0), 0, 20).lopDays()).isEqualTo(new BigDecimal("0.00"));
+    }
+
+    @Test
+    void lossOfPayIsCappedAtTheWorkingDaysAndNetNeverGoesNegative() {
+        PayrollEngineService.Computed c = engine.computeOne(standard(), counts(25, 4, 9, 0), 0, 20);
+
+        assertThat(c.lopDays()).isEqualTo(new BigDecimal("20.00"));
+        assertThat(c.lopDeduction()).isEqualTo(new BigDecimal("3000.00"));
+        assertThat(c.net()).isEqualTo(new BigDecimal("0.00"));
+    }
+
+    @Test
+    void monthWithoutWorkingDaysDeductsNothing() {
+        PayrollEngineService.Computed c = engine.computeOne(standard(), counts(2, 1, 3, 0), 0, 0);
+
+        assertThat(c.lopDays()).isEqualTo(new BigDecimal("0.00"));
+        assertThat(c.lopDeduction()).isEqualTo(new BigDecimal("0.00"));
+        assertThat(c.net()).isEqualTo(new BigDecimal("2900.00"));
+    }
+
+    @Test
+    void deductionIsRoundedHalfUp() {
+        // 100.01 x 1 / 2 = 50.005 -> 50.01 (HALF_EVEN would give 50.00)
+        PayrollEngineService.Computed c = engine.computeOne(template("100.01", "0", "0", "0"), counts(1, 0, 0, 0), 0, 2);
+
+        assertThat(c.lopDeduction()).isEqualTo(new BigDecimal("50.01"));
+        assertThat(c.net()).isEqualTo(new BigDecimal("50.00"));
+    }
+
+    private static SalaryTemplateRow standard() {
+        return template("2000", "600", "400", "100");
+    }
+
+    private static SalaryTemplateRow template(String basic, String hra, String allowances, String deductions) {
+        Map<String, Object> row = new HashMap<>();
+        row.put("employeeId", 1L);
+        row.put("userId", 1L);
+        row.put("basicPay", new BigDecimal(basic));
+        row.put("hra", new BigDecimal(hra));
+        row.put("allowances", new BigDecimal(allowances));
+        row.put("deductions", new BigDecimal(deductions));
+        return PROJECTIONS.createProjection(SalaryTemplateRow.class, row);
+    }
+
+    private static MonthlyAttendanceCounts counts(long absent, long halfDay, long late, long onLeave) {
+        Map<String, Object> row = new HashMap<>();
+        row.put("userId", 1L);
+        row.put("absent", absent);
+        row.put("halfDay", halfDay);
+        row.put("late", late);
+        row.put("onLeave", onLeave);
+        return PROJECTIONS.createProjection(MonthlyAttendanceCounts.class, row);
+    }
+}
@@ -0,0 +1,172 @@
+package com.VentureBiz.VenureBiz_Hr.service;
+
+import com.VentureBiz.VenureBiz_Hr.dto.PunchImportReport;
+import com.VentureBiz.VenureBiz_Hr.dto.PunchState;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.projection.SpelAwareProxyProjectionFactory;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Merge rules of a punch import ({@link PunchImportService#merge}) and an end-to-end import
+ * on H2: stored times are widened, never narrowed, a single punch is PENDING today and
+ * HALF_DAY for a past day, and importing the same file twice leaves every day unchanged.
+ */
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@TestPropertySource(properties = {
+        "spring.datasource.url=jdbc:h2:mem:punches;MODE=MySQL;DATABASE_TO_LOWER=TRUE;NON_KEYWORDS=DATE,MONTH,YEAR,VALUE,USER,DAY",
+        "spring.datasource.driver-class-name=org.h2.Driver",
+        "spring.jpa.database-platform=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.hibernate.ddl-auto=create-drop",
+        "spring.flyway.enabled=false",
+        "attendance.import.batch-size=2"
+})
+@Import({PunchImportService.class, AttendanceRollupService.class, WorkingDayCalendar.class})
+class PunchImportServiceTests {
+
+    private static final SpelAwareProxyProjectionFactory PROJECTIONS = new SpelAwareProxyProjectionFactory();
+    private static final LocalDate TODAY = LocalDate.of(2025, 3, 5);
+    private static final LocalDate PAST = TODAY.minusDays(1);
+
+    @MockitoBean
+    private PresenceBoard presenceBoard;
+
+    @MockitoBean
+    private AttendanceFeed attendanceFeed;
+
+    @MockitoBean
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private PunchImportService punchImportService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    // =================== merge ===================
+
+    @Test
+    void newDayTakesFirstAndLastPunch() {
+        assertThat(PunchImportService.merge(t("09:10"), t("18:30"), null, PAST, TODAY))
+                .isEqualTo(new PunchImportService.DayRow(t("09:10"), t("18:30"), "PRESENT"));
+        assertThat(PunchImportService.merge(t("10:15"), t("18:05"), null, PAST, TODAY).status()).isEqualTo("LATE");
+        assertThat(PunchImportService.merge(t("09:00"), t("17:30"), null, PAST, TODAY).status()).isEqualTo("HALF_DAY");
+    }
+
+    @Test
+    void storedTimesWidenTheImportedSpan() {
+        // Manual 08:30 check-in stays; the terminal supplies the check-out
+        assertThat(PunchImportService.merge(t("09:05"), t("18:10"), state("08:30", null, "PENDING"), TODAY, TODAY))
+                .isEqualTo(new PunchImportService.DayRow(t("08:30"), t("18:10"), "PRESENT"));
+        // A later stored check-out is kept, an earlier imported check-in wins
+        assertThat(PunchImportService.merge(t("09:00"), t("17:00"), state("09:30", "19:00", "PRESENT"), PAST, TODAY))
+                .isEqualTo(new PunchImportService.DayRow(t("09:00"), t("19:00"), "PRESENT"));
+    }
+
+    @Test
+    void narrowerImportLeavesTheRowUnchanged() {
+        PunchState stored = state("09:00", "18:30", "PRESENT");
+        PunchImportService.DayRow row = PunchImportService.merge(t("09:30"), t("18:00"), stored, PAST, TODAY);
+
+        assertThat(row).isEqualTo(new PunchImportService.DayRow(t("09:00"), t("18:30"), "PRESENT"));
+        assertThat(row.sameAs(stored)).isTrue();
+    }
+
+    @Test
+    void singlePunchIsPendingTodayAndHalfDayForAPastDay() {
+        assertThat(PunchImportService.merge(t("09:00"), t("09:00"), null, TODAY, TODAY))
+                .isEqualTo(new PunchImportService.DayRow(t("09:00"), null, "PENDING"));
+        assertThat(PunchImportService.merge(t("09:00"), t("09:00"), null, PAST, TODAY))
+                .isEqualTo(new PunchImportService.DayRow(t("09:00"), null, "HALF_DAY"));
+    }
+
+    @Test
+    void punchEqualToTheStoredCheckInIsStillASinglePunch() {
+        PunchState stored = state("09:00", null, "PENDING");
+
+        PunchImportService.DayRow today = PunchImportService.merge(t("09:00"), t("09:00"), stored, TODAY, TODAY);
+        assertThat(today.checkOut()).isNull();
+        assertThat(today.sameAs(stored)).isTrue();
+
+        // A past day with only a check-in is closed as HALF_DAY, so the row does change
+        PunchImportService.DayRow past = PunchImportService.merge(t("09:00"), t("09:00"), stored, PAST, TODAY);
+        assertThat(past).isEqualTo(new PunchImportService.DayRow(t("09:00"), null, "HALF_DAY"));
+        assertThat(past.sameAs(stored)).isFalse();
+    }
+
+    // =================== import ===================
+
+    @Test
+    void reimportingTheSameFileChangesNothing() throws Exception {
+        for (int i = 1; i <= 3; i++) {
+            jdbcTemplate.update("INSERT INTO users (id, email, password, role) VALUES (?, ?, 'x', 'EMPLOYEE')", i, "u" + i + "@test.com");
+            jdbcTemplate.update("INSERT INTO employees (id, employee_id, name, user_email, status) VALUES (?, ?, 'n', ?, 'ACTIVE')",
+                    i, "EMP" + i, "u" + i + "@test.com");
+        }
+        // Manual check-in before the terminal's first punch
+        jdbcTemplate.update("INSERT INTO attendance (user_id, date, check_in_time, status) VALUES (1, '2025-03-03', '08:30:00', 'PENDING')");
+
+        StringBuilder csv = new StringBuilder("employeeCode,deviceId,timestamp\n");
+        for (String day : List.of("2025-03-03", "2025-03-04")) {
+            for (int i = 1; i <= 3; i++) {
+                csv.append("EMP").append(i).append(",T1,").append(day).append("T09:0").append(i).append(":00\n");
+                csv.append("EMP").append(i).append(",T2,").append(day).append("T09:0").append(i).append(":00\n"); // duplicate
+                csv.append("EMP").append(i).append(",T1,").append(day).append(" 18:1").append(i).append(":00\n");
+            }
+        }
+        byte[] file = csv.toString().getBytes(StandardCharsets.UTF_8);
+
+        PunchImportReport first = punchImportService.importPunches(new ByteArrayInputStream(file), PunchImportService.Format.CSV);
+        assertThat(first.getDuplicates()).isEqualTo(6);
+        assertThat(first.getDays()).isEqualTo(6);
+        assertThat(first.getInserted()).isEqualTo(5);
+        assertThat(first.getUpdated()).isEqualTo(1);
+        assertThat(first.getFailed()).isZero();
+        assertThat(jdbcTemplate.queryForMap("SELECT check_in_time, check_out_time, status FROM attendance " +
+                "WHERE user_id = 1 AND date = '2025-03-03'"))
+                .containsEntry("check_in_time", java.sql.Time.valueOf("08:30:00"))
+                .containsEntry("check_out_time", java.sql.Time.valueOf("18:11:00"))
+                .containsEntry("status", "PRESENT");
+        List<Map<String, Object>> rollup = rollup();
+
+        PunchImportReport second = punchImportService.importPunches(new ByteArrayInputStream(file), PunchImportService.Format.CSV);
+        assertThat(second.getUnchanged()).isEqualTo(second.getDays()).isEqualTo(6);
+        assertThat(second.getInserted()).isZero();
+        assertThat(second.getUpdated()).isZero();
+        assertThat(rollup()).isEqualTo(rollup);
+    }
+
+    private List<Map<String, Object>> rollup() {
+        return jdbcTemplate.queryForList("SELECT user_id, present_count, pending_count, half_day_count " +
+                "FROM attendance_monthly_rollup ORDER BY user_id");
+    }
+
+    private static LocalTime t(String time) {
+        return LocalTime.parse(time);
+    }
+
+    private static PunchState state(String checkIn, String checkOut, String status) {
+        Map<String, Object> row = new HashMap<>();
+        row.put("checkInTime", checkIn == null ? null : t(checkIn));
+        row.put("checkOutTime", checkOut == null ? null : t(checkOut));
+        row.put("status", status);
+        return PROJECTIONS.createProjection(PunchState.class, row);
+    }
+}
@@ -0,0 +1,113 @@
+package com.VentureBiz.VenureBiz_Hr.service;
+
+import com.VentureBiz.VenureBiz_Hr.repository.HolidayRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.nullable;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Bitset range arithmetic of {@link WorkingDayCalendar#workingDays}: exclusive end, ranges
+ * across Dec 31, leap years and office versus company-wide holidays. Holidays come from a
+ * stubbed repository: Dec 25 2024 and Jan 1 2025 company-wide, Dec 31 2024 for PUNE only.
+ */
+class WorkingDayCalendarTests {
+
+    // date -> office (null = company-wide)
+    private static final Map<LocalDate, String> HOLIDAYS = new HashMap<>();
+
+    static {
+        HOLIDAYS.put(LocalDate.of(2024, 12, 25), null);
+        HOLIDAYS.put(LocalDate.of(2025, 1, 1), null);
+        HOLIDAYS.put(LocalDate.of(2024, 12, 31), "PUNE");
+    }
+
+    private WorkingDayCalendar calendar;
+
+    @BeforeEach
+    void stubHolidays() {
+        HolidayRepository holidays = mock(HolidayRepository.class);
+        // Same contract as the JPQL: [from, to), company-wide days plus the given office's own
+        when(holidays.findClosedDays(any(), any(), nullable(String.class))).thenAnswer(call -> {
+            LocalDate from = call.getArgument(0);
+            LocalDate to = call.getArgument(1);
+            String location = call.getArgument(2);
+            return HOLIDAYS.entrySet().stream()
+                    .filter(h -> !h.getKey().isBefore(from) && h.getKey().isBefore(to))
+                    .filter(h -> h.getValue() == null || Objects.equals(h.getValue(), location))
+                    .map(Map.Entry::getKey)
+                    .toList();
+        });
+        calendar = new WorkingDayCalendar(holidays, null);
+    }
+
+    @Test
+    void endIsExclusive() {
+        LocalDate monday = LocalDate.of(2025, 1, 6);
+
+        assertThat(calendar.workingDays(monday, monday, null)).isZero();
+        assertThat(calendar.workingDays(monday, monday.plusDays(1), null)).isEqualTo(1);
+        assertThat(calendar.workingDays(monday.minusDays(2), monday, null)).isZero(); // Sat + Sun
+        // Ending exactly on Jan 1 takes the rest of the year up to its last bit (Mon 30, Tue 31)
+        assertThat(calendar.workingDays(LocalDate.of(2024, 12, 30), LocalDate.of(2025, 1, 1), null)).isEqualTo(2);
+    }
+
+    @Test
+    void rangeAcrossTheYearEnd() {
+        LocalDate from = LocalDate.of(2024, 12, 23);
+        LocalDate to = LocalDate.of(2025, 1, 6);
+
+        // 10 weekdays less Dec 25 and Jan 1
+        assertThat(calendar.workingDays(from, to, null)).isEqualTo(8);
+        // PUNE also closes Dec 31
+        assertThat(calendar.workingDays(from, to, "PUNE")).isEqualTo(7);
+        // Sum of the two halves
+        LocalDate newYear = LocalDate.of(2025, 1, 1);
+        assertThat(calendar.workingDays(from, newYear, "PUNE") + calendar.workingDays(newYear, to, "PUNE")).isEqualTo(7);
+    }
+
+    @Test
+    void rangeOverSeveralYears() {
+        // Fri Dec 29 2023 + all of 2024 (262 weekdays - Dec 25) + Jan 1 2025 (holiday)
+        assertThat(calendar.workingDays(LocalDate.of(2023, 12, 29), LocalDate.of(2025, 1, 2), null)).isEqualTo(1 + 261);
+    }
+
+    @Test
+    void leapYearShiftsEveryDayAfterFebruary28() {
+        assertThat(calendar.workingDays(LocalDate.of(2024, 2, 1), LocalDate.of(2024, 3, 1), null)).isEqualTo(21);
+        // Wed 28, Thu 29 (leap day), Fri Mar 1
+        assertThat(calendar.workingDays(LocalDate.of(2024, 2, 28), LocalDate.of(2024, 3, 2), null)).isEqualTo(3);
+        assertThat(calendar.isWorkingDay(LocalDate.of(2024, 2, 29), null)).isTrue();
+        assertThat(calendar.isWorkingDay(LocalDate.of(2024, 3, 2), null)).isFalse(); // Saturday
+
+        assertThat(calendar.workingDays(LocalDate.of(2024, 1, 1), LocalDate.of(2025, 1, 1), null)).isEqualTo(262 - 1);
+        assertThat(calendar.workingDays(LocalDate.of(2025, 1, 1), LocalDate.of(2026, 1, 1), null)).isEqualTo(261 - 1);
+        // The last bit of a leap year is index 365
+        assertThat(calendar.isWorkingDay(LocalDate.of(2024, 12, 31), null)).isTrue();
+    }
+
+    @Test
+    void officeHolidayOnlyClosesThatOffice() {
+        LocalDate officeHoliday = LocalDate.of(2024, 12, 31);
+        LocalDate companyHoliday = LocalDate.of(2024, 12, 25);
+
+        assertThat(calendar.isWorkingDay(officeHoliday, "PUNE")).isFalse();
+        assertThat(calendar.isWorkingDay(officeHoliday, "MUMBAI")).isTrue();
+        assertThat(calendar.isCompanyWorkingDay(officeHoliday)).isTrue();
+
+        for (String location : List.of("PUNE", "MUMBAI")) {
+            assertThat(calendar.isWorkingDay(companyHoliday, location)).isFalse();
+        }
+        assertThat(calendar.isCompanyWorkingDay(companyHoliday)).isFalse();
+    }
+}